@@ -146,7 +146,7 @@ export class FlightResultsComponent implements OnInit, OnDestroy {
   }
 
   getAvailableSeats(flight: Flight): number {
-    return flight.capaciteMaximale - flight.placesReservees;
+    return flight.placesDisponibles;
   }
 
   selectFlight(flight: Flight): void {
@@ -8,7 +8,7 @@ export interface Flight {
   tempsTrajet: number;
   capaciteMaximale: number;
   placesReservees: number;
-  placesDisponibles?: number;
+  placesDisponibles: number;
 }
 
 export interface FlightSearchParams {
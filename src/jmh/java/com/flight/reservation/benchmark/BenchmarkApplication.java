@@ -0,0 +1,111 @@
+package com.flight.reservation.benchmark;
+
+import com.flight.reservation.FlightReservationApplication;
+import com.flight.reservation.entity.Vol;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Démarrage de l'application (sans serveur web par défaut) sur une base SQLite jetable,
+ * avec les journaux SQL et DEBUG coupés pour ne mesurer que le code.
+ */
+final class BenchmarkApplication {
+
+    static final String[] VILLES = {
+        "Paris", "Lyon", "Marseille", "Toulouse", "Nice", "Nantes", "Bordeaux", "Lille",
+        "London", "Madrid", "Rome", "Berlin", "Amsterdam", "Lisbonne", "Bruxelles", "Genève"
+    };
+
+    static final LocalDateTime PREMIER_JOUR = LocalDateTime.of(2030, 1, 1, 6, 0);
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(Path base, String... proprietes) {
+        return start(WebApplicationType.NONE, base, proprietes);
+    }
+
+    /**
+     * Même démarrage avec Tomcat sur un port libre ({@code local.server.port}).
+     */
+    static ConfigurableApplicationContext startWeb(Path base, String... proprietes) {
+        List<String> configuration = new ArrayList<>(List.of("server.port=0"));
+        configuration.addAll(List.of(proprietes));
+        return start(WebApplicationType.SERVLET, base, configuration.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, Path base, String... proprietes) {
+        List<String> configuration = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:sqlite:" + base.toAbsolutePath(),
+                "spring.jpa.hibernate.ddl-auto=create",
+                "audit.spool.directory=" + base.toAbsolutePath() + "-audit-spool",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.root=WARN",
+                "logging.level.com.flight.reservation=WARN",
+                "logging.level.org.springframework.cache=WARN"
+        ));
+        configuration.addAll(List.of(proprietes));
+
+        // Arguments de ligne de commande : prioritaires sur application.yml, contrairement aux propriétés par défaut
+        return new SpringApplicationBuilder(FlightReservationApplication.class)
+                .web(type)
+                .run(configuration.stream().map(propriete -> "--" + propriete).toArray(String[]::new));
+    }
+
+    static Path newDatabase(String prefixe) {
+        try {
+            Files.createDirectories(Path.of("target"));
+            return Files.createTempFile(Path.of("target"), prefixe, ".db");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void deleteDatabase(Path base) {
+        try (Stream<Path> fichiers = Files.list(base.toAbsolutePath().getParent())) {
+            String nom = base.getFileName().toString();
+            // Base, éventuels fichiers -wal / -shm / -journal et journal d'audit
+            for (Path fichier : fichiers.filter(f -> f.getFileName().toString().startsWith(nom)).toList()) {
+                try (Stream<Path> contenu = Files.walk(fichier)) {
+                    for (Path chemin : contenu.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(chemin);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Catalogue déterministe : villes et jours répartis uniformément.
+     */
+    static List<Vol> catalogue(int taille, int capacite) {
+        List<Vol> vols = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++) {
+            LocalDateTime depart = PREMIER_JOUR.plusDays(i % 30).plusMinutes((i * 37L) % 900);
+            vols.add(new Vol(
+                    depart,
+                    depart.plusMinutes(60 + i % 240),
+                    VILLES[i % VILLES.length],
+                    VILLES[(i / VILLES.length + 1 + i) % VILLES.length],
+                    BigDecimal.valueOf(50 + (i * 13L) % 450),
+                    60 + i % 240,
+                    capacite
+            ));
+        }
+        return vols;
+    }
+}
@@ -0,0 +1,89 @@
+package com.flight.reservation.benchmark;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.enums.ModeReservation;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stratégies de concurrence sur un seul vol très demandé : 32 threads réservent en continu.
+ * <p>
+ * Les compteurs {@code succes} / {@code conflits} / {@code erreurs} donnent le taux de conflit (409 après
+ * les 3 tentatives), les percentiles de {@code SampleTime} la latence vue par le client ; les tentatives
+ * rejouées par {@code @Retryable} ({@code reservation.attempts.failed}) sont affichées en fin d'essai.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(32)
+public class ContentionBenchmark {
+
+    private static final Passager PASSAGER = new Passager("Bench", "Mark", "bench@email.com");
+
+    @Param({"OPTIMISTIC_LOCK", "PESSIMISTIC_LOCK", "PARTITIONED_QUEUE"})
+    public ModeReservation mode;
+
+    private Path base;
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private MeterRegistry meterRegistry;
+    private UUID volChaud;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Resultats {
+        public long succes;
+        public long conflits;
+        public long erreurs;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = BenchmarkApplication.newDatabase("jmh-contention-");
+        context = BenchmarkApplication.start(base, "reservation.mode=" + mode);
+        reservationService = context.getBean(ReservationService.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+
+        // Capacité suffisante pour ne jamais être complet pendant la mesure
+        VolRepository volRepository = context.getBean(VolRepository.class);
+        volChaud = volRepository.save(BenchmarkApplication.catalogue(1, 1_000_000_000).get(0)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        double tentativesEchouees = meterRegistry.find("reservation.attempts.failed").counters().stream()
+                .mapToDouble(compteur -> compteur.count())
+                .sum();
+        System.out.printf("%n%s : %.0f tentatives échouées (rejouées ou remontées en 409)%n", mode, tentativesEchouees);
+        context.close();
+        BenchmarkApplication.deleteDatabase(base);
+    }
+
+    @Benchmark
+    public Object creerReservation(Resultats resultats) {
+        try {
+            Object response = reservationService.creerReservation(new ReservationRequest(volChaud, PASSAGER, 1));
+            resultats.succes++;
+            return response;
+        } catch (ReservationConflictException e) {
+            resultats.conflits++;
+            return e;
+        } catch (RuntimeException e) {
+            // SQLITE_BUSY hors verrou, file de partition pleine, etc.
+            resultats.erreurs++;
+            return e;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.flight.reservation.benchmark;
+
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.VolRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requêtes HTTP de bout en bout (Tomcat, JDBC SQLite), threads de plateforme contre threads virtuels.
+ * <p>
+ * {@code virtualThreads=true} active le profil Spring {@code virtual-threads} et nécessite Java 21 :
+ * {@code mvn -Pjava21,benchmark -DskipTests verify -Djmh.include=HttpReservation}.
+ * Plus de clients simultanés que de threads Tomcat par défaut (200).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class HttpReservationBenchmark {
+
+    private static final int VOLS = 1000;
+    private static final String PASSAGER = "{\"nom\":\"Bench\",\"prenom\":\"Mark\",\"email\":\"bench@email.com\"}";
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private Path base;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String url;
+    private List<UUID> vols;
+
+    /**
+     * Réponses non 2xx (places insuffisantes, SQLITE_BUSY, délai d'attente de connexion).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Resultats {
+        public long erreurs;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = BenchmarkApplication.newDatabase("jmh-http-");
+        context = virtualThreads
+                ? BenchmarkApplication.startWeb(base, "reservation.mode=ATOMIC_UPDATE",
+                                                "spring.profiles.active=virtual-threads")
+                : BenchmarkApplication.startWeb(base, "reservation.mode=ATOMIC_UPDATE");
+        url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        VolRepository volRepository = context.getBean(VolRepository.class);
+        vols = volRepository.saveAll(BenchmarkApplication.catalogue(VOLS, 1_000_000_000)).stream()
+                .map(Vol::getId)
+                .toList();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        BenchmarkApplication.deleteDatabase(base);
+    }
+
+    // Lecture servie par le cache vol-places une fois chaud : pas de JDBC
+    @Benchmark
+    @Threads(400)
+    public int placesDisponibles(Resultats resultats) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/vols/" + volAuHasard() + "/places"))
+                .GET()
+                .build();
+        return envoyer(request, resultats);
+    }
+
+    // Écriture : UPDATE gardé + INSERT, sérialisés par SQLite
+    @Benchmark
+    @Threads(400)
+    public int creerReservation(Resultats resultats) throws Exception {
+        String corps = "{\"volId\":\"" + volAuHasard() + "\",\"passager\":" + PASSAGER + ",\"nombrePlaces\":1}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/reservations"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corps))
+                .build();
+        return envoyer(request, resultats);
+    }
+
+    private UUID volAuHasard() {
+        return vols.get(ThreadLocalRandom.current().nextInt(vols.size()));
+    }
+
+    private int envoyer(HttpRequest request, Resultats resultats) throws Exception {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 300) {
+            resultats.erreurs++;
+        }
+        return status;
+    }
+}
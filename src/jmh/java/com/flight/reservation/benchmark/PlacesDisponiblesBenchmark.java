@@ -0,0 +1,60 @@
+package com.flight.reservation.benchmark;
+
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.VolService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code VolService.getPlacesDisponibles} avec le cache {@code vol-places} chaud et froid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PlacesDisponiblesBenchmark {
+
+    private Path base;
+    private ConfigurableApplicationContext context;
+    private VolService volService;
+    private Cache cache;
+    private UUID volId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = BenchmarkApplication.newDatabase("jmh-places-");
+        context = BenchmarkApplication.start(base);
+        volService = context.getBean(VolService.class);
+        cache = context.getBean(CacheManager.class).getCache("vol-places");
+
+        List<Vol> vols = context.getBean(VolRepository.class).saveAll(BenchmarkApplication.catalogue(1000, 180));
+        volId = vols.get(vols.size() / 2).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        BenchmarkApplication.deleteDatabase(base);
+    }
+
+    @Benchmark
+    public Integer cacheHit() {
+        return volService.getPlacesDisponibles(volId);
+    }
+
+    @Benchmark
+    public Integer cacheMiss() {
+        cache.evict(volId);
+        return volService.getPlacesDisponibles(volId);
+    }
+}
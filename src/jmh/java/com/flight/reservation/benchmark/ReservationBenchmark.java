@@ -0,0 +1,115 @@
+package com.flight.reservation.benchmark;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.ModeReservation;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ReservationService.creerReservation} sous contention, pour chaque mode de réservation.
+ * <p>
+ * {@code HOT} : tous les threads réservent sur le même vol.
+ * {@code COLD} : chaque réservation vise un vol tiré au hasard parmi {@value #VOLS_FROIDS}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ReservationBenchmark {
+
+    private static final int VOLS_FROIDS = 1000;
+    private static final Passager PASSAGER = new Passager("Bench", "Mark", "bench@email.com");
+
+    @Param({"OPTIMISTIC_LOCK", "PESSIMISTIC_LOCK", "ATOMIC_UPDATE", "IN_MEMORY_INVENTORY", "GROUP_COMMIT",
+            "PARTITIONED_QUEUE", "LEDGER"})
+    public ModeReservation mode;
+
+    @Param({"HOT", "COLD"})
+    public String contention;
+
+    private Path base;
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private UUID volChaud;
+    private List<UUID> volsFroids;
+
+    /**
+     * Issue des réservations, rapportée par JMH à côté du débit.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Resultats {
+        public long succes;
+        public long conflits;
+        public long erreurs;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = BenchmarkApplication.newDatabase("jmh-reservation-");
+        context = BenchmarkApplication.start(base, "reservation.mode=" + mode);
+        reservationService = context.getBean(ReservationService.class);
+
+        // Capacité suffisante pour ne jamais être complet pendant la mesure
+        VolRepository volRepository = context.getBean(VolRepository.class);
+        List<Vol> vols = volRepository.saveAll(BenchmarkApplication.catalogue(VOLS_FROIDS + 1, 1_000_000_000));
+        volChaud = vols.get(0).getId();
+        volsFroids = vols.subList(1, vols.size()).stream().map(Vol::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        BenchmarkApplication.deleteDatabase(base);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object creerReservation_1(Resultats resultats) {
+        return reserver(resultats);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object creerReservation_8(Resultats resultats) {
+        return reserver(resultats);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object creerReservation_64(Resultats resultats) {
+        return reserver(resultats);
+    }
+
+    private Object reserver(Resultats resultats) {
+        UUID volId = "HOT".equals(contention)
+                ? volChaud
+                : volsFroids.get(ThreadLocalRandom.current().nextInt(volsFroids.size()));
+        try {
+            Object response = reservationService.creerReservation(new ReservationRequest(volId, PASSAGER, 1));
+            resultats.succes++;
+            return response;
+        } catch (ReservationConflictException | PlacesInsuffisantesException e) {
+            resultats.conflits++;
+            return e;
+        } catch (RuntimeException e) {
+            // SQLITE_BUSY, rejet de l'exécuteur d'audit, etc.
+            resultats.erreurs++;
+            return e;
+        }
+    }
+}
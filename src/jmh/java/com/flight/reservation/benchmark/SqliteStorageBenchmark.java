@@ -0,0 +1,92 @@
+package com.flight.reservation.benchmark;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.ReservationService;
+import com.flight.reservation.service.VolService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectures et écritures simultanées sur la même base : 4 threads paginent la recherche
+ * (transactions readOnly, sans cache), 2 threads réservent sur des vols tirés au hasard.
+ * <p>
+ * {@code storage=false} : pool par défaut, journal en rollback, lecteurs et écrivains se disputent le fichier.
+ * {@code storage=true} : WAL, une connexion d'écriture, pool de lecture seule, requêtes préparées en cache.
+ * Les compteurs {@code erreurs} relèvent les {@code SQLITE_BUSY} et autres échecs de chaque côté.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SqliteStorageBenchmark {
+
+    private static final Passager PASSAGER = new Passager("Bench", "Mark", "bench@email.com");
+
+    @Param({"false", "true"})
+    public boolean storage;
+
+    private Path base;
+    private ConfigurableApplicationContext context;
+    private VolService volService;
+    private ReservationService reservationService;
+    private List<UUID> vols;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Resultats {
+        public long erreurs;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = BenchmarkApplication.newDatabase("jmh-storage-");
+        context = BenchmarkApplication.start(base, "storage.sqlite.enabled=" + storage);
+        volService = context.getBean(VolService.class);
+        reservationService = context.getBean(ReservationService.class);
+        vols = context.getBean(VolRepository.class).saveAll(BenchmarkApplication.catalogue(2_000, 1_000_000_000))
+                .stream().map(Vol::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        BenchmarkApplication.deleteDatabase(base);
+    }
+
+    @Benchmark
+    @Group("lectureEcriture")
+    @GroupThreads(4)
+    public Object rechercher(Resultats resultats) {
+        try {
+            String ville = BenchmarkApplication.VILLES[ThreadLocalRandom.current().nextInt(BenchmarkApplication.VILLES.length)];
+            return volService.findPage(null, null, ville, null, "prix", null, null, 20);
+        } catch (RuntimeException e) {
+            resultats.erreurs++;
+            return e;
+        }
+    }
+
+    @Benchmark
+    @Group("lectureEcriture")
+    @GroupThreads(2)
+    public Object reserver(Resultats resultats) {
+        UUID volId = vols.get(ThreadLocalRandom.current().nextInt(vols.size()));
+        try {
+            return reservationService.creerReservation(new ReservationRequest(volId, PASSAGER, 1));
+        } catch (RuntimeException e) {
+            resultats.erreurs++;
+            return e;
+        }
+    }
+}
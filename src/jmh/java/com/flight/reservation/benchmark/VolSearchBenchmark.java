@@ -0,0 +1,83 @@
+package com.flight.reservation.benchmark;
+
+import com.flight.reservation.dto.VolResume;
+import com.flight.reservation.enums.CorrespondanceVille;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.VolService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code VolService.findAll} pour chaque combinaison de filtres de {@code VolSpecification}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class VolSearchBenchmark {
+
+    public enum Filtre {
+        AUCUN, VILLE_DEPART, VILLE_ARRIVEE, DATE_DEPART, DATE_ARRIVEE, VILLES, VILLES_DATE_DEPART, TOUS
+    }
+
+    @Param
+    public Filtre filtre;
+
+    @Param({"aucun", "prix", "temps_trajet"})
+    public String tri;
+
+    @Param({"PREFIX", "CONTAINS"})
+    public CorrespondanceVille correspondance;
+
+    // 0 : cache de recherche désactivé, chaque appel va en base
+    @Param({"500", "0"})
+    public int cacheRecherche;
+
+    @Param({"10000"})
+    public int catalogue;
+
+    private Path base;
+    private ConfigurableApplicationContext context;
+    private VolService volService;
+
+    private LocalDateTime dateDepart;
+    private LocalDateTime dateArrivee;
+    private String villeDepart;
+    private String villeArrivee;
+    private String critereTri;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = BenchmarkApplication.newDatabase("jmh-search-");
+        context = BenchmarkApplication.start(base, "search.cache.maximum-size=" + cacheRecherche);
+        volService = context.getBean(VolService.class);
+        context.getBean(VolRepository.class).saveAll(BenchmarkApplication.catalogue(catalogue, 180));
+
+        LocalDateTime jour = BenchmarkApplication.PREMIER_JOUR.plusDays(3);
+        boolean villes = filtre == Filtre.VILLES || filtre == Filtre.VILLES_DATE_DEPART || filtre == Filtre.TOUS;
+        villeDepart = villes || filtre == Filtre.VILLE_DEPART ? "par" : null;
+        villeArrivee = villes || filtre == Filtre.VILLE_ARRIVEE ? "lyon" : null;
+        dateDepart = filtre == Filtre.DATE_DEPART || filtre == Filtre.VILLES_DATE_DEPART || filtre == Filtre.TOUS
+                ? jour : null;
+        dateArrivee = filtre == Filtre.DATE_ARRIVEE || filtre == Filtre.TOUS ? jour : null;
+        critereTri = "aucun".equals(tri) ? null : tri;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        BenchmarkApplication.deleteDatabase(base);
+    }
+
+    @Benchmark
+    public List<VolResume> findAll() {
+        return volService.findAll(dateDepart, dateArrivee, villeDepart, villeArrivee, critereTri, correspondance);
+    }
+}
@@ -0,0 +1,42 @@
+package com.flight.reservation.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.entity.Vol;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson d'une réponse {@code List<Vol>} de {@code GET /api/vols}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class VolSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int taille;
+
+    private ObjectMapper objectMapper;
+    private List<Vol> vols;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Même configuration que le convertisseur HTTP de Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        vols = BenchmarkApplication.catalogue(taille, 180);
+        vols.forEach(vol -> vol.setId(UUID.randomUUID()));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(vols);
+    }
+}
@@ -1,7 +1,9 @@
 package com.flight.reservation.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -12,7 +14,13 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
     
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            // Un thread virtuel par tâche (Java 21) : la concurrence est bornée par les connexions, pas par le pool
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-audit-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(4);
@@ -21,4 +29,16 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+    
+    // Imports en arrière-plan : peu de threads, priorité basse, pour ne pas affamer les réservations
+    @Bean(name = "importExecutor")
+    public ThreadPoolTaskExecutor importExecutor(@Value("${import.jobs.threads:1}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("import-job-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.flight.reservation.config;
+
+import com.flight.reservation.service.AuditBuffer;
+import com.flight.reservation.service.FileAuditSpool;
+import com.flight.reservation.service.MemoryAuditBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class AuditConfig {
+
+    // Journal sur disque : les événements acceptés survivent à un arrêt brutal et sont rejoués au démarrage
+    @Bean(destroyMethod = "close")
+    public AuditBuffer auditBuffer(@Value("${audit.spool.enabled:false}") boolean spoolEnabled,
+                                   @Value("${audit.buffer-capacity:10000}") int bufferCapacity,
+                                   @Value("${audit.spool.directory:data/audit-spool}") String directory,
+                                   @Value("${audit.spool.segment-size-bytes:8388608}") long segmentSize,
+                                   @Value("${audit.spool.max-bytes:1073741824}") long maxBytes,
+                                   @Value("${audit.spool.sync-on-append:false}") boolean syncOnAppend) {
+        if (!spoolEnabled) {
+            return new MemoryAuditBuffer(bufferCapacity);
+        }
+        return new FileAuditSpool(Path.of(directory), segmentSize, maxBytes, syncOnAppend);
+    }
+}
@@ -1,23 +1,34 @@
 package com.flight.reservation.config;
 
+import com.flight.reservation.service.VolSearchCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class CacheConfig {
     
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(@Value("${search.cache.maximum-size:500}") long rechercheMaximumSize,
+                                     @Value("${search.cache.ttl-seconds:60}") long rechercheTtlSeconds) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(1000)
                 .expireAfterWrite(10, TimeUnit.MINUTES)
                 .recordStats());
+        // Caches déclarés au démarrage pour être exposés dans /actuator/metrics/cache.*
+        cacheManager.setCacheNames(List.of(VolSearchCache.CACHE_PLACES));
+        cacheManager.registerCustomCache(VolSearchCache.CACHE_RECHERCHE, Caffeine.newBuilder()
+                .maximumSize(rechercheMaximumSize)
+                .expireAfterWrite(rechercheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build());
         return cacheManager;
     }
-}
\ No newline at end of file
+}
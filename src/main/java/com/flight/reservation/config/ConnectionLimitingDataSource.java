@@ -0,0 +1,99 @@
+package com.flight.reservation.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Borne le nombre de connexions empruntées en même temps par un sémaphore équitable.
+ * <p>
+ * Avec des threads virtuels, le nombre de requêtes simultanées n'est plus limité par le pool
+ * de threads : l'attente se fait ici, dans l'ordre d'arrivée, sans bloquer de thread porteur.
+ * Le pilote SQLite exécute ses appels natifs dans des blocs {@code synchronized} qui épinglent
+ * le thread porteur ; garder les permis sous le nombre de porteurs laisse de la place aux
+ * requêtes servies depuis le cache.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permis;
+    private final long acquireTimeoutMs;
+
+    public ConnectionLimitingDataSource(DataSource targetDataSource, int maxConnections, long acquireTimeoutMs) {
+        super(targetDataSource);
+        this.permis = new Semaphore(maxConnections, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return withRelease(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permis.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return withRelease(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permis.release();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permis.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permis.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permis.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Aucune connexion disponible après " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Attente de connexion interrompue", e);
+        }
+    }
+
+    // Permis rendu une seule fois, à la fermeture de la connexion
+    private Connection withRelease(Connection connection) {
+        AtomicBoolean rendu = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (rendu.compareAndSet(false, true)) {
+                                permis.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
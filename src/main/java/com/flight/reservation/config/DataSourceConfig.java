@@ -0,0 +1,53 @@
+package com.flight.reservation.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    // datasource.max-concurrent-connections > 0 : connexions bornées par un sémaphore (profil virtual-threads).
+    // Avec l'aiguillage lecture / écriture, chaque pool borne déjà ses connexions : un permis commun
+    // ferait de nouveau attendre les réservations derrière les recherches.
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor(Environment environment) {
+        int maxConnections = environment.getProperty("datasource.max-concurrent-connections", Integer.class, 0);
+        long acquireTimeoutMs = environment.getProperty("datasource.acquire-timeout-ms", Long.class, 30_000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (maxConnections <= 0 || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConnectionLimitingDataSource || isRouted(bean)) {
+                    return bean;
+                }
+                return new ConnectionLimitingDataSource(dataSource, maxConnections, acquireTimeoutMs);
+            }
+        };
+    }
+
+    private static boolean isRouted(Object bean) {
+        return bean instanceof LazyConnectionDataSourceProxy proxy
+                && proxy.getTargetDataSource() instanceof ReadOnlyRoutingDataSource;
+    }
+
+    @Bean
+    public MeterBinder connectionPermitsMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limite) {
+                Gauge.builder("datasource.permits.available", limite, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Connexions encore disponibles sous le sémaphore")
+                        .register(registry);
+                Gauge.builder("datasource.permits.waiting", limite, ConnectionLimitingDataSource::getQueueLength)
+                        .description("Threads en attente d'une connexion")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.flight.reservation.config;
+
+import com.flight.reservation.service.VolSearchCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Un compteur par vol au plus pour les N premiers vols en conflit, les suivants ignorés
+    @Bean
+    public MeterFilter optimisticFailuresCardinality(@Value("${metrics.reservation.max-vol-tags:100}") int maxVols) {
+        return MeterFilter.maximumAllowableTags("reservation.optimistic.failures", "vol", maxVols, MeterFilter.deny());
+    }
+
+    // Ratio direct, en plus des compteurs cache.gets{result=hit|miss} publiés par Spring Boot
+    @Bean
+    public MeterBinder placesCacheHitRatio(CacheManager cacheManager) {
+        return registry -> {
+            if (cacheManager.getCache(VolSearchCache.CACHE_PLACES) instanceof CaffeineCache cache) {
+                Cache<Object, Object> caffeine = cache.getNativeCache();
+                Gauge.builder("cache.hit.ratio", caffeine, c -> c.stats().hitRate())
+                        .description("Part des lectures de vol-places servies par le cache")
+                        .tag("cache", VolSearchCache.CACHE_PLACES)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.flight.reservation.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveConfig {
+
+    // Appels JDBC bloquants des endpoints /api/reactive : threads et file bornés, rejet au-delà (503)
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${reactive.jdbc.threads:10}") int threads,
+                                   @Value("${reactive.jdbc.queue-size:1000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "jdbc-io");
+    }
+}
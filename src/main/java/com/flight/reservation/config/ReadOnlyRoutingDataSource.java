@@ -0,0 +1,55 @@
+package com.flight.reservation.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Connexions des transactions {@code readOnly} prises dans le pool de lecture, toutes les autres
+ * (écritures, accès hors transaction, mise à jour du schéma) dans le pool principal.
+ * <p>
+ * L'indicateur readOnly n'est positionné qu'après l'ouverture de la connexion par le gestionnaire
+ * de transactions : cette source doit être placée sous un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, qui ne la sollicite
+ * qu'à la première requête SQL. Chaque connexion servie est comptée par cible
+ * ({@code datasource.routing.connections{target=primary|replica}}).
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Counter primaire;
+    private final Counter replique;
+
+    public ReadOnlyRoutingDataSource(DataSource ecriture, DataSource lecture, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Boolean.FALSE, ecriture, Boolean.TRUE, lecture));
+        setDefaultTargetDataSource(ecriture);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        this.primaire = compteur(meterRegistry, "primary");
+        this.replique = compteur(meterRegistry, "replica");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        (TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? replique : primaire).increment();
+        return connection;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Counter compteur(MeterRegistry meterRegistry, String cible) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connexions servies par pool cible")
+                .tag("target", cible)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.flight.reservation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Pool principal, qui reçoit les écritures, et pool des transactions en lecture seule
+ * (réplique, ou seconde série de connexions sur la même base).
+ */
+public class ReadWritePools implements AutoCloseable {
+
+    private final HikariDataSource writer;
+    private final HikariDataSource reader;
+
+    public ReadWritePools(HikariDataSource writer, HikariDataSource reader) {
+        this.writer = writer;
+        this.reader = reader;
+    }
+
+    public HikariDataSource getWriter() {
+        return writer;
+    }
+
+    public HikariDataSource getReader() {
+        return reader;
+    }
+
+    @Override
+    public void close() {
+        reader.close();
+        writer.close();
+    }
+}
@@ -0,0 +1,60 @@
+package com.flight.reservation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Aiguillage des transactions {@code readOnly} (recherche, places disponibles) vers un pool de
+ * lecture distinct, dimensionné et borné par {@code datasource.read.*} : une recherche en attente
+ * de connexion n'occupe jamais une connexion dont une réservation a besoin.
+ * <p>
+ * Avec le stockage SQLite, les pools sont ceux de {@link SqliteStorageConfig}. Sinon, le pool
+ * principal suit {@code spring.datasource.*} et le pool de lecture ouvre {@code datasource.read.url}
+ * (une réplique), ou à défaut une seconde série de connexions sur la même base.
+ */
+@Configuration
+public class ReadWriteRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("${datasource.read.enabled:false} and !${storage.sqlite.enabled:false}")
+    public ReadWritePools readWritePools(DataSourceProperties properties, Environment environment,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${datasource.read.url:}") String url,
+                                         @Value("${datasource.read.pool-size:4}") int poolSize,
+                                         @Value("${datasource.read.connection-timeout-ms:5000}") long connectionTimeoutMs) {
+        HikariDataSource writer = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(writer));
+        writer.setPoolName("primary");
+        writer.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource reader = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                .url(url.isBlank() ? properties.determineUrl() : url)
+                .build();
+        reader.setPoolName("replica");
+        reader.setMaximumPoolSize(poolSize);
+        reader.setConnectionTimeout(connectionTimeoutMs);
+        reader.setReadOnly(true);
+        reader.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReadWritePools(writer, reader);
+    }
+
+    // Pools non exposés comme DataSource : ni enveloppés par les post-processeurs, ni candidats pour JPA
+    @Bean
+    @ConditionalOnExpression("${datasource.read.enabled:false} or ${storage.sqlite.enabled:false}")
+    public DataSource dataSource(ReadWritePools readWritePools, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(
+                readWritePools.getWriter(), readWritePools.getReader(), meterRegistry));
+    }
+}
@@ -0,0 +1,163 @@
+package com.flight.reservation.config;
+
+import com.flight.reservation.enums.StatutReservation;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Mise à niveau du schéma d'une base SQLite, avant l'initialisation de JPA, quel que soit le pool
+ * ({@code storage.sqlite.*} ou pool par défaut sur une URL {@code jdbc:sqlite:}).
+ * <p>
+ * {@code ddl-auto: update} n'ajoute que des colonnes et SQLite ne sait pas modifier une contrainte :
+ * quand {@link StatutReservation} gagne une valeur, la table {@code audit_logs} est reconstruite
+ * avec la contrainte CHECK élargie, selon la procédure documentée par SQLite (nouvelle table,
+ * copie des lignes, suppression, renommage, index et triggers recréés), dans une transaction
+ * vérifiée par {@code PRAGMA foreign_key_check} et {@code PRAGMA integrity_check} avant le commit.
+ * Le résultat est journalisé dans tous les cas ; une base que la mise à niveau ne reconnaît pas
+ * empêche le démarrage plutôt que de laisser échouer plus tard les écritures d'audit.
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.datasource.url:}'.startsWith('jdbc:sqlite:')")
+@Import(SqliteSchemaUpgrade.AvantJpa.class)
+public class SqliteSchemaUpgrade {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqliteSchemaUpgrade.class);
+
+    private static final String TABLE = "audit_logs";
+    private static final String TABLE_NOUVELLE = "audit_logs_nouvelle";
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?i)^\\s*create\\s+table\\s+\"?" + TABLE + "\"?");
+    private static final Pattern CHECK_STATUT = Pattern.compile("(?i)check\\s*\\(\\s*statut\\s+in\\s*\\(([^)]*)\\)\\s*\\)");
+
+    private final DataSource dataSource;
+
+    public SqliteSchemaUpgrade(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void upgrade() {
+        Set<String> attendues = Arrays.stream(StatutReservation.values())
+                .map(Enum::name)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        try (Connection connexion = dataSource.getConnection(); Statement statement = connexion.createStatement()) {
+            String schema = sql(statement, "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = '" + TABLE + "'");
+            if (schema == null) {
+                logger.info("Schéma SQLite : table {} absente, créée par JPA", TABLE);
+                return;
+            }
+            Matcher check = CHECK_STATUT.matcher(schema);
+            if (!check.find()) {
+                logger.info("Schéma SQLite : {}.statut sans contrainte CHECK, rien à élargir", TABLE);
+                return;
+            }
+            Set<String> actuelles = Arrays.stream(check.group(1).split(","))
+                    .map(valeur -> valeur.trim().replace("'", ""))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (actuelles.containsAll(attendues)) {
+                logger.info("Schéma SQLite à jour : {}.statut admet {}", TABLE, actuelles);
+                return;
+            }
+
+            Matcher create = CREATE_TABLE.matcher(schema);
+            if (!create.find()) {
+                throw new IllegalStateException("Définition de " + TABLE + " non reconnue : " + schema);
+            }
+            Set<String> elargies = new LinkedHashSet<>(actuelles);
+            elargies.addAll(attendues);
+            String valeurs = elargies.stream().map(valeur -> "'" + valeur + "'").collect(Collectors.joining(","));
+            String nouvelle = create.replaceFirst("create table " + TABLE_NOUVELLE);
+            nouvelle = CHECK_STATUT.matcher(nouvelle)
+                    .replaceFirst(Matcher.quoteReplacement("check (statut in (" + valeurs + "))"));
+
+            int copiees = reconstruire(connexion, statement, nouvelle);
+            logger.info("Schéma SQLite mis à niveau : {} reconstruite ({} lignes), statut {} -> {}",
+                       TABLE, copiees, actuelles, elargies);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Mise à niveau du schéma SQLite impossible (" + TABLE + ")", e);
+        }
+    }
+
+    private static int reconstruire(Connection connexion, Statement statement, String nouvelle) throws SQLException {
+        // Les clés étrangères ne se désactivent qu'hors transaction
+        boolean clesEtrangeres = "1".equals(sql(statement, "PRAGMA foreign_keys"));
+        if (clesEtrangeres) {
+            statement.execute("PRAGMA foreign_keys = OFF");
+        }
+        boolean autoCommit = connexion.getAutoCommit();
+        connexion.setAutoCommit(false);
+        try {
+            List<String> dependances = new ArrayList<>();
+            try (ResultSet resultat = statement.executeQuery("SELECT sql FROM sqlite_master WHERE tbl_name = '"
+                    + TABLE + "' AND type IN ('index', 'trigger') AND sql IS NOT NULL")) {
+                while (resultat.next()) {
+                    dependances.add(resultat.getString(1));
+                }
+            }
+
+            statement.execute("DROP TABLE IF EXISTS " + TABLE_NOUVELLE);
+            statement.execute(nouvelle);
+            int copiees = statement.executeUpdate("INSERT INTO " + TABLE_NOUVELLE + " SELECT * FROM " + TABLE);
+            statement.execute("DROP TABLE " + TABLE);
+            statement.execute("ALTER TABLE " + TABLE_NOUVELLE + " RENAME TO " + TABLE);
+            for (String dependance : dependances) {
+                statement.execute(dependance);
+            }
+
+            try (ResultSet violations = statement.executeQuery("PRAGMA foreign_key_check")) {
+                if (violations.next()) {
+                    throw new SQLException("Clés étrangères invalides après reconstruction : " + violations.getString(1));
+                }
+            }
+            String integrite = sql(statement, "PRAGMA integrity_check");
+            if (!"ok".equalsIgnoreCase(integrite)) {
+                throw new SQLException("Intégrité invalide après reconstruction : " + integrite);
+            }
+            connexion.commit();
+            return copiees;
+        } catch (SQLException e) {
+            connexion.rollback();
+            throw e;
+        } finally {
+            connexion.setAutoCommit(autoCommit);
+            if (clesEtrangeres) {
+                statement.execute("PRAGMA foreign_keys = ON");
+            }
+        }
+    }
+
+    private static String sql(Statement statement, String requete) throws SQLException {
+        try (ResultSet resultat = statement.executeQuery(requete)) {
+            return resultat.next() ? resultat.getString(1) : null;
+        }
+    }
+
+    /**
+     * Le schéma est mis à niveau avant que JPA ne l'inspecte ({@code ddl-auto}).
+     */
+    static class AvantJpa extends EntityManagerFactoryDependsOnPostProcessor {
+
+        AvantJpa() {
+            super(SqliteSchemaUpgrade.class);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.flight.reservation.config;
+
+import com.flight.reservation.enums.DebordementAudit;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+/**
+ * Stockage SQLite : pragmas appliqués à l'ouverture de chaque connexion, un seul écrivain,
+ * des lecteurs en parallèle.
+ * <p>
+ * En WAL, les lectures ne bloquent pas l'écriture et ne sont pas bloquées par elle ; SQLite
+ * n'admet de toute façon qu'un écrivain à la fois. Le pool d'écriture n'a donc qu'une connexion :
+ * les écritures concurrentes attendent leur tour dans le pool plutôt que de se disputer le verrou
+ * du fichier ({@code SQLITE_BUSY}). Les transactions {@code readOnly} sont servies par un pool de
+ * connexions ouvertes en lecture seule ({@code datasource.read.*}), aiguillées par
+ * {@link ReadWriteRoutingConfig}. Les deux pools gardent leurs requêtes préparées en cache.
+ * <p>
+ * Une transaction d'écriture ne doit pas en ouvrir une autre (REQUIRES_NEW) sur le même thread :
+ * la seconde attendrait la connexion détenue par la première jusqu'au délai du pool. C'est le cas
+ * de l'écriture d'audit sur le thread appelant, publiée pendant la transaction de réservation :
+ * {@code audit.overflow: CALLER_RUNS} est refusé au démarrage.
+ * <p>
+ * Le schéma est mis à niveau par {@link SqliteSchemaUpgrade}, avec ou sans ces pools.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "storage.sqlite", name = "enabled", havingValue = "true")
+public class SqliteStorageConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${storage.sqlite.synchronous:NORMAL}")
+    private SQLiteConfig.SynchronousMode synchronous;
+
+    @Value("${storage.sqlite.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    @Value("${storage.sqlite.cache-size-kib:16384}")
+    private int cacheSizeKib;
+
+    @Value("${storage.sqlite.mmap-size-bytes:268435456}")
+    private long mmapSizeBytes;
+
+    @Value("${storage.sqlite.statement-cache-size:64}")
+    private int statementCacheSize;
+
+    @Bean(destroyMethod = "close")
+    public ReadWritePools readWritePools(
+            MeterRegistry meterRegistry,
+            @Value("${storage.sqlite.writer.connection-timeout-ms:30000}") long writerTimeoutMs,
+            @Value("${datasource.read.pool-size:4}") int readerPoolSize,
+            @Value("${datasource.read.connection-timeout-ms:5000}") long readerTimeoutMs,
+            @Value("${audit.overflow:BLOCK}") DebordementAudit debordementAudit) {
+        if (debordementAudit == DebordementAudit.CALLER_RUNS) {
+            throw new IllegalStateException("audit.overflow=CALLER_RUNS incompatible avec storage.sqlite : "
+                    + "l'écriture d'audit attendrait la connexion d'écriture détenue par la réservation");
+        }
+        SQLiteConfig ecriture = pragmas();
+        ecriture.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        HikariDataSource writer = pool("sqlite-writer", ecriture, false, 1, writerTimeoutMs, meterRegistry);
+
+        // Ouvert après l'écrivain : le fichier existe et est déjà en WAL
+        SQLiteConfig lecture = pragmas();
+        lecture.setReadOnly(true);
+        HikariDataSource reader;
+        try {
+            reader = pool("sqlite-reader", lecture, true, readerPoolSize, readerTimeoutMs, meterRegistry);
+        } catch (RuntimeException e) {
+            writer.close();
+            throw e;
+        }
+        return new ReadWritePools(writer, reader);
+    }
+
+    private HikariDataSource pool(String nom, SQLiteConfig config, boolean lectureSeule, int taille,
+                                  long connectionTimeoutMs, MeterRegistry meterRegistry) {
+        HikariConfig pool = new HikariConfig();
+        pool.setPoolName(nom);
+        pool.setMaximumPoolSize(taille);
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        pool.setReadOnly(lectureSeule);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pool.setDataSource(new StatementCachingDataSource(sqlite(config), statementCacheSize));
+        return new HikariDataSource(pool);
+    }
+
+    private SQLiteConfig pragmas() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(synchronous);
+        config.setBusyTimeout(busyTimeoutMs);
+        // Valeur négative : taille en Kio plutôt qu'en pages
+        config.setCacheSize(-cacheSizeKib);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSizeBytes));
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        return config;
+    }
+
+    private SQLiteDataSource sqlite(SQLiteConfig config) {
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl(url);
+        return dataSource;
+    }
+}
@@ -0,0 +1,150 @@
+package com.flight.reservation.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache de requêtes préparées par connexion physique, à placer sous le pool.
+ * <p>
+ * Le pilote SQLite recompile le SQL à chaque {@code prepareStatement} ; ici une requête fermée
+ * par l'appelant est remise à zéro et gardée ouverte pour le prochain {@code prepareStatement}
+ * du même SQL sur la même connexion. Au-delà de {@code taille} requêtes, la moins récemment
+ * utilisée est réellement fermée. Une requête dont l'état a été modifié (lignes max, délai)
+ * n'est pas réutilisée.
+ */
+public class StatementCachingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> MODIFIENT_ETAT = Set.of(
+            "setMaxRows", "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout",
+            "setFetchDirection", "setPoolable", "setCursorName", "closeOnCompletion");
+
+    private final int taille;
+
+    public StatementCachingDataSource(DataSource targetDataSource, int taille) {
+        super(targetDataSource);
+        this.taille = taille;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return avecCache(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return avecCache(super.getConnection(username, password));
+    }
+
+    private Connection avecCache(Connection connection) {
+        if (taille <= 0) {
+            return connection;
+        }
+        Map<String, PreparedStatement> cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> plusAncienne) {
+                if (size() > taille) {
+                    fermer(plusAncienne.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement") && args.length == 1) {
+                        return emprunter(connection, cache, (String) args[0]);
+                    }
+                    if (method.getName().equals("close")) {
+                        synchronized (cache) {
+                            cache.values().forEach(StatementCachingDataSource::fermer);
+                            cache.clear();
+                        }
+                    }
+                    return invoquer(connection, method, args);
+                });
+    }
+
+    // Requête retirée du cache le temps de l'emprunt : deux emprunts simultanés du même SQL en ouvrent deux
+    private static PreparedStatement emprunter(Connection connection, Map<String, PreparedStatement> cache,
+                                               String sql) throws SQLException {
+        PreparedStatement statement;
+        synchronized (cache) {
+            statement = cache.remove(sql);
+        }
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+        }
+        PreparedStatement reel = statement;
+        boolean[] etat = new boolean[2]; // 0 : fermée par l'appelant, 1 : non réutilisable
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!etat[0]) {
+                                etat[0] = true;
+                                rendre(cache, sql, reel, etat[1]);
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            return etat[0] || reel.isClosed();
+                        }
+                        default -> {
+                            if (MODIFIENT_ETAT.contains(method.getName())) {
+                                etat[1] = true;
+                            }
+                            return invoquer(reel, method, args);
+                        }
+                    }
+                });
+    }
+
+    private static void rendre(Map<String, PreparedStatement> cache, String sql, PreparedStatement statement,
+                               boolean modifiee) {
+        if (modifiee) {
+            fermer(statement);
+            return;
+        }
+        try {
+            statement.clearParameters();
+            statement.clearBatch();
+        } catch (SQLException e) {
+            fermer(statement);
+            return;
+        }
+        PreparedStatement remplacee;
+        synchronized (cache) {
+            remplacee = cache.put(sql, statement);
+        }
+        if (remplacee != null) {
+            fermer(remplacee);
+        }
+    }
+
+    private static Object invoquer(Object cible, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(cible, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static void fermer(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Connexion déjà fermée : la requête l'est avec elle
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.ImportJobResponse;
+import com.flight.reservation.service.ImportJobService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/vols/imports")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    public ImportJobController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    /**
+     * Soumet un fichier de vols (mêmes formats que /api/vols/import) ; l'avancement se suit via l'URL
+     * renvoyée dans Location.
+     */
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, VolController.NDJSON, VolController.CSV})
+    public ResponseEntity<ImportJobResponse> soumettreImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+        ImportJobResponse job = importJobService.soumettre(body, VolController.formatImport(contentType));
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobResponse> getImport(@PathVariable UUID id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
+}
@@ -0,0 +1,31 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.service.ReactiveReservationService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante non bloquante de {@link ReservationController} : le thread de la requête est libéré
+ * pendant l'accès base, mêmes règles métier et mêmes codes d'erreur.
+ */
+@RestController
+@RequestMapping("/api/reactive/reservations")
+public class ReactiveReservationController {
+
+    private final ReactiveReservationService reactiveReservationService;
+
+    public ReactiveReservationController(ReactiveReservationService reactiveReservationService) {
+        this.reactiveReservationService = reactiveReservationService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ReservationResponse>> creerReservation(@Valid @RequestBody ReservationRequest request) {
+        return reactiveReservationService.creerReservation(request)
+                .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+}
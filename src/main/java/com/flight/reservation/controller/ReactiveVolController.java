@@ -0,0 +1,64 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.VolResume;
+import com.flight.reservation.enums.CorrespondanceVille;
+import com.flight.reservation.service.ReactiveVolService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Variante réactive de {@link VolController} : la recherche est émise vol par vol
+ * en Server-Sent Events ou NDJSON, au rythme où le client consomme.
+ */
+@RestController
+@RequestMapping("/api/reactive/vols")
+public class ReactiveVolController {
+
+    private final ReactiveVolService reactiveVolService;
+
+    public ReactiveVolController(ReactiveVolService reactiveVolService) {
+        this.reactiveVolService = reactiveVolService;
+    }
+
+    @GetMapping(produces = {MediaType.TEXT_EVENT_STREAM_VALUE, VolController.NDJSON})
+    public Flux<VolResume> streamVols(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDepart,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureDepart,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateArrivee,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureArrivee,
+
+            @RequestParam(required = false) String villeDepart,
+            @RequestParam(required = false) String villeArrivee,
+            @RequestParam(required = false) String tri,
+            @RequestParam(required = false) CorrespondanceVille correspondance) {
+
+        return reactiveVolService.streamAll(toDateTime(dateDepart, heureDepart), toDateTime(dateArrivee, heureArrivee),
+                                            villeDepart, villeArrivee, tri, correspondance);
+    }
+
+    @GetMapping("/{id}/places")
+    public Mono<ResponseEntity<Integer>> getPlacesDisponibles(@PathVariable UUID id) {
+        return reactiveVolService.getPlacesDisponibles(id).map(ResponseEntity::ok);
+    }
+
+    // LocalDate + LocalTime optionnelle, minuit par défaut
+    private static LocalDateTime toDateTime(LocalDate date, LocalTime heure) {
+        return date != null ? LocalDateTime.of(date, heure != null ? heure : LocalTime.of(0, 0)) : null;
+    }
+}
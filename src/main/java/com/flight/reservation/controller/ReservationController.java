@@ -1,21 +1,35 @@
 package com.flight.reservation.controller;
 
+import com.flight.reservation.dto.AnnulationLotRequest;
+import com.flight.reservation.dto.AnnulationResponse;
+import com.flight.reservation.dto.ReservationLotRequest;
+import com.flight.reservation.dto.ReservationLotResponse;
 import com.flight.reservation.dto.ReservationRequest;
 import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.enums.AtomiciteLot;
+import com.flight.reservation.service.AnnulationService;
+import com.flight.reservation.service.ReservationLotService;
 import com.flight.reservation.service.ReservationService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/reservations")
 public class ReservationController {
     
     private final ReservationService reservationService;
+    private final ReservationLotService reservationLotService;
+    private final AnnulationService annulationService;
     
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, ReservationLotService reservationLotService,
+                                 AnnulationService annulationService) {
         this.reservationService = reservationService;
+        this.reservationLotService = reservationLotService;
+        this.annulationService = annulationService;
     }
     
     @PostMapping
@@ -23,4 +37,30 @@ public class ReservationController {
         ReservationResponse response = reservationService.creerReservation(request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Plusieurs réservations en une transaction, avec un résultat par demande.
+     * Un lot ALL_OR_NOTHING refusé renvoie 409 sans aucune réservation créée.
+     */
+    @PostMapping("/lot")
+    public ResponseEntity<ReservationLotResponse> creerReservations(@Valid @RequestBody ReservationLotRequest request) {
+        ReservationLotResponse response = reservationLotService.creerReservations(request);
+        if (response.getAtomicite() == AtomiciteLot.ALL_OR_NOTHING && response.getEchouees() > 0) {
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(response, response.getReussies() > 0 ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<AnnulationResponse> annulerReservation(@PathVariable UUID id) {
+        return ResponseEntity.ok(annulationService.annulerReservation(id));
+    }
+    
+    /**
+     * Annule en une transaction les réservations encore actives de la liste ; les autres sont ignorées.
+     */
+    @PostMapping("/annulations")
+    public ResponseEntity<AnnulationResponse> annulerReservations(@Valid @RequestBody AnnulationLotRequest request) {
+        return ResponseEntity.ok(annulationService.annulerReservations(request.getReservationIds()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.dto.RetenueRequest;
+import com.flight.reservation.dto.RetenueResponse;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.service.SeatHoldService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reservations/retenues")
+public class RetenueController {
+
+    private final SeatHoldService seatHoldService;
+
+    public RetenueController(SeatHoldService seatHoldService) {
+        this.seatHoldService = seatHoldService;
+    }
+
+    /**
+     * Retient des places le temps du paiement ; elles sont rendues à l'échéance faute de confirmation.
+     */
+    @PostMapping
+    public ResponseEntity<RetenueResponse> retenir(@Valid @RequestBody RetenueRequest request) {
+        return new ResponseEntity<>(seatHoldService.retenir(request), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/{id}/confirmation")
+    public ResponseEntity<ReservationResponse> confirmer(@PathVariable UUID id, @Valid @RequestBody Passager passager) {
+        return new ResponseEntity<>(seatHoldService.confirmer(id, passager), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> liberer(@PathVariable UUID id) {
+        seatHoldService.liberer(id);
+        return ResponseEntity.noContent().build();
+    }
+}
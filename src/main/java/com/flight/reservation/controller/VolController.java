@@ -1,14 +1,31 @@
 package com.flight.reservation.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flight.reservation.dto.AnnulationResponse;
+import com.flight.reservation.dto.PageVols;
+import com.flight.reservation.dto.RapportImport;
 import com.flight.reservation.dto.VolRequest;
+import com.flight.reservation.dto.VolResume;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.CorrespondanceVille;
+import com.flight.reservation.enums.FormatImport;
+import com.flight.reservation.service.AnnulationService;
+import com.flight.reservation.service.VolImportService;
 import com.flight.reservation.service.VolService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -19,14 +36,25 @@ import java.util.UUID;
 @RequestMapping("/api/vols")
 public class VolController {
 
+    private static final String CURSEUR_SUIVANT = "X-Curseur-Suivant";
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
     private final VolService volService;
+    private final VolImportService volImportService;
+    private final AnnulationService annulationService;
+    private final ObjectMapper objectMapper;
 
-    public VolController(VolService volService) {
+    public VolController(VolService volService, VolImportService volImportService,
+                         AnnulationService annulationService, ObjectMapper objectMapper) {
         this.volService = volService;
+        this.volImportService = volImportService;
+        this.annulationService = annulationService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<Vol>> getVols(
+    public ResponseEntity<List<VolResume>> getVols(
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDepart,
 
@@ -41,19 +69,72 @@ public class VolController {
 
             @RequestParam(required = false) String villeDepart,
             @RequestParam(required = false) String villeArrivee,
-            @RequestParam(required = false) String tri) {
+            @RequestParam(required = false) String tri,
+            @RequestParam(required = false) CorrespondanceVille correspondance,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer limit) {
 
-        // Convert LocalDate + LocalTime to LocalDateTime for backward compatibility
-        LocalDateTime dateTimeDepart = (dateDepart != null)
-                ? LocalDateTime.of(dateDepart, heureDepart != null ? heureDepart : LocalTime.of(0, 0))
-                : null;
+        LocalDateTime dateTimeDepart = toDateTime(dateDepart, heureDepart);
+        LocalDateTime dateTimeArrivee = toDateTime(dateArrivee, heureArrivee);
 
-        LocalDateTime dateTimeArrivee = (dateArrivee != null)
-                ? LocalDateTime.of(dateArrivee, heureArrivee != null ? heureArrivee : LocalTime.of(0, 0))
-                : null;
+        if (curseur == null && limit == null) {
+            List<VolResume> vols = volService.findAll(dateTimeDepart, dateTimeArrivee, villeDepart, villeArrivee, tri,
+                                                correspondance);
+            return ResponseEntity.ok(vols);
+        }
 
-        List<Vol> vols = volService.findAll(dateTimeDepart, dateTimeArrivee, villeDepart, villeArrivee, tri);
-        return ResponseEntity.ok(vols);
+        // Pagination par curseur : la page suivante est demandée avec le curseur renvoyé en en-tête
+        PageVols page = volService.findPage(dateTimeDepart, dateTimeArrivee, villeDepart, villeArrivee, tri,
+                                            correspondance, curseur, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getCurseurSuivant() != null) {
+            response.header(CURSEUR_SUIVANT, page.getCurseurSuivant());
+        }
+        return response.body(page.getVols());
+    }
+
+    /**
+     * Même recherche, écrite au fil de l'eau en NDJSON (un vol par ligne) depuis un curseur base de données.
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamVols(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDepart,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureDepart,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateArrivee,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureArrivee,
+
+            @RequestParam(required = false) String villeDepart,
+            @RequestParam(required = false) String villeArrivee,
+            @RequestParam(required = false) String tri,
+            @RequestParam(required = false) CorrespondanceVille correspondance) {
+
+        LocalDateTime dateTimeDepart = toDateTime(dateDepart, heureDepart);
+        LocalDateTime dateTimeArrivee = toDateTime(dateArrivee, heureArrivee);
+
+        StreamingResponseBody body = outputStream -> {
+            // Pas de flush par vol : le tampon de la réponse part par blocs
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                volService.streamAll(dateTimeDepart, dateTimeArrivee, villeDepart, villeArrivee, tri,
+                                     correspondance, vol -> {
+                    try {
+                        writer.write(vol);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @PostMapping
@@ -62,9 +143,42 @@ public class VolController {
         return new ResponseEntity<>(savedVols, HttpStatus.CREATED);
     }
 
+    /**
+     * Import en masse lu au fil de l'eau : tableau JSON, NDJSON ou CSV avec en-tête selon le Content-Type.
+     * Les lignes invalides sont listées dans le rapport sans interrompre l'import.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON, CSV})
+    public ResponseEntity<RapportImport> importVols(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    InputStream body) {
+        return ResponseEntity.ok(volImportService.importer(body, formatImport(contentType)));
+    }
+
     @GetMapping("/{id}/places")
     public ResponseEntity<Integer> getPlacesDisponibles(@PathVariable UUID id) {
         Integer places = volService.getPlacesDisponibles(id);
         return ResponseEntity.ok(places);
     }
+
+    /**
+     * Vol annulé : toutes ses réservations actives sont annulées en une transaction.
+     */
+    @DeleteMapping("/{id}/reservations")
+    public ResponseEntity<AnnulationResponse> annulerReservations(@PathVariable UUID id) {
+        return ResponseEntity.ok(annulationService.annulerVol(id));
+    }
+
+    static FormatImport formatImport(MediaType contentType) {
+        if (contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return FormatImport.JSON;
+        }
+        if (contentType.isCompatibleWith(MediaType.parseMediaType(NDJSON))) {
+            return FormatImport.NDJSON;
+        }
+        return FormatImport.CSV;
+    }
+
+    // LocalDate + LocalTime optionnelle, minuit par défaut
+    private static LocalDateTime toDateTime(LocalDate date, LocalTime heure) {
+        return date != null ? LocalDateTime.of(date, heure != null ? heure : LocalTime.of(0, 0)) : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.VolChaud;
+import com.flight.reservation.service.HotFlightDetector;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Vols chauds en cours, pour l'exploitation : {@code GET /actuator/hotflights}.
+ */
+@Component
+@Endpoint(id = "hotflights")
+public class VolsChaudsEndpoint {
+
+    private final HotFlightDetector hotFlightDetector;
+
+    public VolsChaudsEndpoint(HotFlightDetector hotFlightDetector) {
+        this.hotFlightDetector = hotFlightDetector;
+    }
+
+    @ReadOperation
+    public List<VolChaud> volsChauds() {
+        return hotFlightDetector.getVolsChauds();
+    }
+}
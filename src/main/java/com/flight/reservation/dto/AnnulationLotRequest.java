@@ -0,0 +1,25 @@
+package com.flight.reservation.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public class AnnulationLotRequest {
+    
+    @NotEmpty
+    @Size(max = 1000)
+    private List<UUID> reservationIds;
+    
+    // Constructeurs
+    public AnnulationLotRequest() {}
+    
+    public AnnulationLotRequest(List<UUID> reservationIds) {
+        this.reservationIds = reservationIds;
+    }
+    
+    // Getters et Setters
+    public List<UUID> getReservationIds() { return reservationIds; }
+    public void setReservationIds(List<UUID> reservationIds) { this.reservationIds = reservationIds; }
+}
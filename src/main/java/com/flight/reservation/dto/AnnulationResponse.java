@@ -0,0 +1,29 @@
+package com.flight.reservation.dto;
+
+import java.util.UUID;
+
+public class AnnulationResponse {
+    
+    private UUID annulationId;
+    private int reservationsAnnulees;
+    private int placesLiberees;
+    
+    // Constructeurs
+    public AnnulationResponse() {}
+    
+    public AnnulationResponse(UUID annulationId, int reservationsAnnulees, int placesLiberees) {
+        this.annulationId = annulationId;
+        this.reservationsAnnulees = reservationsAnnulees;
+        this.placesLiberees = placesLiberees;
+    }
+    
+    // Getters et Setters
+    public UUID getAnnulationId() { return annulationId; }
+    public void setAnnulationId(UUID annulationId) { this.annulationId = annulationId; }
+    
+    public int getReservationsAnnulees() { return reservationsAnnulees; }
+    public void setReservationsAnnulees(int reservationsAnnulees) { this.reservationsAnnulees = reservationsAnnulees; }
+    
+    public int getPlacesLiberees() { return placesLiberees; }
+    public void setPlacesLiberees(int placesLiberees) { this.placesLiberees = placesLiberees; }
+}
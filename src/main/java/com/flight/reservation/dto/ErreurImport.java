@@ -0,0 +1,22 @@
+package com.flight.reservation.dto;
+
+public class ErreurImport {
+    
+    private long ligne; // rang dans le tableau JSON, ou numéro de ligne NDJSON / CSV
+    private String message;
+    
+    // Constructeurs
+    public ErreurImport() {}
+    
+    public ErreurImport(long ligne, String message) {
+        this.ligne = ligne;
+        this.message = message;
+    }
+    
+    // Getters et Setters
+    public long getLigne() { return ligne; }
+    public void setLigne(long ligne) { this.ligne = ligne; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,82 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.enums.FormatImport;
+import com.flight.reservation.enums.StatutImport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class ImportJobResponse {
+    
+    private UUID id;
+    private FormatImport format;
+    private StatutImport statut;
+    private long lignesLues;
+    private long volsImportes;
+    private long lignesRejetees;
+    private double lignesParSeconde; // depuis le début du job
+    private LocalDateTime dateCreation;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+    private String message;
+    private List<ErreurImport> erreurs; // limitées à import.max-errors
+    
+    // Constructeurs
+    public ImportJobResponse() {}
+    
+    public ImportJobResponse(UUID id, FormatImport format, StatutImport statut,
+                             long lignesLues, long volsImportes, long lignesRejetees, double lignesParSeconde,
+                             LocalDateTime dateCreation, LocalDateTime dateDebut, LocalDateTime dateFin,
+                             String message, List<ErreurImport> erreurs) {
+        this.id = id;
+        this.format = format;
+        this.statut = statut;
+        this.lignesLues = lignesLues;
+        this.volsImportes = volsImportes;
+        this.lignesRejetees = lignesRejetees;
+        this.lignesParSeconde = lignesParSeconde;
+        this.dateCreation = dateCreation;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.message = message;
+        this.erreurs = erreurs;
+    }
+    
+    // Getters et Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    
+    public FormatImport getFormat() { return format; }
+    public void setFormat(FormatImport format) { this.format = format; }
+    
+    public StatutImport getStatut() { return statut; }
+    public void setStatut(StatutImport statut) { this.statut = statut; }
+    
+    public long getLignesLues() { return lignesLues; }
+    public void setLignesLues(long lignesLues) { this.lignesLues = lignesLues; }
+    
+    public long getVolsImportes() { return volsImportes; }
+    public void setVolsImportes(long volsImportes) { this.volsImportes = volsImportes; }
+    
+    public long getLignesRejetees() { return lignesRejetees; }
+    public void setLignesRejetees(long lignesRejetees) { this.lignesRejetees = lignesRejetees; }
+    
+    public double getLignesParSeconde() { return lignesParSeconde; }
+    public void setLignesParSeconde(double lignesParSeconde) { this.lignesParSeconde = lignesParSeconde; }
+    
+    public LocalDateTime getDateCreation() { return dateCreation; }
+    public void setDateCreation(LocalDateTime dateCreation) { this.dateCreation = dateCreation; }
+    
+    public LocalDateTime getDateDebut() { return dateDebut; }
+    public void setDateDebut(LocalDateTime dateDebut) { this.dateDebut = dateDebut; }
+    
+    public LocalDateTime getDateFin() { return dateFin; }
+    public void setDateFin(LocalDateTime dateFin) { this.dateFin = dateFin; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public List<ErreurImport> getErreurs() { return erreurs; }
+    public void setErreurs(List<ErreurImport> erreurs) { this.erreurs = erreurs; }
+}
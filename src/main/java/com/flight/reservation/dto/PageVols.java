@@ -0,0 +1,24 @@
+package com.flight.reservation.dto;
+
+import java.util.List;
+
+public class PageVols {
+    
+    private List<VolResume> vols;
+    private String curseurSuivant; // null sur la dernière page
+    
+    // Constructeurs
+    public PageVols() {}
+    
+    public PageVols(List<VolResume> vols, String curseurSuivant) {
+        this.vols = vols;
+        this.curseurSuivant = curseurSuivant;
+    }
+    
+    // Getters et Setters
+    public List<VolResume> getVols() { return vols; }
+    public void setVols(List<VolResume> vols) { this.vols = vols; }
+    
+    public String getCurseurSuivant() { return curseurSuivant; }
+    public void setCurseurSuivant(String curseurSuivant) { this.curseurSuivant = curseurSuivant; }
+}
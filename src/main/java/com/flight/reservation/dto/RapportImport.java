@@ -0,0 +1,40 @@
+package com.flight.reservation.dto;
+
+import java.util.List;
+
+public class RapportImport {
+    
+    private long lignesLues;
+    private long volsImportes;
+    private long lignesRejetees;
+    private List<ErreurImport> erreurs; // limitées à import.max-errors
+    private boolean complet; // false si la lecture a été interrompue
+    
+    // Constructeurs
+    public RapportImport() {}
+    
+    public RapportImport(long lignesLues, long volsImportes, long lignesRejetees,
+                         List<ErreurImport> erreurs, boolean complet) {
+        this.lignesLues = lignesLues;
+        this.volsImportes = volsImportes;
+        this.lignesRejetees = lignesRejetees;
+        this.erreurs = erreurs;
+        this.complet = complet;
+    }
+    
+    // Getters et Setters
+    public long getLignesLues() { return lignesLues; }
+    public void setLignesLues(long lignesLues) { this.lignesLues = lignesLues; }
+    
+    public long getVolsImportes() { return volsImportes; }
+    public void setVolsImportes(long volsImportes) { this.volsImportes = volsImportes; }
+    
+    public long getLignesRejetees() { return lignesRejetees; }
+    public void setLignesRejetees(long lignesRejetees) { this.lignesRejetees = lignesRejetees; }
+    
+    public List<ErreurImport> getErreurs() { return erreurs; }
+    public void setErreurs(List<ErreurImport> erreurs) { this.erreurs = erreurs; }
+    
+    public boolean isComplet() { return complet; }
+    public void setComplet(boolean complet) { this.complet = complet; }
+}
@@ -0,0 +1,34 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.enums.AtomiciteLot;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ReservationLotRequest {
+    
+    // BEST_EFFORT si absent
+    private AtomiciteLot atomicite;
+    
+    @Valid
+    @NotEmpty
+    @Size(max = 1000)
+    private List<ReservationRequest> reservations;
+    
+    // Constructeurs
+    public ReservationLotRequest() {}
+    
+    public ReservationLotRequest(AtomiciteLot atomicite, List<ReservationRequest> reservations) {
+        this.atomicite = atomicite;
+        this.reservations = reservations;
+    }
+    
+    // Getters et Setters
+    public AtomiciteLot getAtomicite() { return atomicite; }
+    public void setAtomicite(AtomiciteLot atomicite) { this.atomicite = atomicite; }
+    
+    public List<ReservationRequest> getReservations() { return reservations; }
+    public void setReservations(List<ReservationRequest> reservations) { this.reservations = reservations; }
+}
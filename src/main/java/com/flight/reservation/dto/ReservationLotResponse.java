@@ -0,0 +1,37 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.enums.AtomiciteLot;
+
+import java.util.List;
+
+public class ReservationLotResponse {
+    
+    private AtomiciteLot atomicite;
+    private int reussies;
+    private int echouees;
+    private List<ResultatReservation> resultats; // dans l'ordre de la requête
+    
+    // Constructeurs
+    public ReservationLotResponse() {}
+    
+    public ReservationLotResponse(AtomiciteLot atomicite, int reussies, int echouees,
+                                  List<ResultatReservation> resultats) {
+        this.atomicite = atomicite;
+        this.reussies = reussies;
+        this.echouees = echouees;
+        this.resultats = resultats;
+    }
+    
+    // Getters et Setters
+    public AtomiciteLot getAtomicite() { return atomicite; }
+    public void setAtomicite(AtomiciteLot atomicite) { this.atomicite = atomicite; }
+    
+    public int getReussies() { return reussies; }
+    public void setReussies(int reussies) { this.reussies = reussies; }
+    
+    public int getEchouees() { return echouees; }
+    public void setEchouees(int echouees) { this.echouees = echouees; }
+    
+    public List<ResultatReservation> getResultats() { return resultats; }
+    public void setResultats(List<ResultatReservation> resultats) { this.resultats = resultats; }
+}
@@ -0,0 +1,47 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.enums.StatutReservation;
+
+import java.util.UUID;
+
+public class ResultatReservation {
+    
+    private int index; // position dans la requête
+    private UUID volId;
+    private StatutReservation statut;
+    private String code; // en cas d'échec, mêmes codes que les réponses d'erreur
+    private String message;
+    private ReservationResponse reservation;
+    
+    // Constructeurs
+    public ResultatReservation() {}
+    
+    public ResultatReservation(int index, UUID volId, StatutReservation statut, String code,
+                               String message, ReservationResponse reservation) {
+        this.index = index;
+        this.volId = volId;
+        this.statut = statut;
+        this.code = code;
+        this.message = message;
+        this.reservation = reservation;
+    }
+    
+    // Getters et Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public StatutReservation getStatut() { return statut; }
+    public void setStatut(StatutReservation statut) { this.statut = statut; }
+    
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public ReservationResponse getReservation() { return reservation; }
+    public void setReservation(ReservationResponse reservation) { this.reservation = reservation; }
+}
@@ -0,0 +1,31 @@
+package com.flight.reservation.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.UUID;
+
+public class RetenueRequest {
+    
+    @NotNull
+    private UUID volId;
+    
+    @NotNull
+    @Positive
+    private Integer nombrePlaces;
+    
+    // Constructeurs
+    public RetenueRequest() {}
+    
+    public RetenueRequest(UUID volId, Integer nombrePlaces) {
+        this.volId = volId;
+        this.nombrePlaces = nombrePlaces;
+    }
+    
+    // Getters et Setters
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public Integer getNombrePlaces() { return nombrePlaces; }
+    public void setNombrePlaces(Integer nombrePlaces) { this.nombrePlaces = nombrePlaces; }
+}
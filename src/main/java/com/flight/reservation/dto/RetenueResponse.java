@@ -0,0 +1,28 @@
+package com.flight.reservation.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Places retenues pour un vol, à confirmer avant l'échéance.
+ */
+public class RetenueResponse {
+    
+    private final UUID retenueId;
+    private final UUID volId;
+    private final int nombrePlaces;
+    private final Instant expireLe;
+    
+    public RetenueResponse(UUID retenueId, UUID volId, int nombrePlaces, Instant expireLe) {
+        this.retenueId = retenueId;
+        this.volId = volId;
+        this.nombrePlaces = nombrePlaces;
+        this.expireLe = expireLe;
+    }
+    
+    // Getters
+    public UUID getRetenueId() { return retenueId; }
+    public UUID getVolId() { return volId; }
+    public int getNombrePlaces() { return nombrePlaces; }
+    public Instant getExpireLe() { return expireLe; }
+}
@@ -0,0 +1,31 @@
+package com.flight.reservation.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Vol détecté comme chaud, avec ses compteurs sur la fenêtre glissante courante.
+ */
+public class VolChaud {
+    
+    private final UUID volId;
+    private final long conflits;
+    private final long appels;
+    private final Instant depuis;
+    private final Instant jusqua;
+    
+    public VolChaud(UUID volId, long conflits, long appels, Instant depuis, Instant jusqua) {
+        this.volId = volId;
+        this.conflits = conflits;
+        this.appels = appels;
+        this.depuis = depuis;
+        this.jusqua = jusqua;
+    }
+    
+    // Getters
+    public UUID getVolId() { return volId; }
+    public long getConflits() { return conflits; }
+    public long getAppels() { return appels; }
+    public Instant getDepuis() { return depuis; }
+    public Instant getJusqua() { return jusqua; }
+}
@@ -13,9 +13,13 @@ public class VolRequest {
     @NotNull
     private LocalDate dateDepart;
 
+    private LocalTime heureDepart;
+
     @NotNull
     private LocalDate dateArrivee;
 
+    private LocalTime heureArrivee;
+
     @NotNull
     private String villeDepart;
 
@@ -48,6 +52,15 @@ public class VolRequest {
         this.capaciteMaximale = capaciteMaximale;
     }
 
+    public VolRequest(LocalDate dateDepart, LocalTime heureDepart,
+                      LocalDate dateArrivee, LocalTime heureArrivee,
+                      String villeDepart, String villeArrivee, BigDecimal prix,
+                      Integer tempsTrajet, Integer capaciteMaximale) {
+        this(dateDepart, dateArrivee, villeDepart, villeArrivee, prix, tempsTrajet, capaciteMaximale);
+        this.heureDepart = heureDepart;
+        this.heureArrivee = heureArrivee;
+    }
+
     // Alternative constructor for backward compatibility
     public VolRequest(LocalDateTime dateDepart, LocalDateTime dateArrivee,
                       String villeDepart, String villeArrivee, BigDecimal prix,
@@ -65,9 +78,15 @@ public class VolRequest {
     public LocalDate getDateDepart() { return dateDepart; }
     public void setDateDepart(LocalDate dateDepart) { this.dateDepart = dateDepart; }
 
+    public LocalTime getHeureDepart() { return heureDepart; }
+    public void setHeureDepart(LocalTime heureDepart) { this.heureDepart = heureDepart; }
+
     public LocalDate getDateArrivee() { return dateArrivee; }
     public void setDateArrivee(LocalDate dateArrivee) { this.dateArrivee = dateArrivee; }
 
+    public LocalTime getHeureArrivee() { return heureArrivee; }
+    public void setHeureArrivee(LocalTime heureArrivee) { this.heureArrivee = heureArrivee; }
+
     public String getVilleDepart() { return villeDepart; }
     public void setVilleDepart(String villeDepart) { this.villeDepart = villeDepart; }
 
@@ -85,10 +104,10 @@ public class VolRequest {
 
     // Utility methods (default time = 00:00)
     public LocalDateTime getDateTimeDepart() {
-        return LocalDateTime.of(dateDepart, LocalTime.of(0, 0));
+        return LocalDateTime.of(dateDepart, heureDepart != null ? heureDepart : LocalTime.of(0, 0));
     }
 
     public LocalDateTime getDateTimeArrivee() {
-        return LocalDateTime.of(dateArrivee, LocalTime.of(0, 0));
+        return LocalDateTime.of(dateArrivee, heureArrivee != null ? heureArrivee : LocalTime.of(0, 0));
     }
 }
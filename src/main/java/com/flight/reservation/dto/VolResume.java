@@ -0,0 +1,57 @@
+package com.flight.reservation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Vue en lecture seule d'un vol pour la recherche, construite directement par la requête
+ * (aucune entité chargée ni suivie par le contexte de persistance).
+ */
+public class VolResume {
+    
+    private final UUID id;
+    private final LocalDateTime dateDepart;
+    private final LocalDateTime dateArrivee;
+    private final String villeDepart;
+    private final String villeArrivee;
+    private final BigDecimal prix;
+    private final Integer tempsTrajet;
+    private final Integer capaciteMaximale;
+    private final Integer placesDisponibles;
+    
+    public VolResume(UUID id, LocalDateTime dateDepart, LocalDateTime dateArrivee, String villeDepart,
+                     String villeArrivee, BigDecimal prix, Integer tempsTrajet, Integer capaciteMaximale,
+                     Integer placesDisponibles) {
+        this.id = id;
+        this.dateDepart = dateDepart;
+        this.dateArrivee = dateArrivee;
+        this.villeDepart = villeDepart;
+        this.villeArrivee = villeArrivee;
+        this.prix = prix;
+        this.tempsTrajet = tempsTrajet;
+        this.capaciteMaximale = capaciteMaximale;
+        this.placesDisponibles = placesDisponibles;
+    }
+    
+    public VolResume withPlacesDisponibles(Integer placesDisponibles) {
+        return new VolResume(id, dateDepart, dateArrivee, villeDepart, villeArrivee, prix, tempsTrajet,
+                             capaciteMaximale, placesDisponibles);
+    }
+    
+    // Getters
+    public UUID getId() { return id; }
+    public LocalDateTime getDateDepart() { return dateDepart; }
+    public LocalDateTime getDateArrivee() { return dateArrivee; }
+    public String getVilleDepart() { return villeDepart; }
+    public String getVilleArrivee() { return villeArrivee; }
+    public BigDecimal getPrix() { return prix; }
+    public Integer getTempsTrajet() { return tempsTrajet; }
+    public Integer getCapaciteMaximale() { return capaciteMaximale; }
+    public Integer getPlacesDisponibles() { return placesDisponibles; }
+    
+    // Exposées comme par l'entité Vol, déduites des places disponibles courantes
+    public Integer getPlacesReservees() {
+        return capaciteMaximale != null && placesDisponibles != null ? capaciteMaximale - placesDisponibles : null;
+    }
+}
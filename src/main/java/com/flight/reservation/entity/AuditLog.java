@@ -2,7 +2,6 @@ package com.flight.reservation.entity;
 
 import com.flight.reservation.enums.StatutReservation;
 import jakarta.persistence.*;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -15,7 +14,7 @@ public class AuditLog {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
     
-    @CreationTimestamp
+    // Heure de la tentative, renseignée à partir de l'événement (l'écriture est différée)
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
     
@@ -28,7 +27,8 @@ public class AuditLog {
     @Column(name = "places_demandees", nullable = false)
     private Integer placesDemandees;
     
-    @Column(name = "places_disponibles_avant", nullable = false)
+    // Inconnu quand le vol est introuvable ou en cas de conflit
+    @Column(name = "places_disponibles_avant")
     private Integer placesDisponiblesAvant;
     
     @Enumerated(EnumType.STRING)
@@ -56,6 +56,13 @@ public class AuditLog {
         this.reservationId = reservationId;
     }
     
+    @PrePersist
+    void onCreate() {
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
+    }
+    
     // Getters et Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -0,0 +1,97 @@
+package com.flight.reservation.entity;
+
+import com.flight.reservation.enums.TypeEcriture;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Écriture du registre des réservations : ajoutée une fois, jamais modifiée.
+ * L'id croissant ordonne les écritures ; {@code vols.ledger_sequence} indique la dernière
+ * écriture reportée dans {@code vols.places_reservees}.
+ * <p>
+ * L'id est attribué par {@link com.flight.reservation.service.ReservationLedger} et non par la base :
+ * SQLite réattribue le rowid d'une dernière ligne annulée (rollback), qu'un instantané aurait
+ * déjà pu dépasser.
+ */
+@Entity
+@Immutable
+@Table(name = "reservation_ledger", indexes = {
+    @Index(name = "idx_ledger_vol", columnList = "vol_id, id")
+})
+public class EcritureLedger implements Persistable<Long> {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "vol_id", nullable = false, updatable = false)
+    private UUID volId;
+    
+    @Column(name = "reservation_id", nullable = false, updatable = false)
+    private UUID reservationId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 20)
+    private TypeEcriture type;
+    
+    // Places prises (positif) ou rendues (négatif)
+    @Column(name = "places", nullable = false, updatable = false)
+    private Integer places;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Id attribué par l'application : insertion directe, sans lecture préalable
+    @Transient
+    private boolean nouvelle = true;
+    
+    // Constructeurs
+    protected EcritureLedger() {}
+    
+    public EcritureLedger(UUID volId, UUID reservationId, TypeEcriture type, Integer places) {
+        this.volId = volId;
+        this.reservationId = reservationId;
+        this.type = type;
+        this.places = places;
+    }
+    
+    public static EcritureLedger reservation(UUID volId, UUID reservationId, int places) {
+        return new EcritureLedger(volId, reservationId, TypeEcriture.RESERVATION, places);
+    }
+    
+    public static EcritureLedger annulation(UUID volId, UUID reservationId, int places) {
+        return new EcritureLedger(volId, reservationId, TypeEcriture.ANNULATION, -places);
+    }
+    
+    public void attribuerId(long id) {
+        this.id = id;
+    }
+    
+    @PostPersist
+    @PostLoad
+    void marquerEnregistree() {
+        this.nouvelle = false;
+    }
+    
+    // Getters
+    @Override
+    public Long getId() { return id; }
+    
+    @Override
+    public boolean isNew() { return nouvelle; }
+    
+    public UUID getVolId() { return volId; }
+    
+    public UUID getReservationId() { return reservationId; }
+    
+    public TypeEcriture getType() { return type; }
+    
+    public Integer getPlaces() { return places; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,107 @@
+package com.flight.reservation.entity;
+
+import com.flight.reservation.enums.FormatImport;
+import com.flight.reservation.enums.StatutImport;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false)
+    private FormatImport format;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false)
+    private StatutImport statut;
+    
+    // Copie du fichier soumis, supprimée à la fin du job
+    @Column(name = "fichier", nullable = false, length = 500)
+    private String fichier;
+    
+    // Point de reprise : dernière ligne du fichier traitée par un lot validé
+    @Column(name = "derniere_ligne", nullable = false)
+    private long derniereLigne;
+    
+    @Column(name = "lignes_lues", nullable = false)
+    private long lignesLues;
+    
+    @Column(name = "vols_importes", nullable = false)
+    private long volsImportes;
+    
+    @Column(name = "lignes_rejetees", nullable = false)
+    private long lignesRejetees;
+    
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+    
+    @Column(name = "date_debut")
+    private LocalDateTime dateDebut;
+    
+    @Column(name = "date_fin")
+    private LocalDateTime dateFin;
+    
+    @Column(name = "message", length = 500)
+    private String message;
+    
+    // Constructeurs
+    public ImportJob() {}
+    
+    public ImportJob(FormatImport format, String fichier) {
+        this.format = format;
+        this.fichier = fichier;
+        this.statut = StatutImport.EN_ATTENTE;
+    }
+    
+    @PrePersist
+    void onCreate() {
+        if (dateCreation == null) {
+            dateCreation = LocalDateTime.now();
+        }
+    }
+    
+    // Getters et Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    
+    public FormatImport getFormat() { return format; }
+    public void setFormat(FormatImport format) { this.format = format; }
+    
+    public StatutImport getStatut() { return statut; }
+    public void setStatut(StatutImport statut) { this.statut = statut; }
+    
+    public String getFichier() { return fichier; }
+    public void setFichier(String fichier) { this.fichier = fichier; }
+    
+    public long getDerniereLigne() { return derniereLigne; }
+    public void setDerniereLigne(long derniereLigne) { this.derniereLigne = derniereLigne; }
+    
+    public long getLignesLues() { return lignesLues; }
+    public void setLignesLues(long lignesLues) { this.lignesLues = lignesLues; }
+    
+    public long getVolsImportes() { return volsImportes; }
+    public void setVolsImportes(long volsImportes) { this.volsImportes = volsImportes; }
+    
+    public long getLignesRejetees() { return lignesRejetees; }
+    public void setLignesRejetees(long lignesRejetees) { this.lignesRejetees = lignesRejetees; }
+    
+    public LocalDateTime getDateCreation() { return dateCreation; }
+    public void setDateCreation(LocalDateTime dateCreation) { this.dateCreation = dateCreation; }
+    
+    public LocalDateTime getDateDebut() { return dateDebut; }
+    public void setDateDebut(LocalDateTime dateDebut) { this.dateDebut = dateDebut; }
+    
+    public LocalDateTime getDateFin() { return dateFin; }
+    public void setDateFin(LocalDateTime dateFin) { this.dateFin = dateFin; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,45 @@
+package com.flight.reservation.entity;
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "import_job_erreurs", indexes = @Index(name = "idx_import_job_erreurs_job", columnList = "job_id"))
+public class ImportJobErreur {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+    
+    @Column(name = "job_id", nullable = false)
+    private UUID jobId;
+    
+    @Column(name = "ligne", nullable = false)
+    private long ligne;
+    
+    @Column(name = "message", nullable = false, length = 500)
+    private String message;
+    
+    // Constructeurs
+    public ImportJobErreur() {}
+    
+    public ImportJobErreur(UUID jobId, long ligne, String message) {
+        this.jobId = jobId;
+        this.ligne = ligne;
+        this.message = message.length() > 500 ? message.substring(0, 500) : message;
+    }
+    
+    // Getters et Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    
+    public UUID getJobId() { return jobId; }
+    public void setJobId(UUID jobId) { this.jobId = jobId; }
+    
+    public long getLigne() { return ligne; }
+    public void setLigne(long ligne) { this.ligne = ligne; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -38,6 +38,13 @@ public class Reservation {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    // Renseignés à l'annulation ; l'id regroupe les réservations annulées par une même opération
+    @Column(name = "annulee_le")
+    private LocalDateTime annuleeLe;
+    
+    @Column(name = "annulation_id")
+    private UUID annulationId;
+    
     // Constructeurs
     public Reservation() {}
     
@@ -62,4 +69,10 @@ public class Reservation {
     
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getAnnuleeLe() { return annuleeLe; }
+    public void setAnnuleeLe(LocalDateTime annuleeLe) { this.annuleeLe = annuleeLe; }
+    
+    public UUID getAnnulationId() { return annulationId; }
+    public void setAnnulationId(UUID annulationId) { this.annulationId = annulationId; }
 }
\ No newline at end of file
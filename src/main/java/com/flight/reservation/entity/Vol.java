@@ -1,5 +1,6 @@
 package com.flight.reservation.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -7,15 +8,25 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.text.Normalizer;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Entity
-@Table(name = "vols")
+@Table(name = "vols", indexes = {
+    @Index(name = "idx_vols_route", columnList = "ville_depart_norm, ville_arrivee_norm, date_depart"),
+    @Index(name = "idx_vols_arrivee", columnList = "ville_arrivee_norm, date_arrivee"),
+    @Index(name = "idx_vols_date_depart", columnList = "date_depart")
+})
 public class Vol {
     
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACES = Pattern.compile("\\s+");
+    
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
@@ -36,6 +47,13 @@ public class Vol {
     @Column(name = "ville_arrivee", nullable = false, length = 100)
     private String villeArrivee;
     
+    // Clés de recherche normalisées, servies par les index de la table (non exposées en JSON)
+    @Column(name = "ville_depart_norm", length = 100)
+    private String villeDepartNormalisee;
+    
+    @Column(name = "ville_arrivee_norm", length = 100)
+    private String villeArriveeNormalisee;
+    
     @NotNull
     @Positive
     @Column(name = "prix", nullable = false, precision = 10, scale = 2)
@@ -55,6 +73,11 @@ public class Vol {
     @Column(name = "places_reservees", nullable = false)
     private Integer placesReservees = 0;
     
+    // Dernière écriture du registre reportée dans places_reservees (mode LEDGER) ; nulle avant la première
+    @Column(name = "ledger_sequence")
+    @JsonIgnore
+    private Long sequenceLedger = 0L;
+    
     @Version
     @Column(name = "version")
     private Long version = 0L;
@@ -77,8 +100,8 @@ public class Vol {
                String villeArrivee, BigDecimal prix, Integer tempsTrajet, Integer capaciteMaximale) {
         this.dateDepart = dateDepart;
         this.dateArrivee = dateArrivee;
-        this.villeDepart = villeDepart;
-        this.villeArrivee = villeArrivee;
+        setVilleDepart(villeDepart);
+        setVilleArrivee(villeArrivee);
         this.prix = prix;
         this.tempsTrajet = tempsTrajet;
         this.capaciteMaximale = capaciteMaximale != null ? capaciteMaximale : 180;
@@ -100,6 +123,17 @@ public class Vol {
         this.placesReservees += nombrePlaces;
     }
     
+    /**
+     * Forme de recherche d'une ville : sans accents, en minuscules, espaces réduits.
+     */
+    public static String normaliserVille(String ville) {
+        if (ville == null) {
+            return null;
+        }
+        String sansAccents = ACCENTS.matcher(Normalizer.normalize(ville.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return ESPACES.matcher(sansAccents.toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+    
     // Getters et Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -111,10 +145,16 @@ public class Vol {
     public void setDateArrivee(LocalDateTime dateArrivee) { this.dateArrivee = dateArrivee; }
     
     public String getVilleDepart() { return villeDepart; }
-    public void setVilleDepart(String villeDepart) { this.villeDepart = villeDepart; }
+    public void setVilleDepart(String villeDepart) {
+        this.villeDepart = villeDepart;
+        this.villeDepartNormalisee = normaliserVille(villeDepart);
+    }
     
     public String getVilleArrivee() { return villeArrivee; }
-    public void setVilleArrivee(String villeArrivee) { this.villeArrivee = villeArrivee; }
+    public void setVilleArrivee(String villeArrivee) {
+        this.villeArrivee = villeArrivee;
+        this.villeArriveeNormalisee = normaliserVille(villeArrivee);
+    }
     
     public BigDecimal getPrix() { return prix; }
     public void setPrix(BigDecimal prix) { this.prix = prix; }
@@ -128,6 +168,9 @@ public class Vol {
     public Integer getPlacesReservees() { return placesReservees; }
     public void setPlacesReservees(Integer placesReservees) { this.placesReservees = placesReservees; }
     
+    public Long getSequenceLedger() { return sequenceLedger; }
+    public void setSequenceLedger(Long sequenceLedger) { this.sequenceLedger = sequenceLedger; }
+    
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
     
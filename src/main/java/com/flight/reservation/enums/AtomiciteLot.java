@@ -0,0 +1,6 @@
+package com.flight.reservation.enums;
+
+public enum AtomiciteLot {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
@@ -0,0 +1,7 @@
+package com.flight.reservation.enums;
+
+public enum CorrespondanceVille {
+    EXACT,
+    PREFIX,
+    CONTAINS
+}
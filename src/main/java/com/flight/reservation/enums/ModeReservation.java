@@ -0,0 +1,11 @@
+package com.flight.reservation.enums;
+
+public enum ModeReservation {
+    OPTIMISTIC_LOCK,
+    PESSIMISTIC_LOCK,
+    ATOMIC_UPDATE,
+    IN_MEMORY_INVENTORY,
+    GROUP_COMMIT,
+    PARTITIONED_QUEUE,
+    LEDGER
+}
@@ -0,0 +1,8 @@
+package com.flight.reservation.enums;
+
+public enum StatutImport {
+    EN_ATTENTE,
+    EN_COURS,
+    TERMINE,
+    ECHEC
+}
@@ -2,5 +2,6 @@ package com.flight.reservation.enums;
 
 public enum StatutReservation {
     SUCCESS,
-    FAILED
+    FAILED,
+    CANCELLED
 }
\ No newline at end of file
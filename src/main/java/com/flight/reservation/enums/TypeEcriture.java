@@ -0,0 +1,6 @@
+package com.flight.reservation.enums;
+
+public enum TypeEcriture {
+    RESERVATION,
+    ANNULATION
+}
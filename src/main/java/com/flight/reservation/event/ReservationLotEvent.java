@@ -0,0 +1,21 @@
+package com.flight.reservation.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Audit d'une réservation groupée : une entrée par demande, publiées ensemble.
+ */
+public class ReservationLotEvent extends ApplicationEvent {
+    
+    private final List<ReservationEvent> reservations;
+    
+    public ReservationLotEvent(Object source, List<ReservationEvent> reservations) {
+        super(source);
+        this.reservations = reservations;
+    }
+    
+    // Getters
+    public List<ReservationEvent> getReservations() { return reservations; }
+}
@@ -0,0 +1,12 @@
+package com.flight.reservation.exception;
+
+public class CurseurInvalideException extends RuntimeException {
+    
+    public CurseurInvalideException(String message) {
+        super(message);
+    }
+    
+    public CurseurInvalideException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
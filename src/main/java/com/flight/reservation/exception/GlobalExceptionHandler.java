@@ -3,6 +3,7 @@ package com.flight.reservation.exception;
 import com.flight.reservation.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.ConstraintViolationException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
@@ -31,6 +33,66 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
     
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleImportJobNotFound(ImportJobNotFoundException ex, WebRequest request) {
+        logger.error("Import non trouvé: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "IMPORT_JOB_NOT_FOUND",
+            ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+    
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReservationNotFound(ReservationNotFoundException ex, WebRequest request) {
+        logger.error("Réservation non trouvée: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "RESERVATION_NOT_FOUND",
+            ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+    
+    @ExceptionHandler(ReservationDejaAnnuleeException.class)
+    public ResponseEntity<ErrorResponse> handleReservationDejaAnnulee(ReservationDejaAnnuleeException ex, WebRequest request) {
+        logger.warn("Réservation déjà annulée: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "RESERVATION_ALREADY_CANCELLED",
+            ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+    
+    @ExceptionHandler(RetenueNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleRetenueNotFound(RetenueNotFoundException ex, WebRequest request) {
+        logger.warn("Retenue non trouvée: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "HOLD_NOT_FOUND",
+            ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+    
+    @ExceptionHandler(RetenuesNonSupporteesException.class)
+    public ResponseEntity<ErrorResponse> handleRetenuesNonSupportees(RetenuesNonSupporteesException ex, WebRequest request) {
+        logger.warn("Retenue refusée: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "HOLDS_NOT_SUPPORTED",
+            ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_IMPLEMENTED);
+    }
+    
     @ExceptionHandler(PlacesInsuffisantesException.class)
     public ResponseEntity<ErrorResponse> handlePlacesInsuffisantes(PlacesInsuffisantesException ex, WebRequest request) {
         logger.error("Places insuffisantes: {}", ex.getMessage());
@@ -57,6 +119,43 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
     
+    @ExceptionHandler(CurseurInvalideException.class)
+    public ResponseEntity<ErrorResponse> handleCurseurInvalide(CurseurInvalideException ex, WebRequest request) {
+        logger.warn("Curseur de pagination invalide: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "INVALID_CURSOR",
+            ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+    
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecution(RejectedExecutionException ex, WebRequest request) {
+        logger.warn("File d'attente JDBC saturée: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "SERVICE_BUSY",
+            "Service temporairement saturé, réessayez plus tard"
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
+    // Connexion non obtenue dans le délai du pool (pool de lecture saturé par la recherche, base indisponible)
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<ErrorResponse> handleDataAccessResourceFailure(DataAccessResourceFailureException ex, WebRequest request) {
+        logger.warn("Connexion base de données indisponible: {}", ex.getMostSpecificCause().getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            "SERVICE_BUSY",
+            "Service temporairement saturé, réessayez plus tard"
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex, WebRequest request) {
         BindingResult bindingResult = ex.getBindingResult();
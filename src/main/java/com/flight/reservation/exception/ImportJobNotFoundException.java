@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.UUID;
+
+public class ImportJobNotFoundException extends RuntimeException {
+    
+    public ImportJobNotFoundException(UUID jobId) {
+        super("Import avec l'ID " + jobId + " non trouvé");
+    }
+}
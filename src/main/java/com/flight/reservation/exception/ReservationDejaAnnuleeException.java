@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.UUID;
+
+public class ReservationDejaAnnuleeException extends RuntimeException {
+    
+    public ReservationDejaAnnuleeException(UUID reservationId) {
+        super("La réservation " + reservationId + " est déjà annulée");
+    }
+}
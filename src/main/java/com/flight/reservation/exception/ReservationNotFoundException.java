@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.UUID;
+
+public class ReservationNotFoundException extends RuntimeException {
+    
+    public ReservationNotFoundException(UUID reservationId) {
+        super("Réservation avec l'ID " + reservationId + " non trouvée");
+    }
+}
@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.UUID;
+
+public class RetenueNotFoundException extends RuntimeException {
+    
+    public RetenueNotFoundException(UUID retenueId) {
+        super("Retenue avec l'ID " + retenueId + " non trouvée ou expirée");
+    }
+}
@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import com.flight.reservation.enums.ModeReservation;
+
+public class RetenuesNonSupporteesException extends RuntimeException {
+    
+    public RetenuesNonSupporteesException(ModeReservation mode) {
+        super("Les retenues de places exigent le mode IN_MEMORY_INVENTORY ou LEDGER (mode actuel: " + mode + ")");
+    }
+}
@@ -0,0 +1,30 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.EcritureLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EcritureLedgerRepository extends JpaRepository<EcritureLedger, Long> {
+    
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM EcritureLedger e")
+    Long findDerniereSequence();
+    
+    // Places nettes des écritures d'un vol dans l'intervalle ]depuis, jusqua]
+    @Query("SELECT COALESCE(SUM(e.places), 0) FROM EcritureLedger e " +
+           "WHERE e.volId = :volId AND e.id > :depuis AND e.id <= :jusqua")
+    Long sumPlacesEntre(@Param("volId") UUID volId, @Param("depuis") long depuis, @Param("jusqua") long jusqua);
+    
+    // Report d'un vol : paire [places nettes, dernière écriture] de l'intervalle ]depuis, jusqua]
+    @Query("SELECT COALESCE(SUM(e.places), 0), MAX(e.id) FROM EcritureLedger e " +
+           "WHERE e.volId = :volId AND e.id > :depuis AND e.id <= :jusqua")
+    List<Object[]> findReportEntre(@Param("volId") UUID volId, @Param("depuis") long depuis, @Param("jusqua") long jusqua);
+    
+    @Query("SELECT DISTINCT e.volId FROM EcritureLedger e WHERE e.id > :depuis AND e.id <= :jusqua")
+    List<UUID> findVolsEntre(@Param("depuis") long depuis, @Param("jusqua") long jusqua);
+}
@@ -0,0 +1,14 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.ImportJobErreur;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ImportJobErreurRepository extends JpaRepository<ImportJobErreur, UUID> {
+    
+    List<ImportJobErreur> findByJobIdOrderByLigne(UUID jobId);
+}
@@ -0,0 +1,16 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.ImportJob;
+import com.flight.reservation.enums.StatutImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+    
+    List<ImportJob> findByStatutInOrderByDateCreation(Collection<StatutImport> statuts);
+}
@@ -2,10 +2,37 @@ package com.flight.reservation.repository;
 
 import com.flight.reservation.entity.Reservation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+    
+    @Query("SELECT COALESCE(SUM(r.nombrePlaces), 0) FROM Reservation r WHERE r.vol.id = :volId AND r.annuleeLe IS NULL")
+    Long sumNombrePlacesByVolId(@Param("volId") UUID volId);
+    
+    // Annulation gardée : une réservation déjà annulée, même par une annulation concurrente, n'est pas reprise
+    @Modifying
+    @Query("UPDATE Reservation r SET r.annuleeLe = :maintenant, r.annulationId = :annulationId " +
+           "WHERE r.id IN :ids AND r.annuleeLe IS NULL")
+    int annulerParIds(@Param("ids") Collection<UUID> ids, @Param("annulationId") UUID annulationId,
+                      @Param("maintenant") LocalDateTime maintenant);
+    
+    @Modifying
+    @Query("UPDATE Reservation r SET r.annuleeLe = :maintenant, r.annulationId = :annulationId " +
+           "WHERE r.vol.id = :volId AND r.annuleeLe IS NULL")
+    int annulerParVol(@Param("volId") UUID volId, @Param("annulationId") UUID annulationId,
+                      @Param("maintenant") LocalDateTime maintenant);
+    
+    // Réservations annulées par une opération : [id, vol, places, email]
+    @Query("SELECT r.id, r.vol.id, r.nombrePlaces, r.passager.email FROM Reservation r " +
+           "WHERE r.annulationId = :annulationId")
+    List<Object[]> findAnnulees(@Param("annulationId") UUID annulationId);
 }
\ No newline at end of file
@@ -4,21 +4,75 @@ import com.flight.reservation.entity.Vol;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface VolRepository extends JpaRepository<Vol, UUID>, JpaSpecificationExecutor<Vol> {
+public interface VolRepository extends JpaRepository<Vol, UUID>, JpaSpecificationExecutor<Vol>, VolSearchRepository {
     
     @Lock(LockModeType.OPTIMISTIC)
     @Query("SELECT v FROM Vol v WHERE v.id = :id")
     Optional<Vol> findByIdWithOptimisticLock(@Param("id") UUID id);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vol v WHERE v.id = :id")
+    Optional<Vol> findByIdForUpdate(@Param("id") UUID id);
+    
+    // Écriture neutre : SQLite ignore FOR UPDATE, le verrou d'écriture n'est pris qu'à la première modification
+    @Modifying
+    @Query("UPDATE Vol v SET v.version = v.version WHERE v.id = :id")
+    int verrouillerEnEcriture(@Param("id") UUID id);
+    
     @Query("SELECT v.placesReservees FROM Vol v WHERE v.id = :id")
     Optional<Integer> findPlacesReserveesByVolId(@Param("id") UUID id);
-}
\ No newline at end of file
+    
+    @Query("SELECT v.capaciteMaximale - v.placesReservees FROM Vol v WHERE v.id = :id")
+    Optional<Integer> findPlacesDisponiblesByVolId(@Param("id") UUID id);
+    
+    // Paires [id, places disponibles]
+    @Query("SELECT v.id, v.capaciteMaximale - v.placesReservees FROM Vol v WHERE v.id IN :ids")
+    List<Object[]> findPlacesDisponiblesByVolIds(@Param("ids") Collection<UUID> ids);
+    
+    // Réservation en une seule instruction gardée : 0 ligne modifiée si le vol est absent ou complet
+    @Modifying
+    @Query("UPDATE Vol v SET v.placesReservees = v.placesReservees + :places, v.version = v.version + 1 " +
+           "WHERE v.id = :id AND v.capaciteMaximale - v.placesReservees >= :places")
+    int reservePlacesIfAvailable(@Param("id") UUID id, @Param("places") int places);
+    
+    // Places rendues par une annulation, en une instruction comme la réservation
+    @Modifying
+    @Query("UPDATE Vol v SET v.placesReservees = v.placesReservees - :places, v.version = v.version + 1 " +
+           "WHERE v.id = :id AND v.placesReservees >= :places")
+    int releasePlaces(@Param("id") UUID id, @Param("places") int places);
+    
+    // Report d'un delta de places sans relire l'entité (la version est incrémentée pour les lecteurs optimistes)
+    @Modifying
+    @Query("UPDATE Vol v SET v.placesReservees = v.placesReservees + :places, v.version = v.version + 1 WHERE v.id = :id")
+    int incrementPlacesReservees(@Param("id") UUID id, @Param("places") int places);
+    
+    // Instantané du registre : paire [places disponibles, dernière écriture incluse]
+    @Query("SELECT v.capaciteMaximale - v.placesReservees, COALESCE(v.sequenceLedger, 0) FROM Vol v WHERE v.id = :id")
+    List<Object[]> findInstantaneLedger(@Param("id") UUID id);
+    
+    @Query("SELECT COALESCE(v.sequenceLedger, 0) FROM Vol v WHERE v.id = :id")
+    Optional<Long> findSequenceLedger(@Param("id") UUID id);
+    
+    // Report des écritures ]depuis, jusqua] ; 0 ligne modifiée si un autre instantané est passé entre-temps
+    @Modifying
+    @Query("UPDATE Vol v SET v.placesReservees = v.placesReservees + :places, v.sequenceLedger = :jusqua, " +
+           "v.version = v.version + 1 WHERE v.id = :id AND COALESCE(v.sequenceLedger, 0) = :depuis")
+    int appliquerLedger(@Param("id") UUID id, @Param("places") int places,
+                        @Param("depuis") long depuis, @Param("jusqua") long jusqua);
+    
+    // Vols créés avant l'ajout des colonnes de recherche normalisées
+    @Query("SELECT v FROM Vol v WHERE v.villeDepartNormalisee IS NULL OR v.villeArriveeNormalisee IS NULL")
+    List<Vol> findSansCleDeRecherche();
+}
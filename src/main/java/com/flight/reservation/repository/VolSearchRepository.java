@@ -0,0 +1,25 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.dto.VolResume;
+import com.flight.reservation.entity.Vol;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Recherche de vols projetée sur {@link VolResume} : seules les colonnes utiles sont lues.
+ */
+public interface VolSearchRepository {
+    
+    /**
+     * @param limit nombre maximal de lignes, sans limite si 0 ou négatif
+     */
+    List<VolResume> findResumes(Specification<Vol> spec, Sort sort, int limit);
+    
+    /**
+     * Flux à fermer par l'appelant, à consommer dans une transaction.
+     */
+    Stream<VolResume> streamResumes(Specification<Vol> spec, Sort sort);
+}
@@ -0,0 +1,66 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.dto.VolResume;
+import com.flight.reservation.entity.Vol;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class VolSearchRepositoryImpl implements VolSearchRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<VolResume> findResumes(Specification<Vol> spec, Sort sort, int limit) {
+        TypedQuery<VolResume> query = createQuery(spec, sort);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+    
+    @Override
+    public Stream<VolResume> streamResumes(Specification<Vol> spec, Sort sort) {
+        return createQuery(spec, sort).getResultStream();
+    }
+    
+    // SELECT new VolResume(...) : placesDisponibles calculé par la base, ni entité ni snapshot de dirty-checking
+    private TypedQuery<VolResume> createQuery(Specification<Vol> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VolResume> criteria = criteriaBuilder.createQuery(VolResume.class);
+        Root<Vol> root = criteria.from(Vol.class);
+        
+        criteria.select(criteriaBuilder.construct(VolResume.class,
+                root.get("id"),
+                root.get("dateDepart"),
+                root.get("dateArrivee"),
+                root.get("villeDepart"),
+                root.get("villeArrivee"),
+                root.get("prix"),
+                root.get("tempsTrajet"),
+                root.get("capaciteMaximale"),
+                criteriaBuilder.diff(root.<Integer>get("capaciteMaximale"), root.<Integer>get("placesReservees"))
+        ));
+        
+        Predicate predicate = spec != null ? spec.toPredicate(root, criteria, criteriaBuilder) : null;
+        if (predicate != null) {
+            criteria.where(predicate);
+        }
+        if (sort != null && sort.isSorted()) {
+            criteria.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+        
+        return entityManager.createQuery(criteria);
+    }
+}
@@ -0,0 +1,196 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.AnnulationResponse;
+import com.flight.reservation.entity.EcritureLedger;
+import com.flight.reservation.enums.ModeReservation;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.event.ReservationLotEvent;
+import com.flight.reservation.exception.ReservationDejaAnnuleeException;
+import com.flight.reservation.exception.ReservationNotFoundException;
+import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+/**
+ * Annulation de réservations : une réservation, une liste, ou toutes celles d'un vol.
+ * <p>
+ * Les réservations sont marquées en une instruction gardée ({@code annulee_le IS NULL}) : deux
+ * annulations concurrentes ne rendent jamais deux fois les mêmes places. Les places sont ensuite
+ * rendues une fois par vol, par le chemin qui les a retirées : décrément gardé de
+ * {@code places_reservees}, inventaire mémoire (IN_MEMORY_INVENTORY) ou écriture d'annulation
+ * du registre (LEDGER), les deux derniers après commit. L'audit est publié en un seul événement.
+ */
+@Service
+public class AnnulationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnulationService.class);
+
+    private final ReservationRepository reservationRepository;
+    private final VolRepository volRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final ReservationLedger reservationLedger;
+    private final VolSearchCache volSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ModeReservation mode;
+
+    public AnnulationService(ReservationRepository reservationRepository,
+                             VolRepository volRepository,
+                             SeatInventoryService seatInventoryService,
+                             ReservationLedger reservationLedger,
+                             VolSearchCache volSearchCache,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${reservation.mode:OPTIMISTIC_LOCK}") ModeReservation mode) {
+        this.reservationRepository = reservationRepository;
+        this.volRepository = volRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.reservationLedger = reservationLedger;
+        this.volSearchCache = volSearchCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode != null ? mode : ModeReservation.OPTIMISTIC_LOCK;
+    }
+
+    /**
+     * @throws ReservationNotFoundException si la réservation n'existe pas
+     * @throws ReservationDejaAnnuleeException si elle est déjà annulée
+     */
+    public AnnulationResponse annulerReservation(UUID reservationId) {
+        return annuler((annulationId, maintenant) -> {
+            int annulees = reservationRepository.annulerParIds(List.of(reservationId), annulationId, maintenant);
+            if (annulees == 0 && !reservationRepository.existsById(reservationId)) {
+                throw new ReservationNotFoundException(reservationId);
+            }
+            if (annulees == 0) {
+                throw new ReservationDejaAnnuleeException(reservationId);
+            }
+            return annulees;
+        });
+    }
+
+    /**
+     * Annule les réservations de la liste encore actives ; les autres sont ignorées.
+     */
+    public AnnulationResponse annulerReservations(List<UUID> reservationIds) {
+        return annuler((annulationId, maintenant) ->
+                reservationRepository.annulerParIds(reservationIds, annulationId, maintenant));
+    }
+
+    /**
+     * Annule toutes les réservations actives du vol (vol annulé).
+     *
+     * @throws VolNotFoundException si le vol n'existe pas
+     */
+    public AnnulationResponse annulerVol(UUID volId) {
+        return annuler((annulationId, maintenant) -> {
+            int annulees = reservationRepository.annulerParVol(volId, annulationId, maintenant);
+            if (annulees == 0 && !volRepository.existsById(volId)) {
+                throw new VolNotFoundException(volId);
+            }
+            return annulees;
+        });
+    }
+
+    private AnnulationResponse annuler(Marquage marquage) {
+        UUID annulationId = UUID.randomUUID();
+        List<ReservationEvent> events = new ArrayList<>();
+
+        AnnulationResponse response = transactionTemplate.execute(status -> {
+            if (marquage.marquer(annulationId, LocalDateTime.now()) == 0) {
+                return new AnnulationResponse(annulationId, 0, 0);
+            }
+
+            // Vols parcourus dans l'ordre de leur identifiant, comme les réservations groupées
+            List<Object[]> annulees = reservationRepository.findAnnulees(annulationId);
+            Map<UUID, List<Object[]>> parVol = new TreeMap<>();
+            for (Object[] ligne : annulees) {
+                parVol.computeIfAbsent((UUID) ligne[1], id -> new ArrayList<>()).add(ligne);
+            }
+
+            int placesLiberees = 0;
+            for (Map.Entry<UUID, List<Object[]>> entry : parVol.entrySet()) {
+                UUID volId = entry.getKey();
+                int places = entry.getValue().stream().mapToInt(places()).sum();
+                int disponiblesAvant = rendre(volId, places, entry.getValue());
+                placesLiberees += places;
+
+                for (Object[] ligne : entry.getValue()) {
+                    events.add(new ReservationEvent(this, volId, (String) ligne[3], places().applyAsInt(ligne),
+                            disponiblesAvant, StatutReservation.CANCELLED, null, (UUID) ligne[0]));
+                }
+            }
+            return new AnnulationResponse(annulationId, annulees.size(), placesLiberees);
+        });
+
+        // En mode LEDGER, les annulations sont tracées par le registre
+        if (!events.isEmpty() && mode != ModeReservation.LEDGER) {
+            eventPublisher.publishEvent(new ReservationLotEvent(this, events));
+        }
+        logger.info("Annulation {} - {} réservations, {} places libérées",
+                   annulationId, response.getReservationsAnnulees(), response.getPlacesLiberees());
+        return response;
+    }
+
+    /**
+     * @return les places disponibles du vol avant l'annulation
+     */
+    private int rendre(UUID volId, int places, List<Object[]> reservations) {
+        int disponiblesAvant = volSearchCache.getPlacesAdmission(volId)
+                .orElseGet(() -> volRepository.findPlacesDisponiblesByVolId(volId).orElse(0));
+
+        switch (mode) {
+            case IN_MEMORY_INVENTORY -> afterCommit(() -> seatInventoryService.cancel(volId, places));
+            case LEDGER -> {
+                // Rendu au commit, l'état du vol reconstitué avant l'écriture des annulations
+                reservationLedger.rendreAuCommit(volId, places);
+                reservationLedger.ajouter(reservations.stream()
+                        .map(ligne -> EcritureLedger.annulation(volId, (UUID) ligne[0], places().applyAsInt(ligne)))
+                        .toList());
+            }
+            default -> {
+                if (volRepository.releasePlaces(volId, places) == 0) {
+                    throw new IllegalStateException("Places réservées du vol " + volId + " inférieures à l'annulation");
+                }
+            }
+        }
+        volSearchCache.rendrePlaces(volId);
+        return disponiblesAvant;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static ToIntFunction<Object[]> places() {
+        return ligne -> ((Number) ligne[2]).intValue();
+    }
+
+    @FunctionalInterface
+    private interface Marquage {
+        int marquer(UUID annulationId, LocalDateTime maintenant);
+    }
+}
@@ -0,0 +1,37 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.AuditLog;
+
+import java.util.List;
+
+/**
+ * Tampon entre les événements d'audit et l'écrivain unique de {@link AuditService}.
+ * <p>
+ * Un lot rendu par {@link #nextBatch} est redonné tant qu'il n'a pas été acquitté,
+ * ce qui permet de rejouer un lot dont l'écriture a échoué.
+ */
+public interface AuditBuffer {
+
+    /**
+     * @return false si l'événement n'a pas pu être accepté dans le délai
+     */
+    boolean offer(AuditLog auditLog, long timeoutMs) throws InterruptedException;
+
+    /**
+     * Attend au plus {@code waitMs} un lot d'au plus {@code max} événements ; vide si rien n'arrive.
+     */
+    List<AuditLog> nextBatch(int max, long waitMs) throws InterruptedException;
+
+    /**
+     * Confirme l'écriture en base du dernier lot rendu.
+     */
+    void acknowledge();
+
+    /**
+     * Événements acceptés et pas encore acquittés.
+     */
+    int size();
+
+    default void close() {
+    }
+}
@@ -1,49 +1,398 @@
 package com.flight.reservation.service;
 
 import com.flight.reservation.entity.AuditLog;
+import com.flight.reservation.enums.DebordementAudit;
+import com.flight.reservation.enums.StatutReservation;
 import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.event.ReservationLotEvent;
 import com.flight.reservation.repository.AuditLogRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Journal d'audit des tentatives de réservation.
+ * <p>
+ * Les événements sont placés dans un {@link AuditBuffer} borné et écrits par un unique
+ * thread, par lots JDBC déclenchés par la taille du lot ou par le délai de vidage. Un lot
+ * n'est acquitté qu'une fois commité : si la base est indisponible, il est conservé et
+ * réessayé. Quand le tampon est plein, la politique {@code audit.overflow} s'applique :
+ * attente bornée, abandon compté, ou écriture sur le thread appelant.
+ * <p>
+ * Les échecs sont échantillonnés par vol et motif : une ligne au plus par intervalle
+ * {@code audit.failed.sample-interval-ms}, qui indique le nombre d'échecs omis depuis la précédente.
+ * Tous restent comptés dans {@code audit.failures}.
+ * <p>
+ * Une erreur du tampon lui-même (journal sur disque illisible, checkpoint non écrit) n'arrête pas
+ * l'écrivain : elle est comptée dans {@code audit.writer.errors}, puis l'opération est réessayée
+ * après une attente qui double à chaque échec consécutif. {@link AuditWriterHealthIndicator}
+ * signale l'écrivain arrêté ou en échec.
+ */
 @Service
 public class AuditService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
-    
+
+    private static final int MESSAGE_ERREUR_MAX = 500;
+    private static final long ATTENTE_ERREUR_MAX_MS = 5_000;
+
     private final AuditLogRepository auditLogRepository;
-    
-    public AuditService(AuditLogRepository auditLogRepository) {
+    private final TransactionTemplate transactionTemplate;
+    private final AuditBuffer tampon;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final DebordementAudit debordement;
+    private final long blockTimeoutMs;
+    private final long echantillonnageNanos;
+    private final Cache<CleEchec, Echantillon> echantillons;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter ecrits;
+    private final Counter abandonnes;
+    private final Counter echecs;
+    private final Counter echecsRecus;
+    private final Counter echecsOmis;
+    private final Counter erreursEcrivain;
+    private final AtomicInteger erreursConsecutives = new AtomicInteger();
+    private volatile RuntimeException derniereErreur;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AuditService(AuditLogRepository auditLogRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        AuditBuffer tampon,
+                        @Value("${audit.batch-size:200}") int batchSize,
+                        @Value("${audit.flush-interval-ms:100}") long flushIntervalMs,
+                        @Value("${audit.overflow:BLOCK}") DebordementAudit debordement,
+                        @Value("${audit.block-timeout-ms:50}") long blockTimeoutMs,
+                        @Value("${audit.failed.sample-interval-ms:1000}") long echantillonnageMs) {
         this.auditLogRepository = auditLogRepository;
+        // Toujours dans sa propre transaction, y compris en écriture sur le thread appelant
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tampon = tampon;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.debordement = debordement;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.echantillonnageNanos = Duration.ofMillis(echantillonnageMs).toNanos();
+        this.echantillons = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofMillis(Math.max(echantillonnageMs, 1) * 10))
+                .build();
+
+        Gauge.builder("audit.queue.depth", tampon, AuditBuffer::size)
+                .description("Événements d'audit en attente d'écriture")
+                .register(meterRegistry);
+        if (tampon instanceof FileAuditSpool spool) {
+            Gauge.builder("audit.spool.bytes", spool, FileAuditSpool::getSizeBytes)
+                    .description("Taille sur disque du journal d'audit")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Durée d'écriture d'un lot d'audit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("audit.batch.size")
+                .description("Nombre de lignes par lot d'audit")
+                .register(meterRegistry);
+        this.ecrits = Counter.builder("audit.events.written").register(meterRegistry);
+        this.abandonnes = Counter.builder("audit.events.dropped").register(meterRegistry);
+        this.echecs = Counter.builder("audit.events.failed").register(meterRegistry);
+        this.echecsRecus = Counter.builder("audit.failures")
+                .description("Tentatives de réservation en échec, journalisées ou non")
+                .register(meterRegistry);
+        this.echecsOmis = Counter.builder("audit.failures.sampled")
+                .description("Échecs non journalisés par échantillonnage")
+                .register(meterRegistry);
+        this.erreursEcrivain = Counter.builder("audit.writer.errors")
+                .description("Erreurs de lecture ou d'acquittement du tampon d'audit")
+                .register(meterRegistry);
+        Gauge.builder("audit.writer.consecutive.errors", erreursConsecutives, AtomicInteger::get)
+                .description("Erreurs consécutives du tampon d'audit, 0 une fois rétabli")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "audit-writer");
+        this.writer.setDaemon(true);
     }
-    
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
     @EventListener
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void handleReservationEvent(ReservationEvent event) {
+        long omis = 0;
+        if (event.getStatut() == StatutReservation.FAILED) {
+            echecsRecus.increment();
+            omis = echantillonner(event);
+            if (omis < 0) {
+                echecsOmis.increment();
+                return;
+            }
+        }
+
+        AuditLog auditLog = toAuditLog(event, omis);
         try {
-            AuditLog auditLog = new AuditLog(
-                event.getVolId(),
-                event.getEmailPassager(),
-                event.getPlacesDemandees(),
-                event.getPlacesDisponiblesAvant(),
-                event.getStatut(),
-                event.getMessageErreur(),
-                event.getReservationId()
-            );
-            
-            auditLogRepository.save(auditLog);
-            
-            logger.info("Audit log créé pour la tentative de réservation - Vol: {}, Passager: {}, Statut: {}", 
-                       event.getVolId(), event.getEmailPassager(), event.getStatut());
-                       
-        } catch (Exception e) {
-            logger.error("Erreur lors de la création de l'audit log", e);
-        }
-    }
-}
\ No newline at end of file
+            if (tampon.offer(auditLog, 0)
+                    || (debordement == DebordementAudit.BLOCK && tampon.offer(auditLog, blockTimeoutMs))) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (debordement != DebordementAudit.CALLER_RUNS || !write(List.of(auditLog))) {
+            drop(auditLog);
+        }
+    }
+
+    // Entrées consécutives dans le tampon : l'écrivain les insère dans le même lot JDBC
+    @EventListener
+    public void handleReservationLotEvent(ReservationLotEvent event) {
+        event.getReservations().forEach(this::handleReservationEvent);
+    }
+
+    /**
+     * Arrête le thread d'écriture après avoir vidé le tampon.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Pas d'interruption : elle pourrait couper une écriture JDBC en cours
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            logger.warn("Écrivain d'audit toujours actif à l'arrêt, {} événements en attente", tampon.size());
+        }
+    }
+
+    public int getQueueDepth() {
+        return tampon.size();
+    }
+
+    public boolean isWriterAlive() {
+        return writer.isAlive();
+    }
+
+    public int getErreursConsecutives() {
+        return erreursConsecutives.get();
+    }
+
+    public RuntimeException getDerniereErreur() {
+        return derniereErreur;
+    }
+
+    private void run() {
+        while (running || tampon.size() > 0) {
+            List<AuditLog> lot;
+            try {
+                lot = tampon.nextBatch(batchSize, flushIntervalMs);
+            } catch (InterruptedException e) {
+                // Arrêt forcé : le reste du tampon est écrit sans plus attendre
+                running = false;
+                continue;
+            } catch (RuntimeException e) {
+                if (!erreurTampon("Lecture", e)) {
+                    return;
+                }
+                continue;
+            }
+            erreursConsecutives.set(0);
+            if (lot.isEmpty()) {
+                continue;
+            }
+
+            if (write(lot)) {
+                if (!acknowledge()) {
+                    return;
+                }
+            } else if (!running) {
+                // Base toujours indisponible à l'arrêt : seul un journal sur disque conserve le reste
+                logger.error("Arrêt avec {} événements d'audit non écrits", tampon.size());
+                return;
+            } else {
+                pause();
+            }
+        }
+    }
+
+    // Le lot écrit est acquitté avant toute nouvelle lecture : relu, il serait écrit une seconde fois
+    private boolean acknowledge() {
+        while (true) {
+            try {
+                tampon.acknowledge();
+                erreursConsecutives.set(0);
+                return true;
+            } catch (RuntimeException e) {
+                if (!erreurTampon("Acquittement", e)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compte l'erreur du tampon et attend avant de réessayer.
+     *
+     * @return false à l'arrêt : l'écrivain abandonne, le reste est rejoué au démarrage suivant
+     */
+    private boolean erreurTampon(String operation, RuntimeException e) {
+        erreursEcrivain.increment();
+        derniereErreur = e;
+        int consecutives = erreursConsecutives.incrementAndGet();
+        if (!running) {
+            logger.error("{} du tampon d'audit impossible à l'arrêt, {} événements non écrits",
+                       operation, tampon.size(), e);
+            return false;
+        }
+        long attente = Math.min(ATTENTE_ERREUR_MAX_MS, flushIntervalMs << Math.min(consecutives - 1, 10));
+        logger.error("{} du tampon d'audit impossible ({} erreurs consécutives), nouvel essai dans {} ms",
+                   operation, consecutives, attente, e);
+        try {
+            Thread.sleep(attente);
+        } catch (InterruptedException interruption) {
+            running = false;
+        }
+        return true;
+    }
+
+    /**
+     * @return false si la base est indisponible : le lot doit être réessayé
+     */
+    private boolean write(List<AuditLog> lot) {
+        long debut = System.nanoTime();
+        try {
+            // Identifiants générés lors d'une tentative annulée
+            lot.forEach(auditLog -> auditLog.setId(null));
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(lot));
+            ecrits.increment(lot.size());
+        } catch (TransientDataAccessException | DataAccessResourceFailureException
+                 | CannotCreateTransactionException e) {
+            logger.warn("Base indisponible, lot de {} audit logs conservé pour un nouvel essai", lot.size(), e);
+            return false;
+        } catch (RuntimeException e) {
+            logger.warn("Échec de l'écriture d'un lot de {} audit logs, reprise ligne à ligne", lot.size(), e);
+            writeOneByOne(lot);
+        }
+        flushTimer.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(lot.size());
+
+        logger.debug("{} audit logs écrits", lot.size());
+        return true;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(flushIntervalMs);
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+
+    // Isole la ligne fautive pour ne pas perdre le reste du lot
+    private void writeOneByOne(List<AuditLog> lot) {
+        for (AuditLog auditLog : lot) {
+            auditLog.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> auditLogRepository.save(auditLog));
+                ecrits.increment();
+            } catch (RuntimeException e) {
+                echecs.increment();
+                logger.error("Erreur lors de la création de l'audit log - Vol: {}, Passager: {}",
+                           auditLog.getVolId(), auditLog.getEmailPassager(), e);
+            }
+        }
+    }
+
+    private void drop(AuditLog auditLog) {
+        abandonnes.increment();
+        logger.warn("Tampon d'audit plein, événement abandonné - Vol: {}, Passager: {}, Statut: {}",
+                   auditLog.getVolId(), auditLog.getEmailPassager(), auditLog.getStatut());
+    }
+
+    // -1 si l'échec n'est pas journalisé, sinon le nombre d'échecs omis depuis la dernière ligne
+    private long echantillonner(ReservationEvent event) {
+        if (echantillonnageNanos <= 0) {
+            return 0;
+        }
+        return echantillons.get(new CleEchec(event.getVolId(), event.getMessageErreur()),
+                                cle -> new Echantillon(System.nanoTime()))
+                .suivant(System.nanoTime(), echantillonnageNanos);
+    }
+
+    private AuditLog toAuditLog(ReservationEvent event, long omis) {
+        String messageErreur = event.getMessageErreur();
+        if (omis > 0) {
+            messageErreur = (messageErreur != null ? messageErreur + " " : "") + "(+" + omis + " échecs non journalisés)";
+        }
+        if (messageErreur != null && messageErreur.length() > MESSAGE_ERREUR_MAX) {
+            messageErreur = messageErreur.substring(0, MESSAGE_ERREUR_MAX);
+        }
+
+        AuditLog auditLog = new AuditLog(
+            event.getVolId(),
+            event.getEmailPassager(),
+            event.getPlacesDemandees(),
+            event.getPlacesDisponiblesAvant(),
+            event.getStatut(),
+            messageErreur,
+            event.getReservationId()
+        );
+        auditLog.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault()));
+        return auditLog;
+    }
+
+    private record CleEchec(UUID volId, String messageErreur) {}
+
+    private static final class Echantillon {
+
+        private long prochaineLigne;
+        private long omis;
+
+        Echantillon(long creation) {
+            this.prochaineLigne = creation;
+        }
+
+        synchronized long suivant(long maintenant, long intervalle) {
+            if (maintenant - prochaineLigne < 0) {
+                omis++;
+                return -1;
+            }
+            long precedents = omis;
+            omis = 0;
+            prochaineLigne = maintenant + intervalle;
+            return precedents;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.flight.reservation.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * État de l'écrivain d'audit : DOWN si son thread s'est arrêté ou si le tampon échoue
+ * depuis la dernière opération réussie. Une base indisponible n'est pas signalée ici :
+ * les lots sont conservés dans le tampon et {@code audit.queue.depth} augmente.
+ */
+@Component
+public class AuditWriterHealthIndicator implements HealthIndicator {
+
+    private final AuditService auditService;
+
+    public AuditWriterHealthIndicator(AuditService auditService) {
+        this.auditService = auditService;
+    }
+
+    @Override
+    public Health health() {
+        int erreurs = auditService.getErreursConsecutives();
+        Health.Builder builder = auditService.isWriterAlive() && erreurs == 0 ? Health.up() : Health.down();
+        builder.withDetail("queueDepth", auditService.getQueueDepth())
+               .withDetail("writerAlive", auditService.isWriterAlive())
+               .withDetail("consecutiveErrors", erreurs);
+        RuntimeException derniereErreur = auditService.getDerniereErreur();
+        if (erreurs > 0 && derniereErreur != null) {
+            builder.withDetail("lastError", derniereErreur.toString());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,561 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.AuditLog;
+import com.flight.reservation.enums.StatutReservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal d'audit durable en ajout seul, découpé en segments.
+ * <p>
+ * Chaque événement est écrit sur disque avant d'être accepté : un arrêt brutal de la JVM
+ * ne perd que ce qui n'a pas encore atteint le noyau. Un enregistrement est
+ * {@code [longueur:int][seq:long][crc32c:int][données]}. Le dernier numéro de séquence
+ * écrit en base est conservé dans le fichier {@code checkpoint} ; au démarrage, la fin
+ * incomplète du dernier segment est tronquée et tout ce qui suit le checkpoint est rejoué.
+ * Les segments entièrement acquittés sont supprimés.
+ * <p>
+ * Un seul lecteur (l'écrivain d'audit) ; les ajouts peuvent venir de n'importe quel thread.
+ */
+public class FileAuditSpool implements AuditBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileAuditSpool.class);
+
+    private static final String PREFIXE = "segment-";
+    private static final String SUFFIXE = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int ENTETE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int TAILLE_MAX_DONNEES = 64 * 1024;
+    // Message tronqué à l'encodage : writeUTF est limité à 64 Ko et un enregistrement à TAILLE_MAX_DONNEES
+    private static final int MESSAGE_ERREUR_MAX = 4096;
+    private static final byte FORMAT = 1;
+
+    private final Path repertoire;
+    private final long segmentSize;
+    private final long maxBytes;
+    private final boolean syncOnAppend;
+    private final OuvertureSegment ouvertureSegment;
+
+    private final FileChannel verrouFichier;
+    private final FileLock verrou;
+
+    // Segments présents sur disque, par premier numéro de séquence
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong tailleTotale = new AtomicLong();
+
+    // Écriture, sous verrou
+    private final ReentrantLock ecriture = new ReentrantLock();
+    private final Condition nouveauxEnregistrements = ecriture.newCondition();
+    private FileChannel segmentActif;
+    private volatile Tete tete;
+    private volatile long prochainSeq;
+
+    // Lecture, réservée à l'écrivain d'audit
+    private volatile long checkpoint;
+    private long segmentLu;
+    private FileChannel lecture;
+    private long positionLue;
+    private long dernierSeqLu;
+    private List<AuditLog> enCours = List.of();
+
+    /**
+     * Segment en cours d'écriture et nombre d'octets entièrement écrits, seuls visibles du lecteur.
+     */
+    private record Tete(long premierSeq, long taille) {}
+
+    /**
+     * Ouverture en ajout du segment actif.
+     */
+    interface OuvertureSegment {
+        FileChannel ouvrir(Path fichier) throws IOException;
+    }
+
+    public FileAuditSpool(Path repertoire, long segmentSize, long maxBytes, boolean syncOnAppend) {
+        this(repertoire, segmentSize, maxBytes, syncOnAppend, fichier -> FileChannel.open(fichier,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    FileAuditSpool(Path repertoire, long segmentSize, long maxBytes, boolean syncOnAppend,
+                   OuvertureSegment ouvertureSegment) {
+        this.repertoire = repertoire;
+        this.segmentSize = segmentSize;
+        this.maxBytes = maxBytes;
+        this.syncOnAppend = syncOnAppend;
+        this.ouvertureSegment = ouvertureSegment;
+
+        try {
+            Files.createDirectories(repertoire);
+            this.verrouFichier = FileChannel.open(repertoire.resolve(".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            this.verrou = verrouFichier.tryLock();
+            if (verrou == null) {
+                verrouFichier.close();
+                throw new IllegalStateException("Journal d'audit déjà utilisé par un autre processus: " + repertoire);
+            }
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ouverture du journal d'audit impossible: " + repertoire, e);
+        }
+    }
+
+    @Override
+    public boolean offer(AuditLog auditLog, long timeoutMs) {
+        byte[] donnees;
+        try {
+            donnees = encode(auditLog);
+        } catch (IOException e) {
+            logger.error("Événement d'audit non encodable, refusé - Vol: {}", auditLog.getVolId(), e);
+            return false;
+        }
+        if (donnees.length > TAILLE_MAX_DONNEES) {
+            logger.error("Événement d'audit de {} octets, refusé - Vol: {}", donnees.length, auditLog.getVolId());
+            return false;
+        }
+
+        ecriture.lock();
+        try {
+            if (tailleTotale.get() >= maxBytes) {
+                return false;
+            }
+            if (tete.taille() >= segmentSize) {
+                roll();
+            }
+
+            long seq = prochainSeq;
+            ByteBuffer buffer = ByteBuffer.allocate(ENTETE + donnees.length);
+            buffer.putInt(donnees.length).putLong(seq).putInt(crc(seq, donnees)).put(donnees).flip();
+            while (buffer.hasRemaining()) {
+                segmentActif.write(buffer);
+            }
+            if (syncOnAppend) {
+                segmentActif.force(false);
+            }
+
+            prochainSeq = seq + 1;
+            tete = new Tete(tete.premierSeq(), tete.taille() + buffer.limit());
+            tailleTotale.addAndGet(buffer.limit());
+            nouveauxEnregistrements.signalAll();
+            return true;
+        } catch (IOException e) {
+            logger.error("Écriture impossible dans le journal d'audit {}", repertoire, e);
+            annulerEcriture();
+            return false;
+        } finally {
+            ecriture.unlock();
+        }
+    }
+
+    // Retire un enregistrement écrit en partie : les ajouts suivants le suivraient, illisibles au-delà
+    private void annulerEcriture() {
+        try {
+            segmentActif.truncate(tete.taille());
+            segmentActif.position(tete.taille());
+        } catch (IOException e) {
+            logger.error("Troncature impossible du segment d'audit {} après une écriture en échec", repertoire, e);
+        }
+    }
+
+    @Override
+    public List<AuditLog> nextBatch(int max, long waitMs) throws InterruptedException {
+        if (!enCours.isEmpty()) {
+            return enCours;
+        }
+
+        List<AuditLog> lot = new ArrayList<>();
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+        try {
+            read(lot, max);
+            while (lot.size() < max) {
+                long restant = limite - System.nanoTime();
+                if (restant <= 0) {
+                    break;
+                }
+                ecriture.lock();
+                try {
+                    if (prochainSeq - 1 <= dernierSeqLu) {
+                        nouveauxEnregistrements.awaitNanos(restant);
+                    }
+                } finally {
+                    ecriture.unlock();
+                }
+                read(lot, max);
+            }
+        } finally {
+            // Y compris sur erreur de lecture : les enregistrements déjà lus sont rendus au prochain appel
+            enCours = lot;
+        }
+        return lot;
+    }
+
+    @Override
+    public void acknowledge() {
+        if (enCours.isEmpty()) {
+            return;
+        }
+        writeCheckpoint(dernierSeqLu);
+        enCours = List.of();
+
+        // Tout segment antérieur à celui en cours de lecture est entièrement acquitté
+        for (Map.Entry<Long, Path> segment : segments.headMap(segmentLu, false).entrySet()) {
+            delete(segment.getKey(), segment.getValue());
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, prochainSeq - 1 - checkpoint);
+    }
+
+    public long getSizeBytes() {
+        return tailleTotale.get();
+    }
+
+    @Override
+    public void close() {
+        ecriture.lock();
+        try {
+            segmentActif.force(false);
+            segmentActif.close();
+            if (lecture != null) {
+                lecture.close();
+            }
+            verrou.release();
+            verrouFichier.close();
+        } catch (IOException e) {
+            logger.warn("Fermeture du journal d'audit {}", repertoire, e);
+        } finally {
+            ecriture.unlock();
+        }
+    }
+
+    private void read(List<AuditLog> lot, int max) {
+        try {
+            ByteBuffer entete = ByteBuffer.allocate(ENTETE);
+            while (lot.size() < max) {
+                if (lecture == null) {
+                    lecture = FileChannel.open(segments.get(segmentLu), StandardOpenOption.READ);
+                }
+
+                Tete t = tete;
+                boolean actif = segmentLu == t.premierSeq();
+                long limite = actif ? t.taille() : lecture.size();
+
+                if (positionLue + ENTETE > limite) {
+                    if (actif) {
+                        return;
+                    }
+                    nextSegment();
+                    continue;
+                }
+
+                entete.clear();
+                readFully(entete, positionLue);
+                entete.flip();
+                int longueur = entete.getInt();
+                long seq = entete.getLong();
+                int crc = entete.getInt();
+
+                byte[] donnees = longueur > 0 && longueur <= TAILLE_MAX_DONNEES
+                        && positionLue + ENTETE + longueur <= limite ? new byte[longueur] : null;
+                if (donnees != null) {
+                    readFully(ByteBuffer.wrap(donnees), positionLue + ENTETE);
+                }
+                if (donnees == null || crc(seq, donnees) != crc) {
+                    // Seule la fin du dernier segment est réparée au démarrage : ici le reste du segment est perdu
+                    logger.error("Enregistrement corrompu dans le segment {} à la position {}, fin du segment ignorée",
+                               segments.get(segmentLu), positionLue);
+                    if (actif) {
+                        return;
+                    }
+                    nextSegment();
+                    continue;
+                }
+
+                positionLue += ENTETE + longueur;
+                dernierSeqLu = seq;
+                if (seq > checkpoint) {
+                    decodeOuIgnore(seq, donnees).ifPresent(lot::add);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du journal d'audit impossible: " + repertoire, e);
+        }
+    }
+
+    private void nextSegment() throws IOException {
+        lecture.close();
+        lecture = null;
+        segmentLu = segments.higherKey(segmentLu);
+        positionLue = 0;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (lecture.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Fin de segment inattendue");
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        segmentActif.force(false);
+        segmentActif.close();
+        openSegment(prochainSeq);
+    }
+
+    private void openSegment(long premierSeq) throws IOException {
+        Path fichier = repertoire.resolve(String.format("%s%020d%s", PREFIXE, premierSeq, SUFFIXE));
+        segmentActif = ouvertureSegment.ouvrir(fichier);
+        segments.put(premierSeq, fichier);
+        tete = new Tete(premierSeq, segmentActif.size());
+    }
+
+    private void delete(long premierSeq, Path fichier) {
+        try {
+            long taille = Files.size(fichier);
+            Files.deleteIfExists(fichier);
+            segments.remove(premierSeq);
+            tailleTotale.addAndGet(-taille);
+        } catch (IOException e) {
+            logger.warn("Suppression du segment d'audit {} impossible", fichier, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        checkpoint = readCheckpoint();
+        long dernierSeq = checkpoint;
+
+        List<Path> fichiers;
+        try (Stream<Path> liste = Files.list(repertoire)) {
+            fichiers = liste
+                    .filter(f -> f.getFileName().toString().startsWith(PREFIXE))
+                    .sorted()
+                    .toList();
+        }
+
+        for (int i = 0; i < fichiers.size(); i++) {
+            Path fichier = fichiers.get(i);
+            String nom = fichier.getFileName().toString();
+            long premierSeq = Long.parseLong(nom.substring(PREFIXE.length(), nom.length() - SUFFIXE.length()));
+
+            long[] scan = scan(fichier);
+            long finValide = scan[0];
+            if (scan[1] > 0) {
+                dernierSeq = Math.max(dernierSeq, scan[1]);
+            }
+            if (finValide < Files.size(fichier)) {
+                if (i == fichiers.size() - 1) {
+                    logger.warn("Fin incomplète du segment d'audit {} tronquée à {} octets", fichier, finValide);
+                    try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.WRITE)) {
+                        canal.truncate(finValide);
+                    }
+                } else {
+                    logger.error("Segment d'audit {} corrompu après {} octets", fichier, finValide);
+                }
+            }
+
+            segments.put(premierSeq, fichier);
+            tailleTotale.addAndGet(Files.size(fichier));
+        }
+
+        prochainSeq = dernierSeq + 1;
+
+        // Segments dont le successeur commence avant le checkpoint : entièrement acquittés
+        for (Long premierSeq : List.copyOf(segments.keySet())) {
+            Long suivant = segments.higherKey(premierSeq);
+            if (suivant != null && suivant - 1 <= checkpoint) {
+                delete(premierSeq, segments.get(premierSeq));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            openSegment(prochainSeq);
+        } else {
+            openSegment(segments.lastKey());
+        }
+        segmentLu = segments.firstKey();
+        dernierSeqLu = checkpoint;
+
+        long aRejouer = prochainSeq - 1 - checkpoint;
+        if (aRejouer > 0) {
+            logger.info("{} événements d'audit non persistés seront rejoués depuis {}", aRejouer, repertoire);
+        }
+    }
+
+    /**
+     * @return {position de fin du dernier enregistrement valide, dernier numéro de séquence valide}
+     */
+    private long[] scan(Path fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            long taille = canal.size();
+            long position = 0;
+            long dernierSeq = 0;
+            ByteBuffer entete = ByteBuffer.allocate(ENTETE);
+            while (position + ENTETE <= taille) {
+                entete.clear();
+                canal.read(entete, position);
+                entete.flip();
+                int longueur = entete.getInt();
+                long seq = entete.getLong();
+                int crc = entete.getInt();
+                if (longueur <= 0 || longueur > TAILLE_MAX_DONNEES || position + ENTETE + longueur > taille) {
+                    break;
+                }
+                ByteBuffer donnees = ByteBuffer.allocate(longueur);
+                canal.read(donnees, position + ENTETE);
+                if (crc(seq, donnees.array()) != crc) {
+                    break;
+                }
+                position += ENTETE + longueur;
+                dernierSeq = seq;
+            }
+            return new long[] {position, dernierSeq};
+        }
+    }
+
+    private long readCheckpoint() {
+        Path fichier = repertoire.resolve(CHECKPOINT);
+        if (!Files.exists(fichier)) {
+            return 0;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(fichier));
+            long seq = buffer.getLong();
+            if (buffer.getInt() != crc(seq, new byte[0])) {
+                throw new IOException("Checksum invalide");
+            }
+            return seq;
+        } catch (IOException | RuntimeException e) {
+            // Sans checkpoint fiable, tout est rejoué : des doublons plutôt que des pertes
+            logger.warn("Checkpoint d'audit illisible dans {}, relecture complète", repertoire, e);
+            return 0;
+        }
+    }
+
+    private void writeCheckpoint(long seq) {
+        Path temporaire = repertoire.resolve(CHECKPOINT + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        buffer.putLong(seq).putInt(crc(seq, new byte[0])).flip();
+        try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Écriture du checkpoint d'audit impossible", e);
+        }
+        try {
+            Files.move(temporaire, repertoire.resolve(CHECKPOINT),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Écriture du checkpoint d'audit impossible", e);
+        }
+        checkpoint = seq;
+    }
+
+    private static int crc(long seq, byte[] donnees) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, seq));
+        crc.update(donnees);
+        return (int) crc.getValue();
+    }
+
+    // Enregistrement intact mais illisible (format ou statut inconnu) : ignoré plutôt que rejoué sans fin
+    private Optional<AuditLog> decodeOuIgnore(long seq, byte[] donnees) {
+        try {
+            return Optional.of(decode(donnees));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Enregistrement d'audit {} illisible dans le segment {}, ignoré",
+                       seq, segments.get(segmentLu), e);
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] encode(AuditLog auditLog) throws IOException {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(octets)) {
+            out.writeByte(FORMAT);
+            writeUuid(out, auditLog.getVolId());
+            out.writeUTF(auditLog.getEmailPassager());
+            out.writeInt(auditLog.getPlacesDemandees());
+            out.writeBoolean(auditLog.getPlacesDisponiblesAvant() != null);
+            if (auditLog.getPlacesDisponiblesAvant() != null) {
+                out.writeInt(auditLog.getPlacesDisponiblesAvant());
+            }
+            out.writeUTF(auditLog.getStatut().name());
+            String messageErreur = auditLog.getMessageErreur();
+            out.writeBoolean(messageErreur != null);
+            if (messageErreur != null) {
+                out.writeUTF(messageErreur.length() > MESSAGE_ERREUR_MAX
+                        ? messageErreur.substring(0, MESSAGE_ERREUR_MAX) : messageErreur);
+            }
+            out.writeBoolean(auditLog.getReservationId() != null);
+            if (auditLog.getReservationId() != null) {
+                writeUuid(out, auditLog.getReservationId());
+            }
+            LocalDateTime timestamp = auditLog.getTimestamp() != null ? auditLog.getTimestamp() : LocalDateTime.now();
+            out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(timestamp.getNano());
+        }
+        return octets.toByteArray();
+    }
+
+    private static AuditLog decode(byte[] donnees) throws IOException {
+        try (DataInputStream in = new DataInputStream(new java.io.ByteArrayInputStream(donnees))) {
+            byte format = in.readByte();
+            if (format != FORMAT) {
+                throw new IOException("Format d'enregistrement d'audit inconnu: " + format);
+            }
+            UUID volId = readUuid(in);
+            String email = in.readUTF();
+            int placesDemandees = in.readInt();
+            Integer placesDisponiblesAvant = in.readBoolean() ? in.readInt() : null;
+            StatutReservation statut = StatutReservation.valueOf(in.readUTF());
+            String messageErreur = in.readBoolean() ? in.readUTF() : null;
+            UUID reservationId = in.readBoolean() ? readUuid(in) : null;
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+
+            AuditLog auditLog = new AuditLog(volId, email, placesDemandees, placesDisponiblesAvant,
+                                             statut, messageErreur, reservationId);
+            auditLog.setTimestamp(timestamp);
+            return auditLog;
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,129 @@
+package com.flight.reservation.service;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Roue temporelle hachée : les échéances sont rangées dans un tableau circulaire de seaux,
+ * un seau par tick, selon leur tick d'échéance modulo la taille de la roue.
+ * <p>
+ * Planifier et annuler coûtent O(1), sans verrou et sans tâche par échéance : une nouvelle
+ * échéance passe par une file, versée dans son seau au passage suivant ; une échéance annulée
+ * est seulement marquée, puis retirée quand la roue atteint son seau. Un seul thread fait avancer
+ * la roue ({@link #avancer}) et ne parcourt, à chaque tick, que le seau courant ; les échéances
+ * d'un tour ultérieur y restent. Chaque échéance n'occupe qu'un nœud de liste chaînée.
+ */
+public class HashedTimerWheel<T> {
+
+    private final long tickNanos;
+    private final int masque;
+    private final Echeance<T>[] seaux;
+    private final Queue<Echeance<T>> nouvelles = new ConcurrentLinkedQueue<>();
+    private final LongSupplier horloge;
+    private final long origine;
+
+    // Dernier tick traité, modifié par le seul thread qui fait avancer la roue
+    private long tickCourant;
+
+    /**
+     * @param taille nombre de seaux, arrondi à la puissance de deux supérieure
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(Duration tick, int taille, LongSupplier horloge) {
+        this.tickNanos = Math.max(1, tick.toNanos());
+        int seaux = Integer.highestOneBit(Math.max(1, taille - 1)) << 1;
+        this.masque = seaux - 1;
+        this.seaux = new Echeance[seaux];
+        this.horloge = horloge;
+        this.origine = horloge.getAsLong();
+    }
+
+    /**
+     * Planifie une échéance ; elle expire au premier passage de {@link #avancer} qui suit le délai,
+     * à un tick près.
+     */
+    public Echeance<T> planifier(T valeur, Duration delai) {
+        long ecoule = horloge.getAsLong() - origine + Math.max(0, delai.toNanos());
+        // Arrondi au tick supérieur : jamais d'expiration avant le délai
+        Echeance<T> echeance = new Echeance<>(valeur, (ecoule + tickNanos - 1) / tickNanos);
+        nouvelles.add(echeance);
+        return echeance;
+    }
+
+    /**
+     * Traite les ticks écoulés depuis le dernier passage et remet les échéances atteintes.
+     *
+     * @return le nombre d'échéances expirées
+     */
+    public synchronized int avancer(Consumer<T> expiration) {
+        long cible = (horloge.getAsLong() - origine) / tickNanos;
+        verser();
+        int expirees = 0;
+        while (tickCourant < cible) {
+            tickCourant++;
+            expirees += expirer((int) (tickCourant & masque), tickCourant, expiration);
+        }
+        return expirees;
+    }
+
+    // Une échéance déjà dépassée rejoint le prochain seau traité
+    private void verser() {
+        Echeance<T> echeance;
+        while ((echeance = nouvelles.poll()) != null) {
+            if (echeance.annulee) {
+                continue;
+            }
+            int index = (int) (Math.max(echeance.tick, tickCourant + 1) & masque);
+            echeance.suivante = seaux[index];
+            seaux[index] = echeance;
+        }
+    }
+
+    private int expirer(int index, long tick, Consumer<T> expiration) {
+        int expirees = 0;
+        Echeance<T> precedente = null;
+        Echeance<T> echeance = seaux[index];
+        while (echeance != null) {
+            Echeance<T> suivante = echeance.suivante;
+            if (echeance.annulee || echeance.tick <= tick) {
+                if (precedente == null) {
+                    seaux[index] = suivante;
+                } else {
+                    precedente.suivante = suivante;
+                }
+                echeance.suivante = null;
+                if (!echeance.annulee) {
+                    expirees++;
+                    expiration.accept(echeance.valeur);
+                }
+            } else {
+                precedente = echeance;
+            }
+            echeance = suivante;
+        }
+        return expirees;
+    }
+
+    /**
+     * Échéance planifiée, à annuler si l'élément n'a plus à expirer.
+     */
+    public static final class Echeance<T> {
+
+        private final T valeur;
+        private final long tick;
+        private volatile boolean annulee;
+        private Echeance<T> suivante;
+
+        private Echeance(T valeur, long tick) {
+            this.valeur = valeur;
+            this.tick = tick;
+        }
+
+        public void annuler() {
+            annulee = true;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.VolChaud;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Détection des vols « chauds » : ceux dont les réservations se disputent la même ligne.
+ * <p>
+ * Branché sur le {@code @Retryable} de {@code ReservationService.creerReservation}, il compte par vol,
+ * sur une fenêtre glissante découpée en tranches, les appels et les tentatives en conflit de version.
+ * Un vol devient chaud quand ses conflits atteignent le seuil et représentent au moins la part
+ * configurée des appels ; il le reste tant qu'un conflit a eu lieu dans la durée de maintien.
+ * Une fois chaud, ses réservations passent par la file de sa partition et ne rencontrent plus
+ * de conflit : il refroidit à l'échéance du maintien et redevient chaud au conflit suivant.
+ */
+@Component("hotFlightDetector")
+public class HotFlightDetector implements RetryListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotFlightDetector.class);
+
+    private static final int TRANCHES = 10;
+
+    private final boolean enabled;
+    private final int seuilConflits;
+    private final double ratioConflits;
+    private final long trancheNanos;
+    private final long maintienNanos;
+    private final LongSupplier horloge;
+    private final Cache<UUID, Fenetre> fenetres;
+
+    @Autowired
+    public HotFlightDetector(MeterRegistry meterRegistry,
+                             @Value("${reservation.hot-flights.enabled:true}") boolean enabled,
+                             @Value("${reservation.hot-flights.window-ms:10000}") long windowMs,
+                             @Value("${reservation.hot-flights.conflict-threshold:5}") int seuilConflits,
+                             @Value("${reservation.hot-flights.conflict-ratio:0.2}") double ratioConflits,
+                             @Value("${reservation.hot-flights.hold-ms:30000}") long holdMs,
+                             @Value("${reservation.hot-flights.max-tracked:10000}") long maxSuivis) {
+        this(meterRegistry, enabled, windowMs, seuilConflits, ratioConflits, holdMs, maxSuivis, System::nanoTime);
+    }
+
+    HotFlightDetector(MeterRegistry meterRegistry, boolean enabled, long windowMs, int seuilConflits,
+                      double ratioConflits, long holdMs, long maxSuivis, LongSupplier horloge) {
+        this.enabled = enabled;
+        this.seuilConflits = Math.max(1, seuilConflits);
+        this.ratioConflits = ratioConflits;
+        this.trancheNanos = Math.max(1, Duration.ofMillis(windowMs).toNanos() / TRANCHES);
+        this.maintienNanos = Duration.ofMillis(holdMs).toNanos();
+        this.horloge = horloge;
+        // Un vol sans activité sort du suivi ; la taille bornée protège des id arbitraires
+        this.fenetres = Caffeine.newBuilder()
+                .maximumSize(maxSuivis)
+                .expireAfterAccess(Duration.ofMillis(Math.max(windowMs, holdMs) * 2))
+                .build();
+        Gauge.builder("reservation.hot.flights", this, d -> d.getVolsChauds().size())
+                .description("Vols actuellement routés vers la file de leur partition")
+                .register(meterRegistry);
+    }
+
+    public boolean isChaud(UUID volId) {
+        if (!enabled || volId == null) {
+            return false;
+        }
+        Fenetre fenetre = fenetres.getIfPresent(volId);
+        return fenetre != null && fenetre.isChaud(horloge.getAsLong());
+    }
+
+    /**
+     * Vols chauds à cet instant, les plus conflictuels en premier.
+     */
+    public List<VolChaud> getVolsChauds() {
+        long maintenant = horloge.getAsLong();
+        List<VolChaud> chauds = new ArrayList<>();
+        fenetres.asMap().forEach((volId, fenetre) -> {
+            VolChaud volChaud = fenetre.etat(volId, maintenant);
+            if (volChaud != null) {
+                chauds.add(volChaud);
+            }
+        });
+        chauds.sort(Comparator.comparingLong(VolChaud::getConflits).reversed());
+        return chauds;
+    }
+
+    void enregistrerAppel(UUID volId) {
+        if (enabled && volId != null) {
+            fenetre(volId).enregistrer(horloge.getAsLong(), false);
+        }
+    }
+
+    void enregistrerConflit(UUID volId) {
+        if (enabled && volId != null && fenetre(volId).enregistrer(horloge.getAsLong(), true)) {
+            logger.info("Vol chaud détecté, réservations sérialisées: {}", volId);
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        ReservationRequest request = ReservationMetrics.requete(callback);
+        if (request != null) {
+            enregistrerAppel(request.getVolId());
+        }
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        if (throwable instanceof ReservationConflictException || ReservationMetrics.isConflitDeVersion(throwable)) {
+            ReservationRequest request = ReservationMetrics.requete(callback);
+            if (request != null) {
+                enregistrerConflit(request.getVolId());
+            }
+        }
+    }
+
+    private Fenetre fenetre(UUID volId) {
+        return fenetres.get(volId, id -> new Fenetre(horloge.getAsLong()));
+    }
+
+    /**
+     * Compteurs d'un vol par tranche de temps ; une tranche est remise à zéro à sa réutilisation.
+     */
+    private final class Fenetre {
+
+        private final long[] numeros = new long[TRANCHES];
+        private final long[] appels = new long[TRANCHES];
+        private final long[] conflits = new long[TRANCHES];
+        private volatile long chaudJusqua;
+        private Instant depuis;
+
+        Fenetre(long creation) {
+            this.chaudJusqua = creation;
+        }
+
+        // Renvoie vrai si le vol vient de devenir chaud
+        synchronized boolean enregistrer(long maintenant, boolean conflit) {
+            long numero = Math.floorDiv(maintenant, trancheNanos);
+            int i = (int) Math.floorMod(numero, (long) TRANCHES);
+            if (numeros[i] != numero) {
+                numeros[i] = numero;
+                appels[i] = 0;
+                conflits[i] = 0;
+            }
+            if (!conflit) {
+                appels[i]++;
+                return false;
+            }
+            conflits[i]++;
+
+            long totalConflits = somme(conflits, numero);
+            long totalAppels = somme(appels, numero);
+            if (totalConflits < seuilConflits || totalConflits < ratioConflits * totalAppels) {
+                return false;
+            }
+            boolean devientChaud = !isChaud(maintenant);
+            if (devientChaud) {
+                depuis = Instant.now();
+            }
+            chaudJusqua = maintenant + maintienNanos;
+            return devientChaud;
+        }
+
+        boolean isChaud(long maintenant) {
+            return maintenant - chaudJusqua < 0;
+        }
+
+        synchronized VolChaud etat(UUID volId, long maintenant) {
+            if (!isChaud(maintenant)) {
+                return null;
+            }
+            long numero = Math.floorDiv(maintenant, trancheNanos);
+            return new VolChaud(volId, somme(conflits, numero), somme(appels, numero), depuis,
+                                Instant.now().plusNanos(chaudJusqua - maintenant));
+        }
+
+        // Somme des tranches encore dans la fenêtre
+        private long somme(long[] compteurs, long numeroCourant) {
+            long total = 0;
+            for (int i = 0; i < TRANCHES; i++) {
+                if (numeroCourant - numeros[i] < TRANCHES) {
+                    total += compteurs[i];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ErreurImport;
+import com.flight.reservation.dto.ImportJobResponse;
+import com.flight.reservation.dto.RapportImport;
+import com.flight.reservation.entity.ImportJob;
+import com.flight.reservation.entity.ImportJobErreur;
+import com.flight.reservation.enums.FormatImport;
+import com.flight.reservation.enums.StatutImport;
+import com.flight.reservation.exception.ImportJobNotFoundException;
+import com.flight.reservation.repository.ImportJobErreurRepository;
+import com.flight.reservation.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Imports de vols en arrière-plan : le fichier soumis est copié sur disque, un identifiant est
+ * rendu immédiatement et l'import tourne sur l'exécuteur dédié ({@code importExecutor}).
+ * <p>
+ * Chaque lot est validé dans sa propre transaction avec le point de reprise du job ; après un
+ * arrêt, les jobs inachevés reprennent au démarrage après la dernière ligne validée. Une pause
+ * entre les lots ({@code import.jobs.pause-ms}) laisse passer les réservations sur la base.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErreurRepository importJobErreurRepository;
+    private final VolImportService volImportService;
+    private final TaskExecutor importExecutor;
+    private final Path directory;
+    private final long pauseMs;
+
+    public ImportJobService(ImportJobRepository importJobRepository,
+                            ImportJobErreurRepository importJobErreurRepository,
+                            VolImportService volImportService,
+                            @Qualifier("importExecutor") TaskExecutor importExecutor,
+                            @Value("${import.jobs.directory:data/import-jobs}") String directory,
+                            @Value("${import.jobs.pause-ms:20}") long pauseMs) {
+        this.importJobRepository = importJobRepository;
+        this.importJobErreurRepository = importJobErreurRepository;
+        this.volImportService = volImportService;
+        this.importExecutor = importExecutor;
+        this.directory = Path.of(directory);
+        this.pauseMs = pauseMs;
+    }
+
+    public ImportJobResponse soumettre(InputStream entree, FormatImport format) {
+        Path fichier;
+        try {
+            Files.createDirectories(directory);
+            fichier = Files.createTempFile(directory, "import-", "." + format.name().toLowerCase());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.copy(entree, fichier, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            supprimer(fichier);
+            throw new UncheckedIOException(e);
+        }
+
+        ImportJob job = importJobRepository.save(new ImportJob(format, fichier.toString()));
+        logger.info("Import {} soumis ({}, {} octets)", job.getId(), format, taille(fichier));
+        planifier(job.getId());
+        return toResponse(job, List.of());
+    }
+
+    public ImportJobResponse getJob(UUID id) {
+        ImportJob job = importJobRepository.findById(id)
+                .orElseThrow(() -> new ImportJobNotFoundException(id));
+        List<ErreurImport> erreurs = importJobErreurRepository.findByJobIdOrderByLigne(id).stream()
+                .map(erreur -> new ErreurImport(erreur.getLigne(), erreur.getMessage()))
+                .toList();
+        return toResponse(job, erreurs);
+    }
+
+    // Jobs interrompus par un arrêt : repris après leur dernier lot validé
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendreJobs() {
+        List<ImportJob> jobs = importJobRepository.findByStatutInOrderByDateCreation(
+                EnumSet.of(StatutImport.EN_ATTENTE, StatutImport.EN_COURS));
+        for (ImportJob job : jobs) {
+            logger.info("Reprise de l'import {} après la ligne {}", job.getId(), job.getDerniereLigne());
+            planifier(job.getId());
+        }
+    }
+
+    private void planifier(UUID id) {
+        importExecutor.execute(() -> executer(id));
+    }
+
+    void executer(UUID id) {
+        ImportJob job = importJobRepository.findById(id).orElse(null);
+        if (job == null || job.getStatut() == StatutImport.TERMINE || job.getStatut() == StatutImport.ECHEC) {
+            return;
+        }
+        job.setStatut(StatutImport.EN_COURS);
+        if (job.getDateDebut() == null) {
+            job.setDateDebut(LocalDateTime.now());
+        }
+        job = importJobRepository.save(job);
+
+        Path fichier = Path.of(job.getFichier());
+        RapportImport acquis = new RapportImport(job.getLignesLues(), job.getVolsImportes(),
+                                                 job.getLignesRejetees(), List.of(), true);
+        RapportImport rapport;
+        try (InputStream entree = Files.newInputStream(fichier)) {
+            rapport = volImportService.importer(entree, job.getFormat(), job.getDerniereLigne(), acquis,
+                                                new Suivi(id));
+        } catch (ImportInterrompu e) {
+            // Arrêt de l'application : le job reste EN_COURS et reprendra au prochain démarrage
+            logger.info("Import {} suspendu après la ligne {}", id, e.getMessage());
+            return;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Échec de l'import {}", id, e);
+            terminer(id, StatutImport.ECHEC, e.getMessage());
+            supprimer(fichier);
+            return;
+        }
+
+        if (rapport.isComplet()) {
+            terminer(id, StatutImport.TERMINE, null);
+        } else {
+            terminer(id, StatutImport.ECHEC, "Lecture du fichier interrompue");
+        }
+        supprimer(fichier);
+    }
+
+    private void terminer(UUID id, StatutImport statut, String message) {
+        importJobRepository.findById(id).ifPresent(job -> {
+            job.setStatut(statut);
+            job.setDateFin(LocalDateTime.now());
+            if (message != null) {
+                job.setMessage(message.length() > 500 ? message.substring(0, 500) : message);
+            }
+            importJobRepository.save(job);
+            logger.info("Import {} {} - lignes: {}, importés: {}, rejetés: {}", id, statut,
+                       job.getLignesLues(), job.getVolsImportes(), job.getLignesRejetees());
+        });
+    }
+
+    private ImportJobResponse toResponse(ImportJob job, List<ErreurImport> erreurs) {
+        double lignesParSeconde = 0;
+        if (job.getDateDebut() != null) {
+            LocalDateTime fin = job.getDateFin() != null ? job.getDateFin() : LocalDateTime.now();
+            long millis = Duration.between(job.getDateDebut(), fin).toMillis();
+            lignesParSeconde = millis > 0 ? job.getLignesLues() * 1000.0 / millis : 0;
+        }
+        return new ImportJobResponse(job.getId(), job.getFormat(), job.getStatut(),
+                job.getLignesLues(), job.getVolsImportes(), job.getLignesRejetees(), lignesParSeconde,
+                job.getDateCreation(), job.getDateDebut(), job.getDateFin(), job.getMessage(), erreurs);
+    }
+
+    private static long taille(Path fichier) {
+        try {
+            return Files.size(fichier);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void supprimer(Path fichier) {
+        try {
+            Files.deleteIfExists(fichier);
+        } catch (IOException e) {
+            logger.warn("Impossible de supprimer {}", fichier, e);
+        }
+    }
+
+    /**
+     * Point de reprise et erreurs écrits dans la transaction de chaque lot.
+     */
+    private final class Suivi implements VolImportService.SuiviImport {
+
+        private final UUID jobId;
+        private long derniereLigne;
+
+        private Suivi(UUID jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public void enregistrer(long derniereLigne, RapportImport avancement) {
+            ImportJob job = importJobRepository.findById(jobId)
+                    .orElseThrow(() -> new ImportJobNotFoundException(jobId));
+            job.setDerniereLigne(derniereLigne);
+            job.setLignesLues(avancement.getLignesLues());
+            job.setVolsImportes(avancement.getVolsImportes());
+            job.setLignesRejetees(avancement.getLignesRejetees());
+            importJobErreurRepository.saveAll(avancement.getErreurs().stream()
+                    .map(erreur -> new ImportJobErreur(jobId, erreur.getLigne(), erreur.getMessage()))
+                    .toList());
+            this.derniereLigne = derniereLigne;
+        }
+
+        @Override
+        public void lotTermine() {
+            try {
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new ImportInterrompu(derniereLigne);
+            }
+        }
+    }
+
+    private static final class ImportInterrompu extends RuntimeException {
+
+        private ImportInterrompu(long derniereLigne) {
+            super(String.valueOf(derniereLigne), null, false, false);
+        }
+    }
+}
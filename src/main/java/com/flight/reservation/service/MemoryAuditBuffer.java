@@ -0,0 +1,73 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.AuditLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tampon borné en mémoire : rapide, mais perdu en cas d'arrêt brutal de la JVM.
+ */
+public class MemoryAuditBuffer implements AuditBuffer {
+
+    private final BlockingQueue<AuditLog> file;
+
+    // Lot rendu et pas encore acquitté, accédé par le seul écrivain
+    private List<AuditLog> enCours = List.of();
+
+    public MemoryAuditBuffer(int capacite) {
+        this.file = new ArrayBlockingQueue<>(capacite);
+    }
+
+    @Override
+    public boolean offer(AuditLog auditLog, long timeoutMs) throws InterruptedException {
+        return timeoutMs <= 0
+                ? file.offer(auditLog)
+                : file.offer(auditLog, timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<AuditLog> nextBatch(int max, long waitMs) throws InterruptedException {
+        if (!enCours.isEmpty()) {
+            return enCours;
+        }
+
+        AuditLog premier = file.poll(waitMs, TimeUnit.MILLISECONDS);
+        if (premier == null) {
+            return List.of();
+        }
+        List<AuditLog> lot = new ArrayList<>(max);
+        lot.add(premier);
+
+        // Complète le lot jusqu'à sa taille maximale ou la fin du délai
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+        while (lot.size() < max) {
+            file.drainTo(lot, max - lot.size());
+            long restant = limite - System.nanoTime();
+            if (lot.size() >= max || restant <= 0) {
+                break;
+            }
+            AuditLog suivant = file.poll(restant, TimeUnit.NANOSECONDS);
+            if (suivant == null) {
+                break;
+            }
+            lot.add(suivant);
+        }
+
+        enCours = lot;
+        return lot;
+    }
+
+    @Override
+    public void acknowledge() {
+        enCours = List.of();
+    }
+
+    @Override
+    public int size() {
+        return file.size() + enCours.size();
+    }
+}
@@ -0,0 +1,54 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Optional;
+
+/**
+ * Réservation non bloquante pour l'appelant : l'admission est d'abord vérifiée en mémoire, puis
+ * {@link ReservationService#creerReservation} (mêmes règles, retries et audit) s'exécute sur le
+ * scheduler JDBC borné, sans occuper le thread de la requête.
+ */
+@Service
+public class ReactiveReservationService {
+
+    private final ReservationService reservationService;
+    private final VolSearchCache volSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveReservationService(ReservationService reservationService,
+                                      VolSearchCache volSearchCache,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Qualifier("jdbcScheduler") Scheduler jdbcScheduler) {
+        this.reservationService = reservationService;
+        this.volSearchCache = volSearchCache;
+        this.eventPublisher = eventPublisher;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    public Mono<ReservationResponse> creerReservation(ReservationRequest request) {
+        return Mono.defer(() -> {
+            // Refus immédiat si les places connues en mémoire sont déjà insuffisantes
+            Optional<Integer> placesConnues = volSearchCache.getPlacesEnMemoire(request.getVolId());
+            if (placesConnues.isPresent() && placesConnues.get() < request.getNombrePlaces()) {
+                int placesDisponibles = placesConnues.get();
+                eventPublisher.publishEvent(new ReservationEvent(
+                        this, request.getVolId(), request.getPassager().getEmail(), request.getNombrePlaces(),
+                        placesDisponibles, StatutReservation.FAILED, "Places insuffisantes", null));
+                return Mono.error(new PlacesInsuffisantesException(placesDisponibles, request.getNombrePlaces()));
+            }
+            return Mono.fromCallable(() -> reservationService.creerReservation(request))
+                    .subscribeOn(jdbcScheduler);
+        });
+    }
+}
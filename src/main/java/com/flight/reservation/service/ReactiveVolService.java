@@ -0,0 +1,56 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.PageVols;
+import com.flight.reservation.dto.VolResume;
+import com.flight.reservation.enums.CorrespondanceVille;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Recherche et disponibilité exposées en Flux / Mono au-dessus de {@link VolService}.
+ * La recherche est lue par pages à curseur ({@link VolService#findPage}), une page demandée à la
+ * fois sur le scheduler JDBC au rythme du client : la transaction et la connexion ne durent que
+ * le temps d'une page, jamais pendant l'attente du client.
+ */
+@Service
+public class ReactiveVolService {
+
+    private final VolService volService;
+    private final VolSearchCache volSearchCache;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveVolService(VolService volService,
+                              VolSearchCache volSearchCache,
+                              @Qualifier("jdbcScheduler") Scheduler jdbcScheduler) {
+        this.volService = volService;
+        this.volSearchCache = volSearchCache;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    public Flux<VolResume> streamAll(LocalDateTime dateDepart, LocalDateTime dateArrivee,
+                                     String villeDepart, String villeArrivee, String tri,
+                                     CorrespondanceVille correspondance) {
+        Function<String, Mono<PageVols>> page = curseur -> Mono.fromCallable(() -> volService.findPage(
+                        dateDepart, dateArrivee, villeDepart, villeArrivee, tri, correspondance, curseur, null))
+                .subscribeOn(jdbcScheduler);
+        // Page suivante lue quand le client a consommé la précédente (taille search.page.default-size)
+        return page.apply(null)
+                .expand(precedente -> precedente.getCurseurSuivant() != null
+                        ? page.apply(precedente.getCurseurSuivant()) : Mono.empty())
+                .concatMapIterable(PageVols::getVols, 1);
+    }
+
+    public Mono<Integer> getPlacesDisponibles(UUID volId) {
+        // Valeur en mémoire servie sans changer de thread, la base seulement en cas d'absence
+        return Mono.justOrEmpty(volSearchCache.getPlacesEnMemoire(volId))
+                .switchIfEmpty(Mono.fromCallable(() -> volService.getPlacesDisponibles(volId))
+                                   .subscribeOn(jdbcScheduler));
+    }
+}
@@ -0,0 +1,307 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.entity.Reservation;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regroupement des réservations concurrentes d'un même vol (group commit).
+ * <p>
+ * Les demandes arrivant sur un vol pendant une courte fenêtre, ou jusqu'à la taille
+ * maximale d'un lot, sont traitées ensemble : admission dans l'ordre d'arrivée, un seul
+ * incrément gardé de {@code places_reservees}, insertion de toutes les réservations
+ * et un seul commit. Chaque appelant reçoit ensuite sa propre réponse ou exception.
+ * <p>
+ * La file d'un vol est retirée dès qu'un passage la laisse vide : seuls les vols ayant des
+ * demandes en attente occupent la table. Une demande encore en file au-delà de
+ * {@code reservation.group-commit.timeout-ms} en est retirée et reçoit une
+ * {@link RejectedExecutionException} (503 SERVICE_BUSY) : elle ne sera jamais traitée et peut
+ * être renvoyée. Une demande déjà prise dans un lot attend sa décision, bornée par la
+ * transaction du lot : un 503 inviterait à renvoyer une réservation que le lot peut commiter.
+ */
+@Service
+public class ReservationBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationBatcher.class);
+
+    private final VolRepository volRepository;
+    private final ReservationRepository reservationRepository;
+    private final VolService volService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final long timeoutMs;
+    private final ScheduledExecutorService scheduler;
+
+    private final ConcurrentMap<UUID, FileVol> files = new ConcurrentHashMap<>();
+
+    public ReservationBatcher(VolRepository volRepository,
+                              ReservationRepository reservationRepository,
+                              VolService volService,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${reservation.group-commit.window-ms:5}") long windowMs,
+                              @Value("${reservation.group-commit.max-batch-size:64}") int maxBatchSize,
+                              @Value("${reservation.group-commit.writer-threads:1}") int writerThreads,
+                              @Value("${reservation.group-commit.timeout-ms:10000}") long timeoutMs) {
+        this.volRepository = volRepository;
+        this.reservationRepository = reservationRepository;
+        this.volService = volService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMs = timeoutMs;
+        this.scheduler = Executors.newScheduledThreadPool(writerThreads,
+                new CustomizableThreadFactory("group-commit-"));
+    }
+
+    /**
+     * Place la demande dans le lot de son vol et attend la décision.
+     * Doit être appelée hors transaction : l'appelant ne garde aucune connexion pendant l'attente.
+     *
+     * @throws RejectedExecutionException si la demande n'a pas quitté la file dans le délai
+     */
+    public ReservationResponse submit(ReservationRequest request) {
+        UUID volId = request.getVolId();
+        Demande demande = new Demande(request);
+        // Ajout atomique avec le retrait d'une file vide : une demande n'entre jamais dans une file retirée
+        FileVol file = files.compute(volId, (id, existante) -> {
+            FileVol f = existante != null ? existante : new FileVol();
+            f.demandes.add(demande);
+            f.taille.incrementAndGet();
+            return f;
+        });
+
+        if (file.taille.get() >= maxBatchSize) {
+            // Lot complet : inutile d'attendre la fin de la fenêtre
+            scheduler.execute(() -> drain(volId, file));
+        } else if (file.planifie.compareAndSet(false, true)) {
+            scheduler.schedule(() -> drain(volId, file), windowMs, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            return demande.resultat.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw decision(e.getCause());
+        } catch (TimeoutException e) {
+            return abandonnerOuAttendre(file, demande);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return abandonnerOuAttendre(file, demande);
+        }
+    }
+
+    int getFilesActives() {
+        return files.size();
+    }
+
+    // Encore en file : retirée, elle ne sera jamais traitée. Déjà dans un lot : la décision est
+    // attendue sans délai ni interruption, le lot pouvant commiter la réservation.
+    private ReservationResponse abandonnerOuAttendre(FileVol file, Demande demande) {
+        if (file.demandes.remove(demande)) {
+            file.taille.decrementAndGet();
+            throw new RejectedExecutionException("Lot du vol " + demande.request.getVolId()
+                    + " non traité dans le délai, demande retirée");
+        }
+        logger.warn("Décision non rendue dans le délai pour le vol {}, attente de la fin du lot en cours",
+                   demande.request.getVolId());
+        try {
+            return demande.resultat.join();
+        } catch (CompletionException e) {
+            throw decision(e.getCause());
+        }
+    }
+
+    private static RuntimeException decision(Throwable cause) {
+        return cause instanceof RuntimeException exception ? exception : new CompletionException(cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        files.forEach(this::drain);
+        scheduler.shutdown();
+    }
+
+    private void drain(UUID volId, FileVol file) {
+        // Un seul lot à la fois par vol, dans l'ordre d'arrivée
+        synchronized (file) {
+            file.planifie.set(false);
+            List<Demande> lot = poll(file);
+            while (!lot.isEmpty()) {
+                traiterLot(volId, lot);
+                lot = poll(file);
+            }
+        }
+        // Aucune demande arrivée depuis le dernier lot : la file du vol est retirée
+        files.computeIfPresent(volId, (id, f) -> f == file && f.taille.get() == 0 ? null : f);
+    }
+
+    private List<Demande> poll(FileVol file) {
+        List<Demande> lot = new ArrayList<>(Math.min(file.taille.get(), maxBatchSize));
+        Demande demande;
+        while (lot.size() < maxBatchSize && (demande = file.demandes.poll()) != null) {
+            file.taille.decrementAndGet();
+            lot.add(demande);
+        }
+        return lot;
+    }
+
+    private void traiterLot(UUID volId, List<Demande> lot) {
+        List<Demande> admises = new ArrayList<>();
+        List<Demande> refusees = new ArrayList<>();
+        long generation = volService.generationPlaces(volId);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                admises.clear();
+                refusees.clear();
+
+                int restantes = volRepository.findPlacesDisponiblesByVolId(volId)
+                        .orElseThrow(() -> new VolNotFoundException(volId));
+                int total = 0;
+
+                for (Demande demande : lot) {
+                    int nombrePlaces = demande.request.getNombrePlaces();
+                    demande.placesDisponiblesAvant = restantes;
+                    if (nombrePlaces <= restantes) {
+                        restantes -= nombrePlaces;
+                        total += nombrePlaces;
+                        admises.add(demande);
+                    } else {
+                        refusees.add(demande);
+                    }
+                }
+
+                if (total == 0) {
+                    return;
+                }
+
+                // Un seul incrément pour tout le lot, gardé contre toute écriture concurrente
+                if (volRepository.reservePlacesIfAvailable(volId, total) == 0) {
+                    throw new ReservationConflictException("Places du vol modifiées pendant le traitement du lot");
+                }
+
+                Vol vol = volRepository.getReferenceById(volId);
+                List<Reservation> reservations = admises.stream()
+                        .map(demande -> new Reservation(vol, demande.request.getPassager(),
+                                                        demande.request.getNombrePlaces()))
+                        .toList();
+                reservations = reservationRepository.saveAll(reservations);
+                for (int i = 0; i < admises.size(); i++) {
+                    admises.get(i).reservation = reservations.get(i);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Échec du lot de {} réservations pour le vol: {}", lot.size(), volId, e);
+            for (Demande demande : lot) {
+                publishAuditEvent(demande, null, StatutReservation.FAILED, e.getMessage(), null);
+                demande.resultat.completeExceptionally(echecPour(volId, e));
+            }
+            return;
+        }
+
+        if (!admises.isEmpty()) {
+            // Transaction déjà commitée : places restantes après la dernière demande admise
+            Demande derniere = admises.get(admises.size() - 1);
+            volService.updatePlacesCache(volId, derniere.placesDisponiblesAvant - derniere.request.getNombrePlaces(),
+                                         generation);
+        }
+
+        logger.debug("Lot traité pour le vol {}: {} admises, {} refusées", volId, admises.size(), refusees.size());
+
+        for (Demande demande : admises) {
+            Reservation reservation = demande.reservation;
+            publishAuditEvent(demande, demande.placesDisponiblesAvant, StatutReservation.SUCCESS,
+                              null, reservation.getId());
+            demande.resultat.complete(new ReservationResponse(
+                    reservation.getId(),
+                    volId,
+                    demande.request.getPassager(),
+                    demande.request.getNombrePlaces(),
+                    reservation.getCreatedAt()
+            ));
+        }
+        for (Demande demande : refusees) {
+            publishAuditEvent(demande, demande.placesDisponiblesAvant, StatutReservation.FAILED,
+                              "Places insuffisantes", null);
+            demande.resultat.completeExceptionally(new PlacesInsuffisantesException(
+                    demande.placesDisponiblesAvant, demande.request.getNombrePlaces()));
+        }
+    }
+
+    // Une exception par appelant : une instance partagée, levée dans plusieurs threads, mélangerait
+    // leurs traces et exceptions supprimées
+    private static RuntimeException echecPour(UUID volId, RuntimeException e) {
+        if (e instanceof VolNotFoundException) {
+            return new VolNotFoundException(volId);
+        }
+        if (e instanceof DataAccessResourceFailureException) {
+            return new DataAccessResourceFailureException(e.getMessage(), e);
+        }
+        return new ReservationConflictException("Lot de réservations annulé pour le vol " + volId
+                + " : " + e.getMessage(), e);
+    }
+
+    private void publishAuditEvent(Demande demande, Integer placesDisponiblesAvant,
+                                   StatutReservation statut, String messageErreur, UUID reservationId) {
+        ReservationRequest request = demande.request;
+        eventPublisher.publishEvent(new ReservationEvent(
+                this, request.getVolId(), request.getPassager().getEmail(), request.getNombrePlaces(),
+                placesDisponiblesAvant, statut, messageErreur, reservationId
+        ));
+    }
+
+    private static final class FileVol {
+        private final ConcurrentLinkedQueue<Demande> demandes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger taille = new AtomicInteger();
+        private final AtomicBoolean planifie = new AtomicBoolean();
+    }
+
+    private static final class Demande {
+        private final ReservationRequest request;
+        private final CompletableFuture<ReservationResponse> resultat = new CompletableFuture<>();
+        private Integer placesDisponiblesAvant;
+        private Reservation reservation;
+
+        private Demande(ReservationRequest request) {
+            this.request = request;
+        }
+    }
+}
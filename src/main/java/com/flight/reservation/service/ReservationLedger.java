@@ -0,0 +1,269 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.EcritureLedger;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.repository.EcritureLedgerRepository;
+import com.flight.reservation.repository.VolRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Registre des réservations (mode LEDGER) : une écriture immuable par réservation ou annulation,
+ * source de vérité des places de chaque vol.
+ * <p>
+ * Une réservation n'ajoute que des lignes (réservation et écriture du registre) ; aucune ligne
+ * n'est réécrite, il n'y a donc ni conflit de version ni nouvelle tentative. L'admission se fait
+ * en mémoire, par compare-and-set sur les places restantes du vol, reconstituées au premier accès
+ * depuis le dernier instantané ({@code vols.places_reservees} et {@code vols.ledger_sequence})
+ * augmenté des écritures qui le suivent. Un instantané périodique reporte les nouvelles écritures
+ * sur {@code places_reservees}, que lisent la recherche et les autres modes.
+ * <p>
+ * Un instantané ne doit pas dépasser une écriture non commitée d'id plus petit : les transactions
+ * qui écrivent dans le registre tiennent un verrou partagé jusqu'à leur fin, l'instantané prend
+ * le verrou exclusif le temps de relever la dernière séquence. Les ids sont attribués ici, à
+ * partir du plus grand id en base, et jamais réattribués : une écriture annulée laisse un trou
+ * plutôt qu'un id qu'une écriture suivante reprendrait sous la coupure. Chaque vol retient l'id
+ * de sa propre dernière écriture reportée, pas la coupure globale, qui peut être celle d'une
+ * écriture annulée d'un autre vol. Comme l'inventaire mémoire, ce mode suppose une seule
+ * instance de l'application par base de données.
+ */
+@Service
+public class ReservationLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationLedger.class);
+
+    private final EcritureLedgerRepository ecritureLedgerRepository;
+    private final VolRepository volRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Places restantes par vol, reconstituées au premier accès
+    private final ConcurrentMap<UUID, AtomicInteger> placesDisponibles = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock coupure = new ReentrantReadWriteLock();
+
+    // Dernier id attribué ; complété au premier usage par le plus grand id en base
+    private final AtomicLong derniereSequence = new AtomicLong();
+    private volatile boolean sequenceChargee;
+
+    // Toutes les écritures d'id inférieur ou égal sont reportées dans places_reservees
+    private volatile long sequenceInstantane;
+
+    public ReservationLedger(EcritureLedgerRepository ecritureLedgerRepository,
+                             VolRepository volRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.ecritureLedgerRepository = ecritureLedgerRepository;
+        this.volRepository = volRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Retire atomiquement des places du vol ; zéro place renvoie l'état courant.
+     *
+     * @return le nombre de places disponibles avant la réservation
+     * @throws VolNotFoundException si le vol n'existe pas
+     * @throws PlacesInsuffisantesException s'il ne reste pas assez de places
+     */
+    public int reserver(UUID volId, int nombrePlaces) {
+        AtomicInteger compteur = getCompteur(volId);
+        while (true) {
+            int avant = compteur.get();
+            if (avant < nombrePlaces) {
+                throw new PlacesInsuffisantesException(avant, nombrePlaces);
+            }
+            if (compteur.compareAndSet(avant, avant - nombrePlaces)) {
+                return avant;
+            }
+        }
+    }
+
+    /**
+     * Rend des places au vol (annulation, ou transaction en échec).
+     */
+    public void rendre(UUID volId, int nombrePlaces) {
+        AtomicInteger compteur = placesDisponibles.get(volId);
+        if (compteur != null) {
+            compteur.addAndGet(nombrePlaces);
+        }
+    }
+
+    /**
+     * Rend à l'échec de la transaction courante des places retirées par {@link #reserver}.
+     */
+    public void rendreSiEchec(UUID volId, int nombrePlaces) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    rendre(volId, nombrePlaces);
+                }
+            }
+        });
+    }
+
+    /**
+     * Rend au commit de la transaction courante les places d'une annulation. L'état du vol est
+     * reconstitué dès maintenant, avant l'écriture de l'annulation : reconstitué entre le commit
+     * et le retour des places, il compterait l'annulation deux fois.
+     */
+    public void rendreAuCommit(UUID volId, int nombrePlaces) {
+        getCompteur(volId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rendre(volId, nombrePlaces);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rendre(volId, nombrePlaces);
+            }
+        });
+    }
+
+    /**
+     * Ajoute des écritures au registre dans la transaction courante.
+     */
+    public List<EcritureLedger> ajouter(List<EcritureLedger> ecritures) {
+        chargerSequence();
+        coupure.readLock().lock();
+        List<EcritureLedger> ajoutees;
+        try {
+            // Id attribué sous le verrou partagé : la coupure ne peut pas le dépasser avant la fin de la transaction
+            ecritures.forEach(ecriture -> ecriture.attribuerId(derniereSequence.incrementAndGet()));
+            ajoutees = ecritureLedgerRepository.saveAll(ecritures);
+        } catch (RuntimeException e) {
+            coupure.readLock().unlock();
+            throw e;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            coupure.readLock().unlock();
+            return ajoutees;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                coupure.readLock().unlock();
+            }
+        });
+        return ajoutees;
+    }
+
+    /**
+     * Places restantes connues en mémoire, vide si le vol n'a pas encore été reconstitué.
+     */
+    public Optional<Integer> getPlacesDisponibles(UUID volId) {
+        AtomicInteger compteur = placesDisponibles.get(volId);
+        return compteur != null ? Optional.of(compteur.get()) : Optional.empty();
+    }
+
+    /**
+     * Reporte sur {@code places_reservees} les écritures commitées depuis le dernier instantané,
+     * une transaction par vol.
+     */
+    @Scheduled(fixedDelayString = "${reservation.ledger.snapshot-interval-ms:1000}")
+    public void instantane() {
+        long depuis = sequenceInstantane;
+        long jusqua = coupure();
+        if (jusqua <= depuis) {
+            return;
+        }
+
+        boolean complet = true;
+        for (UUID volId : ecritureLedgerRepository.findVolsEntre(depuis, jusqua)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> reporter(volId, jusqua));
+            } catch (RuntimeException e) {
+                // Les écritures restent dans le registre, le vol est repris au prochain passage
+                complet = false;
+                logger.error("Échec de l'instantané du vol: {}", volId, e);
+            }
+        }
+        if (complet) {
+            sequenceInstantane = jusqua;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        instantane();
+    }
+
+    // Dernière séquence telle qu'aucune écriture d'id inférieur n'est encore en cours
+    private long coupure() {
+        chargerSequence();
+        coupure.writeLock().lock();
+        try {
+            return derniereSequence.get();
+        } finally {
+            coupure.writeLock().unlock();
+        }
+    }
+
+    // Hors verrou : une requête sous verrou exclusif attendrait une connexion tenue par un écrivain bloqué
+    private void chargerSequence() {
+        if (!sequenceChargee) {
+            derniereSequence.accumulateAndGet(ecritureLedgerRepository.findDerniereSequence(), Math::max);
+            sequenceChargee = true;
+        }
+    }
+
+    private void reporter(UUID volId, long jusqua) {
+        Long depuis = volRepository.findSequenceLedger(volId).orElse(null);
+        if (depuis == null || depuis >= jusqua) {
+            return;
+        }
+        Object[] report = ecritureLedgerRepository.findReportEntre(volId, depuis, jusqua).get(0);
+        if (report[1] == null) {
+            return;
+        }
+        long places = ((Number) report[0]).longValue();
+        long derniere = ((Number) report[1]).longValue();
+        if (volRepository.appliquerLedger(volId, (int) places, depuis, derniere) == 0) {
+            throw new IllegalStateException("Instantané du vol modifié pendant le report: " + volId);
+        }
+        logger.debug("Vol {}: {} places reportées jusqu'à l'écriture {}", volId, places, derniere);
+    }
+
+    private AtomicInteger getCompteur(UUID volId) {
+        AtomicInteger compteur = placesDisponibles.get(volId);
+        if (compteur != null) {
+            return compteur;
+        }
+        return placesDisponibles.computeIfAbsent(volId, this::rejouer);
+    }
+
+    // Dernier instantané du vol, puis écritures qui le suivent
+    private AtomicInteger rejouer(UUID volId) {
+        List<Object[]> instantane = volRepository.findInstantaneLedger(volId);
+        if (instantane.isEmpty()) {
+            throw new VolNotFoundException(volId);
+        }
+        int disponibles = ((Number) instantane.get(0)[0]).intValue();
+        long sequence = ((Number) instantane.get(0)[1]).longValue();
+        long rejouees = ecritureLedgerRepository.sumPlacesEntre(volId, sequence, Long.MAX_VALUE);
+        if (rejouees != 0) {
+            logger.debug("Vol {}: {} places rejouées depuis l'écriture {}", volId, rejouees, sequence);
+        }
+        return new AtomicInteger(disponibles - (int) rejouees);
+    }
+}
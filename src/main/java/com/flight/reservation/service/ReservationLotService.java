@@ -0,0 +1,294 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ReservationLotRequest;
+import com.flight.reservation.dto.ReservationLotResponse;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.dto.ResultatReservation;
+import com.flight.reservation.entity.EcritureLedger;
+import com.flight.reservation.entity.Reservation;
+import com.flight.reservation.enums.AtomiciteLot;
+import com.flight.reservation.enums.ModeReservation;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.event.ReservationLotEvent;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Réservations groupées (agences, groupes) en une seule transaction.
+ * <p>
+ * Les demandes sont regroupées par vol ; chaque vol est décompté une seule fois (incrément
+ * gardé de {@code places_reservees}, inventaire mémoire en mode IN_MEMORY_INVENTORY, places rejouées
+ * du registre en mode LEDGER), toutes
+ * les réservations sont insérées par lots JDBC et l'audit est publié en un seul événement.
+ * En ALL_OR_NOTHING, la moindre demande refusée annule tout le lot ; en BEST_EFFORT, chaque
+ * demande est admise si les places restantes du vol le permettent, dans l'ordre de la requête.
+ */
+@Service
+public class ReservationLotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationLotService.class);
+
+    // Nouvelles lectures des places d'un vol modifié pendant l'admission
+    private static final int MAX_TENTATIVES = 3;
+
+    private final ReservationRepository reservationRepository;
+    private final VolRepository volRepository;
+    private final VolService volService;
+    private final SeatInventoryService seatInventoryService;
+    private final ReservationLedger reservationLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ModeReservation mode;
+
+    public ReservationLotService(ReservationRepository reservationRepository,
+                                 VolRepository volRepository,
+                                 VolService volService,
+                                 SeatInventoryService seatInventoryService,
+                                 ReservationLedger reservationLedger,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${reservation.mode:OPTIMISTIC_LOCK}") ModeReservation mode) {
+        this.reservationRepository = reservationRepository;
+        this.volRepository = volRepository;
+        this.volService = volService;
+        this.seatInventoryService = seatInventoryService;
+        this.reservationLedger = reservationLedger;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode != null ? mode : ModeReservation.OPTIMISTIC_LOCK;
+    }
+
+    public ReservationLotResponse creerReservations(ReservationLotRequest request) {
+        AtomiciteLot atomicite = request.getAtomicite() != null ? request.getAtomicite() : AtomiciteLot.BEST_EFFORT;
+        List<ReservationRequest> requests = request.getReservations();
+        List<Demande> demandes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            demandes.add(new Demande(i, requests.get(i)));
+        }
+
+        // Vols parcourus dans l'ordre de leur identifiant : deux lots concurrents verrouillent dans le même ordre
+        Map<UUID, List<Demande>> parVol = new TreeMap<>();
+        for (Demande demande : demandes) {
+            parVol.computeIfAbsent(demande.request.getVolId(), id -> new ArrayList<>()).add(demande);
+        }
+
+        logger.info("Réservation groupée - {} demandes sur {} vols ({})", demandes.size(), parVol.size(), atomicite);
+
+        Map<UUID, Integer> placesApres = new TreeMap<>();
+        Map<UUID, Long> generations = new TreeMap<>();
+        parVol.keySet().forEach(volId -> generations.put(volId, volService.generationPlaces(volId)));
+        boolean valide;
+        try {
+            valide = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                for (Map.Entry<UUID, List<Demande>> entry : parVol.entrySet()) {
+                    admettre(entry.getKey(), entry.getValue(), atomicite).ifPresent(
+                            places -> placesApres.put(entry.getKey(), places));
+                }
+
+                if (atomicite == AtomiciteLot.ALL_OR_NOTHING && demandes.stream().anyMatch(d -> d.code != null)) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                enregistrer(demandes);
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            logger.error("Échec de la réservation groupée", e);
+            for (Demande demande : demandes) {
+                demande.echec("INTERNAL_ERROR", e.getMessage());
+            }
+            valide = false;
+        }
+
+        if (valide) {
+            placesApres.forEach((volId, places) -> volService.updatePlacesCache(volId, places, generations.get(volId)));
+        } else {
+            // Lot annulé : les demandes admises n'ont pas été enregistrées
+            for (Demande demande : demandes) {
+                if (demande.code == null) {
+                    demande.echec("BATCH_ABORTED", "Lot annulé : une autre demande a été refusée");
+                }
+            }
+        }
+
+        publishAuditEvents(demandes);
+
+        List<ResultatReservation> resultats = demandes.stream().map(Demande::resultat).toList();
+        int reussies = (int) resultats.stream().filter(r -> r.getStatut() == StatutReservation.SUCCESS).count();
+        logger.info("Réservation groupée terminée - {} réussies, {} échouées", reussies, resultats.size() - reussies);
+        return new ReservationLotResponse(atomicite, reussies, resultats.size() - reussies, resultats);
+    }
+
+    /**
+     * Admet les demandes d'un vol et décompte leurs places en une fois.
+     *
+     * @return les places restantes du vol après admission, vide si rien n'a été décompté
+     */
+    private Optional<Integer> admettre(UUID volId, List<Demande> demandes, AtomiciteLot atomicite) {
+        for (int tentative = 1; tentative <= MAX_TENTATIVES; tentative++) {
+            Optional<Integer> disponibles = lirePlaces(volId);
+            if (disponibles.isEmpty()) {
+                String message = new VolNotFoundException(volId).getMessage();
+                demandes.forEach(demande -> demande.echec("VOL_NOT_FOUND", message));
+                return Optional.empty();
+            }
+
+            int restantes = disponibles.get();
+            int total = 0;
+            for (Demande demande : demandes) {
+                int nombrePlaces = demande.request.getNombrePlaces();
+                demande.reinitialiser();
+                demande.placesDisponiblesAvant = restantes;
+                if (nombrePlaces <= restantes) {
+                    restantes -= nombrePlaces;
+                    total += nombrePlaces;
+                } else {
+                    demande.echec("INSUFFICIENT_SEATS",
+                            new PlacesInsuffisantesException(restantes, nombrePlaces).getMessage());
+                }
+            }
+
+            // Rien à décompter, ou lot de toute façon annulé
+            if (total == 0 || (atomicite == AtomiciteLot.ALL_OR_NOTHING
+                               && demandes.stream().anyMatch(demande -> demande.code != null))) {
+                return Optional.empty();
+            }
+            if (decompter(volId, total)) {
+                return Optional.of(restantes);
+            }
+            logger.debug("Places du vol {} modifiées pendant l'admission (tentative {})", volId, tentative);
+        }
+
+        demandes.forEach(demande -> demande.echec("RESERVATION_CONFLICT",
+                "Conflit détecté, veuillez réessayer"));
+        return Optional.empty();
+    }
+
+    private Optional<Integer> lirePlaces(UUID volId) {
+        if (mode == ModeReservation.IN_MEMORY_INVENTORY) {
+            try {
+                // Réserver zéro place renvoie l'état courant de l'inventaire, chargé au besoin
+                return Optional.of(seatInventoryService.reserve(volId, 0));
+            } catch (VolNotFoundException e) {
+                return Optional.empty();
+            }
+        }
+        if (mode == ModeReservation.LEDGER) {
+            try {
+                return Optional.of(reservationLedger.reserver(volId, 0));
+            } catch (VolNotFoundException e) {
+                return Optional.empty();
+            }
+        }
+        return volRepository.findPlacesDisponiblesByVolId(volId);
+    }
+
+    private boolean decompter(UUID volId, int total) {
+        if (mode == ModeReservation.IN_MEMORY_INVENTORY) {
+            try {
+                seatInventoryService.reserve(volId, total);
+            } catch (PlacesInsuffisantesException e) {
+                return false;
+            }
+            // Places rendues à l'inventaire si le lot est annulé
+            seatInventoryService.bindToTransaction(volId, total);
+            return true;
+        }
+        if (mode == ModeReservation.LEDGER) {
+            try {
+                reservationLedger.reserver(volId, total);
+            } catch (PlacesInsuffisantesException e) {
+                return false;
+            }
+            reservationLedger.rendreSiEchec(volId, total);
+            return true;
+        }
+        return volRepository.reservePlacesIfAvailable(volId, total) == 1;
+    }
+
+    private void enregistrer(List<Demande> demandes) {
+        List<Demande> admises = demandes.stream().filter(demande -> demande.code == null).toList();
+        List<Reservation> reservations = reservationRepository.saveAll(admises.stream()
+                .map(demande -> new Reservation(volRepository.getReferenceById(demande.request.getVolId()),
+                                                demande.request.getPassager(),
+                                                demande.request.getNombrePlaces()))
+                .toList());
+        for (int i = 0; i < admises.size(); i++) {
+            admises.get(i).reservation = reservations.get(i);
+        }
+        if (mode == ModeReservation.LEDGER) {
+            reservationLedger.ajouter(reservations.stream()
+                    .map(reservation -> EcritureLedger.reservation(reservation.getVol().getId(), reservation.getId(),
+                                                                   reservation.getNombrePlaces()))
+                    .toList());
+        }
+    }
+
+    private void publishAuditEvents(List<Demande> demandes) {
+        // En mode LEDGER, les succès sont tracés par le registre
+        List<ReservationEvent> events = demandes.stream()
+                .filter(demande -> mode != ModeReservation.LEDGER || demande.code != null)
+                .map(demande -> new ReservationEvent(
+                        this, demande.request.getVolId(), demande.request.getPassager().getEmail(),
+                        demande.request.getNombrePlaces(), demande.placesDisponiblesAvant,
+                        demande.code == null ? StatutReservation.SUCCESS : StatutReservation.FAILED,
+                        demande.message, demande.reservation != null ? demande.reservation.getId() : null))
+                .toList();
+        eventPublisher.publishEvent(new ReservationLotEvent(this, events));
+    }
+
+    private static final class Demande {
+        private final int index;
+        private final ReservationRequest request;
+        private Integer placesDisponiblesAvant;
+        private String code;
+        private String message;
+        private Reservation reservation;
+
+        private Demande(int index, ReservationRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+
+        private void reinitialiser() {
+            placesDisponiblesAvant = null;
+            code = null;
+            message = null;
+            reservation = null;
+        }
+
+        private void echec(String code, String message) {
+            this.code = code;
+            this.message = message;
+            this.reservation = null;
+        }
+
+        private ResultatReservation resultat() {
+            if (code != null) {
+                return new ResultatReservation(index, request.getVolId(), StatutReservation.FAILED,
+                                               code, message, null);
+            }
+            return new ResultatReservation(index, request.getVolId(), StatutReservation.SUCCESS, null, null,
+                    new ReservationResponse(reservation.getId(), request.getVolId(), request.getPassager(),
+                                            request.getNombrePlaces(), reservation.getCreatedAt()));
+        }
+    }
+}
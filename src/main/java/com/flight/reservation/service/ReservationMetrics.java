@@ -0,0 +1,128 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.enums.ModeReservation;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.exception.VolNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesures de {@code ReservationService.creerReservation}, branchées sur son {@code @Retryable}.
+ * <p>
+ * {@code open} / {@code close} encadrent l'appel complet, tentatives rejouées comprises :
+ * la durée est celle vue par le client, étiquetée par issue. {@code onError} voit chaque
+ * tentative en échec, y compris les conflits de version repérés seulement au commit.
+ */
+@Component("reservationRetryListener")
+public class ReservationMetrics implements RetryListener {
+
+    static final String VOL_TAG = "vol";
+
+    private static final String DEBUT = "reservation.debut";
+
+    private final MeterRegistry meterRegistry;
+    private final String mode;
+    private final Counter retries;
+
+    public ReservationMetrics(MeterRegistry meterRegistry,
+                              @Value("${reservation.mode:OPTIMISTIC_LOCK}") ModeReservation mode) {
+        this.meterRegistry = meterRegistry;
+        this.mode = String.valueOf(mode != null ? mode : ModeReservation.OPTIMISTIC_LOCK);
+        this.retries = Counter.builder("reservation.retries")
+                .description("Tentatives rejouées par @Retryable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        context.setAttribute(DEBUT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        meterRegistry.counter("reservation.attempts.failed",
+                              "exception", throwable.getClass().getSimpleName()).increment();
+        if (isConflitDeVersion(throwable)) {
+            // Cardinalité de l'étiquette vol bornée par le MeterFilter de MetricsConfig
+            meterRegistry.counter("reservation.optimistic.failures", VOL_TAG, volId(callback)).increment();
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        int echecs = context.getRetryCount();
+        retries.increment(throwable != null ? Math.max(0, echecs - 1) : echecs);
+
+        Long debut = (Long) context.getAttribute(DEBUT);
+        if (debut != null) {
+            Timer.builder("reservation.duration")
+                    .description("Durée de creerReservation, tentatives comprises")
+                    .tag("mode", mode)
+                    .tag("outcome", issue(throwable))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String issue(Throwable throwable) {
+        if (throwable == null) {
+            return "success";
+        }
+        if (throwable instanceof PlacesInsuffisantesException) {
+            return "insufficient_seats";
+        }
+        if (throwable instanceof ReservationConflictException || throwable instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (throwable instanceof VolNotFoundException) {
+            return "not_found";
+        }
+        if (throwable instanceof RejectedExecutionException) {
+            return "rejected";
+        }
+        return "error";
+    }
+
+    static boolean isConflitDeVersion(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String volId(RetryCallback<?, ?> callback) {
+        ReservationRequest request = requete(callback);
+        return request != null && request.getVolId() != null ? request.getVolId().toString() : "unknown";
+    }
+
+    // Demande passée à la méthode annotée, null hors appel intercepté
+    static ReservationRequest requete(RetryCallback<?, ?> callback) {
+        if (callback instanceof MethodInvocationRetryCallback<?, ?> invocation) {
+            for (Object argument : invocation.getInvocation().getArguments()) {
+                if (argument instanceof ReservationRequest request) {
+                    return request;
+                }
+            }
+        }
+        return null;
+    }
+}
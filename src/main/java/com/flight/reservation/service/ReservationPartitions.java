@@ -0,0 +1,66 @@
+package com.flight.reservation.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * File unique par partition de vols (mode PARTITIONED_QUEUE).
+ * <p>
+ * Chaque vol est rattaché par hachage de son id à une partition servie par un seul thread :
+ * les réservations d'un même vol s'exécutent l'une après l'autre, sans se disputer la ligne
+ * en base, tandis que des vols de partitions différentes avancent en parallèle.
+ * Une file pleine rejette la demande ({@link java.util.concurrent.RejectedExecutionException}).
+ */
+@Service
+public class ReservationPartitions {
+
+    private final ThreadPoolExecutor[] partitions;
+
+    public ReservationPartitions(@Value("${reservation.partitions.count:4}") int count,
+                                 @Value("${reservation.partitions.queue-capacity:10000}") int queueCapacity) {
+        this.partitions = new ThreadPoolExecutor[Math.max(1, count)];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    new CustomizableThreadFactory("vol-partition-" + i + "-"));
+        }
+    }
+
+    /**
+     * Exécute la tâche sur la partition du vol et attend son résultat.
+     * Doit être appelée hors transaction : l'appelant ne garde aucune connexion pendant l'attente.
+     */
+    public <T> T executer(UUID volId, Supplier<T> tache) {
+        try {
+            return CompletableFuture.supplyAsync(tache, partition(volId)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+    }
+
+    private ThreadPoolExecutor partition(UUID volId) {
+        // Les bits de poids fort et faible de l'UUID brassés avant le modulo
+        int hash = volId.hashCode();
+        return partitions[Math.floorMod(hash ^ (hash >>> 16), partitions.length)];
+    }
+}
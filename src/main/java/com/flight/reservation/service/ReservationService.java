@@ -2,8 +2,10 @@ package com.flight.reservation.service;
 
 import com.flight.reservation.dto.ReservationRequest;
 import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.entity.EcritureLedger;
 import com.flight.reservation.entity.Reservation;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.ModeReservation;
 import com.flight.reservation.enums.StatutReservation;
 import com.flight.reservation.event.ReservationEvent;
 import com.flight.reservation.exception.PlacesInsuffisantesException;
@@ -13,13 +15,20 @@ import com.flight.reservation.repository.ReservationRepository;
 import com.flight.reservation.repository.VolRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -32,72 +41,102 @@ public class ReservationService {
     private final VolRepository volRepository;
     private final VolService volService;
     private final ApplicationEventPublisher eventPublisher;
+    private final SeatInventoryService seatInventoryService;
+    private final ReservationBatcher reservationBatcher;
+    private final ReservationPartitions reservationPartitions;
+    private final HotFlightDetector hotFlightDetector;
+    private final VolSearchCache volSearchCache;
+    private final ReservationLedger reservationLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final ModeReservation mode;
     
     public ReservationService(ReservationRepository reservationRepository,
                              VolRepository volRepository,
                              VolService volService,
-                             ApplicationEventPublisher eventPublisher) {
+                             ApplicationEventPublisher eventPublisher,
+                             SeatInventoryService seatInventoryService,
+                             ReservationBatcher reservationBatcher,
+                             ReservationPartitions reservationPartitions,
+                             HotFlightDetector hotFlightDetector,
+                             VolSearchCache volSearchCache,
+                             ReservationLedger reservationLedger,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${reservation.mode:OPTIMISTIC_LOCK}") ModeReservation mode) {
         this.reservationRepository = reservationRepository;
         this.volRepository = volRepository;
         this.volService = volService;
         this.eventPublisher = eventPublisher;
+        this.seatInventoryService = seatInventoryService;
+        this.reservationBatcher = reservationBatcher;
+        this.reservationPartitions = reservationPartitions;
+        this.hotFlightDetector = hotFlightDetector;
+        this.volSearchCache = volSearchCache;
+        this.reservationLedger = reservationLedger;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode != null ? mode : ModeReservation.OPTIMISTIC_LOCK;
     }
     
+    // Transaction ouverte par tentative (et non autour des tentatives), jamais pendant l'attente d'un lot
     @Retryable(retryFor = {OptimisticLockingFailureException.class, ReservationConflictException.class},
-               maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+               maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2),
+               listeners = {"reservationRetryListener", "hotFlightDetector"})
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReservationResponse creerReservation(ReservationRequest request) {
+        logger.debug("Tentative de réservation - Vol: {}, Passager: {}, Places: {}", 
+                   request.getVolId(), request.getPassager().getEmail(), request.getNombrePlaces());
+        
+        // Refus en mémoire, sans accès base, d'une demande que les places connues rendent impossible
+        Optional<Integer> placesConnues = volSearchCache.getPlacesEnMemoire(request.getVolId());
+        if (placesConnues.isPresent() && placesConnues.get() < request.getNombrePlaces()) {
+            publishAuditEvent(request.getVolId(), request.getPassager().getEmail(), request.getNombrePlaces(),
+                            placesConnues.get(), StatutReservation.FAILED, "Places insuffisantes", null);
+            throw new PlacesInsuffisantesException(placesConnues.get(), request.getNombrePlaces());
+        }
+        
+        if (mode == ModeReservation.GROUP_COMMIT) {
+            return reservationBatcher.submit(request);
+        }
+        if (mode == ModeReservation.PARTITIONED_QUEUE) {
+            // Seul écrivain du vol : la mise à jour gardée ne rencontre jamais d'écriture concurrente du même vol
+            return reservationPartitions.executer(request.getVolId(),
+                    () -> transactionTemplate.execute(status -> reserverViaUpdateConditionnel(request)));
+        }
+        if (mode == ModeReservation.OPTIMISTIC_LOCK && hotFlightDetector.isChaud(request.getVolId())) {
+            // Vol chaud : sérialisé dans la file de sa partition plutôt que rejoué sur conflit
+            return reservationPartitions.executer(request.getVolId(),
+                    () -> transactionTemplate.execute(status -> reserverViaUpdateConditionnel(request)));
+        }
+        
+        return transactionTemplate.execute(status -> switch (mode) {
+            case IN_MEMORY_INVENTORY -> reserverViaInventaire(request);
+            case LEDGER -> reserverViaLedger(request);
+            case ATOMIC_UPDATE -> reserverViaUpdateConditionnel(request);
+            case PESSIMISTIC_LOCK -> reserverAvecVerrouPessimiste(request);
+            default -> reserverAvecVerrouOptimiste(request);
+        });
+    }
+    
+    private ReservationResponse reserverAvecVerrouOptimiste(ReservationRequest request) {
         UUID volId = request.getVolId();
         String emailPassager = request.getPassager().getEmail();
         Integer nombrePlaces = request.getNombrePlaces();
         
-        logger.info("Tentative de réservation - Vol: {}, Passager: {}, Places: {}", 
-                   volId, emailPassager, nombrePlaces);
-        
+        long generation = volSearchCache.generationPlaces(volId);
         try {
             // Récupération du vol avec verrouillage optimiste
             Vol vol = volRepository.findByIdWithOptimisticLock(volId)
                     .orElseThrow(() -> new VolNotFoundException(volId));
             
-            Integer placesDisponiblesAvant = vol.getPlacesDisponibles();
-            
-            // Vérification de la disponibilité
-            if (!vol.hasAvailableSeats(nombrePlaces)) {
-                publishAuditEvent(volId, emailPassager, nombrePlaces, placesDisponiblesAvant,
-                                StatutReservation.FAILED, "Places insuffisantes", null);
-                throw new PlacesInsuffisantesException(placesDisponiblesAvant, nombrePlaces);
-            }
-            
-            // Réservation des places
-            vol.reservePlaces(nombrePlaces);
-            volRepository.save(vol);
-            
-            // Création de la réservation
-            Reservation reservation = new Reservation(vol, request.getPassager(), nombrePlaces);
-            reservation = reservationRepository.save(reservation);
-            
-            // Éviction du cache
-            volService.evictCache(volId);
-            
-            // Audit de succès
-            publishAuditEvent(volId, emailPassager, nombrePlaces, placesDisponiblesAvant,
-                            StatutReservation.SUCCESS, null, reservation.getId());
-            
-            logger.info("Réservation créée avec succès - ID: {}, Vol: {}", 
-                       reservation.getId(), volId);
-            
-            return new ReservationResponse(
-                    reservation.getId(),
-                    volId,
-                    request.getPassager(),
-                    nombrePlaces,
-                    reservation.getCreatedAt()
-            );
+            return reserverSurVol(vol, request, generation);
             
         } catch (OptimisticLockingFailureException e) {
             logger.warn("Conflit de concurrence détecté pour le vol: {}", volId);
             publishAuditEvent(volId, emailPassager, nombrePlaces, null,
                             StatutReservation.FAILED, "Conflit de concurrence", null);
             throw new ReservationConflictException("Conflit détecté, veuillez réessayer", e);
+        } catch (PlacesInsuffisantesException e) {
+            // Déjà auditée
+            throw e;
         } catch (Exception e) {
             logger.error("Erreur lors de la réservation pour le vol: {}", volId, e);
             publishAuditEvent(volId, emailPassager, nombrePlaces, null,
@@ -106,6 +145,209 @@ public class ReservationService {
         }
     }
     
+    private ReservationResponse reserverAvecVerrouPessimiste(ReservationRequest request) {
+        UUID volId = request.getVolId();
+        String emailPassager = request.getPassager().getEmail();
+        Integer nombrePlaces = request.getNombrePlaces();
+        
+        long generation = volSearchCache.generationPlaces(volId);
+        try {
+            // Verrou d'écriture pris avant la lecture : les réservations concurrentes du vol attendent au lieu d'échouer
+            volRepository.verrouillerEnEcriture(volId);
+            Vol vol = volRepository.findByIdForUpdate(volId)
+                    .orElseThrow(() -> new VolNotFoundException(volId));
+            
+            return reserverSurVol(vol, request, generation);
+            
+        } catch (PessimisticLockingFailureException e) {
+            logger.warn("Verrou du vol non obtenu: {}", volId);
+            publishAuditEvent(volId, emailPassager, nombrePlaces, null,
+                            StatutReservation.FAILED, "Verrou non obtenu", null);
+            throw new ReservationConflictException("Vol verrouillé par une autre réservation, veuillez réessayer", e);
+        } catch (PlacesInsuffisantesException e) {
+            // Déjà auditée
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erreur lors de la réservation pour le vol: {}", volId, e);
+            publishAuditEvent(volId, emailPassager, nombrePlaces, null,
+                            StatutReservation.FAILED, e.getMessage(), null);
+            throw e;
+        }
+    }
+    
+    // Vol chargé sous verrou (optimiste ou pessimiste) : vérification, décompte et insertion
+    private ReservationResponse reserverSurVol(Vol vol, ReservationRequest request, long generation) {
+        UUID volId = vol.getId();
+        String emailPassager = request.getPassager().getEmail();
+        Integer nombrePlaces = request.getNombrePlaces();
+        Integer placesDisponiblesAvant = vol.getPlacesDisponibles();
+        
+        // Vérification de la disponibilité
+        if (!vol.hasAvailableSeats(nombrePlaces)) {
+            volSearchCache.enregistrerPlacesLues(volId, placesDisponiblesAvant, generation);
+            publishAuditEvent(volId, emailPassager, nombrePlaces, placesDisponiblesAvant,
+                            StatutReservation.FAILED, "Places insuffisantes", null);
+            throw new PlacesInsuffisantesException(placesDisponiblesAvant, nombrePlaces);
+        }
+        
+        // Réservation des places
+        vol.reservePlaces(nombrePlaces);
+        volRepository.save(vol);
+        
+        // Création de la réservation
+        Reservation reservation = new Reservation(vol, request.getPassager(), nombrePlaces);
+        reservation = reservationRepository.save(reservation);
+        
+        // Mise à jour du cache après commit
+        volService.updatePlacesCache(volId, vol.getPlacesDisponibles(), generation);
+        
+        // Audit de succès
+        publishAuditEvent(volId, emailPassager, nombrePlaces, placesDisponiblesAvant,
+                        StatutReservation.SUCCESS, null, reservation.getId());
+        
+        logger.info("Réservation créée avec succès - ID: {}, Vol: {}", 
+                   reservation.getId(), volId);
+        
+        return new ReservationResponse(
+                reservation.getId(),
+                volId,
+                request.getPassager(),
+                nombrePlaces,
+                reservation.getCreatedAt()
+        );
+    }
+    
+    private ReservationResponse reserverViaUpdateConditionnel(ReservationRequest request) {
+        UUID volId = request.getVolId();
+        String emailPassager = request.getPassager().getEmail();
+        Integer nombrePlaces = request.getNombrePlaces();
+        
+        long generation = volSearchCache.generationPlaces(volId);
+        
+        // Vérification et incrément dans la même instruction : ni lecture préalable ni conflit de version
+        if (volRepository.reservePlacesIfAvailable(volId, nombrePlaces) == 0) {
+            Integer placesDisponibles = volRepository.findPlacesDisponiblesByVolId(volId).orElse(null);
+            if (placesDisponibles == null) {
+                VolNotFoundException e = new VolNotFoundException(volId);
+                publishAuditEvent(volId, emailPassager, nombrePlaces, null,
+                                StatutReservation.FAILED, e.getMessage(), null);
+                throw e;
+            }
+            volSearchCache.enregistrerPlacesLues(volId, placesDisponibles, generation);
+            publishAuditEvent(volId, emailPassager, nombrePlaces, placesDisponibles,
+                            StatutReservation.FAILED, "Places insuffisantes", null);
+            throw new PlacesInsuffisantesException(placesDisponibles, nombrePlaces);
+        }
+        
+        // Lecture scalaire de la ligne que la transaction vient de modifier, pour l'audit
+        Integer placesDisponiblesAvant = volRepository.findPlacesDisponiblesByVolId(volId)
+                .map(places -> places + nombrePlaces)
+                .orElse(null);
+        
+        return enregistrerReservation(request, placesDisponiblesAvant, generation);
+    }
+    
+    private ReservationResponse reserverViaInventaire(ReservationRequest request) {
+        UUID volId = request.getVolId();
+        String emailPassager = request.getPassager().getEmail();
+        Integer nombrePlaces = request.getNombrePlaces();
+        
+        // Admission en mémoire : aucun accès à la table vols sur ce chemin
+        long generation = volSearchCache.generationPlaces(volId);
+        int placesDisponiblesAvant;
+        try {
+            placesDisponiblesAvant = seatInventoryService.reserve(volId, nombrePlaces);
+        } catch (PlacesInsuffisantesException e) {
+            publishAuditEvent(volId, emailPassager, nombrePlaces, e.getPlacesDisponibles(),
+                            StatutReservation.FAILED, "Places insuffisantes", null);
+            throw e;
+        } catch (VolNotFoundException e) {
+            publishAuditEvent(volId, emailPassager, nombrePlaces, null,
+                            StatutReservation.FAILED, e.getMessage(), null);
+            throw e;
+        }
+        
+        // Places rendues à l'inventaire si la transaction échoue
+        seatInventoryService.bindToTransaction(volId, nombrePlaces);
+        
+        return enregistrerReservation(request, placesDisponiblesAvant, generation);
+    }
+    
+    private ReservationResponse reserverViaLedger(ReservationRequest request) {
+        UUID volId = request.getVolId();
+        String emailPassager = request.getPassager().getEmail();
+        Integer nombrePlaces = request.getNombrePlaces();
+        
+        // Admission sur les places rejouées du registre : la ligne du vol n'est ni lue ni réécrite
+        long generation = volSearchCache.generationPlaces(volId);
+        int placesDisponiblesAvant;
+        try {
+            placesDisponiblesAvant = reservationLedger.reserver(volId, nombrePlaces);
+        } catch (PlacesInsuffisantesException e) {
+            publishAuditEvent(volId, emailPassager, nombrePlaces, e.getPlacesDisponibles(),
+                            StatutReservation.FAILED, "Places insuffisantes", null);
+            throw e;
+        } catch (VolNotFoundException e) {
+            publishAuditEvent(volId, emailPassager, nombrePlaces, null,
+                            StatutReservation.FAILED, e.getMessage(), null);
+            throw e;
+        }
+        reservationLedger.rendreSiEchec(volId, nombrePlaces);
+        
+        return enregistrerReservation(request, placesDisponiblesAvant, generation);
+    }
+    
+    /**
+     * Réservation de places déjà retenues en mémoire ({@link SeatHoldService}) : pas de nouvelle
+     * admission, les places sont rendues si la transaction échoue. {@code generation} est la
+     * génération de places du vol capturée avant la retenue ({@link VolSearchCache#generationPlaces}).
+     */
+    public ReservationResponse confirmerRetenue(ReservationRequest request, int placesDisponiblesAvant,
+                                                long generation) {
+        if (mode == ModeReservation.LEDGER) {
+            reservationLedger.rendreSiEchec(request.getVolId(), request.getNombrePlaces());
+        } else {
+            seatInventoryService.bindToTransaction(request.getVolId(), request.getNombrePlaces());
+        }
+        return enregistrerReservation(request, placesDisponiblesAvant, generation);
+    }
+    
+    // Insertion de la réservation pour des places déjà décomptées, sans charger le vol
+    private ReservationResponse enregistrerReservation(ReservationRequest request, Integer placesDisponiblesAvant,
+                                                       long generation) {
+        UUID volId = request.getVolId();
+        Integer nombrePlaces = request.getNombrePlaces();
+        
+        Reservation reservation = new Reservation(volRepository.getReferenceById(volId),
+                                                  request.getPassager(), nombrePlaces);
+        reservation = reservationRepository.save(reservation);
+        
+        if (placesDisponiblesAvant != null) {
+            volService.updatePlacesCache(volId, placesDisponiblesAvant - nombrePlaces, generation);
+        } else {
+            volService.evictCache(volId);
+        }
+        
+        if (mode == ModeReservation.LEDGER) {
+            // L'écriture du registre, dans la même transaction, tient lieu d'audit de succès
+            reservationLedger.ajouter(List.of(EcritureLedger.reservation(volId, reservation.getId(), nombrePlaces)));
+        } else {
+            publishAuditEvent(volId, request.getPassager().getEmail(), nombrePlaces, placesDisponiblesAvant,
+                            StatutReservation.SUCCESS, null, reservation.getId());
+        }
+        
+        logger.info("Réservation créée avec succès - ID: {}, Vol: {}", 
+                   reservation.getId(), volId);
+        
+        return new ReservationResponse(
+                reservation.getId(),
+                volId,
+                request.getPassager(),
+                nombrePlaces,
+                reservation.getCreatedAt()
+        );
+    }
+    
     private void publishAuditEvent(UUID volId, String emailPassager, Integer placesDemandees,
                                   Integer placesDisponiblesAvant, StatutReservation statut,
                                   String messageErreur, UUID reservationId) {
@@ -0,0 +1,236 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.dto.RetenueRequest;
+import com.flight.reservation.dto.RetenueResponse;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.enums.ModeReservation;
+import com.flight.reservation.exception.RetenueNotFoundException;
+import com.flight.reservation.exception.RetenuesNonSupporteesException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Retenues de places : des places mises de côté le temps d'un paiement, puis confirmées en
+ * réservation ou rendues.
+ * <p>
+ * Une retenue est prise sur les places d'admission en mémoire (inventaire en mode
+ * IN_MEMORY_INVENTORY, places rejouées du registre en mode LEDGER) : elle n'écrit rien en base,
+ * et les places disponibles, la recherche et les refus en mémoire en tiennent compte aussitôt.
+ * La confirmation insère la réservation sans nouvelle admission. Les retenues non confirmées
+ * expirent par une {@link HashedTimerWheel} avancée à chaque tick, sans tâche par retenue.
+ * Dans les autres modes, l'admission se fait en base et une retenue en mémoire ne la bornerait pas :
+ * les retenues y sont refusées.
+ * <p>
+ * Le retrait de la table des retenues actives arbitre entre confirmation, libération et
+ * expiration : une seule des trois aboutit. Perdues à l'arrêt, les retenues n'ont jamais rien
+ * écrit ; comme l'inventaire mémoire, elles supposent une seule instance de l'application.
+ */
+@Service
+public class SeatHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldService.class);
+
+    private final SeatInventoryService seatInventoryService;
+    private final ReservationLedger reservationLedger;
+    private final ReservationService reservationService;
+    private final VolSearchCache volSearchCache;
+    private final ModeReservation mode;
+    private final Duration duree;
+    private final int maxActives;
+    private final HashedTimerWheel<Retenue> roue;
+
+    private final ConcurrentMap<UUID, Retenue> retenues = new ConcurrentHashMap<>();
+    private final AtomicInteger actives = new AtomicInteger();
+
+    private final Counter confirmees;
+    private final Counter confirmationsEchouees;
+    private final Counter liberees;
+    private final Counter expirees;
+
+    @Autowired
+    public SeatHoldService(SeatInventoryService seatInventoryService,
+                           ReservationLedger reservationLedger,
+                           ReservationService reservationService,
+                           VolSearchCache volSearchCache,
+                           MeterRegistry meterRegistry,
+                           @Value("${reservation.mode:OPTIMISTIC_LOCK}") ModeReservation mode,
+                           @Value("${reservation.hold.duration-ms:300000}") long durationMs,
+                           @Value("${reservation.hold.tick-ms:100}") long tickMs,
+                           @Value("${reservation.hold.wheel-size:512}") int wheelSize,
+                           @Value("${reservation.hold.max-active:500000}") int maxActives) {
+        this(seatInventoryService, reservationLedger, reservationService, volSearchCache, meterRegistry,
+             mode, durationMs, tickMs, wheelSize, maxActives, System::nanoTime);
+    }
+
+    SeatHoldService(SeatInventoryService seatInventoryService, ReservationLedger reservationLedger,
+                    ReservationService reservationService, VolSearchCache volSearchCache,
+                    MeterRegistry meterRegistry, ModeReservation mode, long durationMs, long tickMs,
+                    int wheelSize, int maxActives, LongSupplier horloge) {
+        this.seatInventoryService = seatInventoryService;
+        this.reservationLedger = reservationLedger;
+        this.reservationService = reservationService;
+        this.volSearchCache = volSearchCache;
+        this.mode = mode != null ? mode : ModeReservation.OPTIMISTIC_LOCK;
+        this.duree = Duration.ofMillis(durationMs);
+        this.maxActives = maxActives;
+        this.roue = new HashedTimerWheel<>(Duration.ofMillis(tickMs), wheelSize, horloge);
+
+        Gauge.builder("reservation.holds.active", actives, AtomicInteger::get)
+                .description("Retenues de places en attente de confirmation")
+                .register(meterRegistry);
+        this.confirmees = Counter.builder("reservation.holds.confirmed").register(meterRegistry);
+        this.confirmationsEchouees = Counter.builder("reservation.holds.confirm.failed").register(meterRegistry);
+        this.liberees = Counter.builder("reservation.holds.released").register(meterRegistry);
+        this.expirees = Counter.builder("reservation.holds.expired").register(meterRegistry);
+    }
+
+    /**
+     * Retient des places jusqu'à l'échéance {@code reservation.hold.duration-ms}.
+     *
+     * @throws RetenuesNonSupporteesException si le mode de réservation admet en base
+     * @throws RejectedExecutionException si le nombre maximal de retenues actives est atteint
+     */
+    public RetenueResponse retenir(RetenueRequest request) {
+        if (mode != ModeReservation.IN_MEMORY_INVENTORY && mode != ModeReservation.LEDGER) {
+            throw new RetenuesNonSupporteesException(mode);
+        }
+        if (actives.incrementAndGet() > maxActives) {
+            actives.decrementAndGet();
+            throw new RejectedExecutionException("Nombre maximal de retenues actives atteint");
+        }
+
+        UUID volId = request.getVolId();
+        int nombrePlaces = request.getNombrePlaces();
+        long generation = volSearchCache.generationPlaces(volId);
+        int placesDisponiblesAvant;
+        try {
+            placesDisponiblesAvant = mode == ModeReservation.LEDGER
+                    ? reservationLedger.reserver(volId, nombrePlaces)
+                    : seatInventoryService.reserve(volId, nombrePlaces);
+        } catch (RuntimeException e) {
+            actives.decrementAndGet();
+            throw e;
+        }
+        volSearchCache.updatePlaces(volId, placesDisponiblesAvant - nombrePlaces, generation);
+
+        // Active avant d'être planifiée : une expiration ne peut pas précéder l'enregistrement
+        Retenue retenue = new Retenue(UUID.randomUUID(), volId, nombrePlaces, placesDisponiblesAvant, generation);
+        retenues.put(retenue.id, retenue);
+        retenue.echeance = roue.planifier(retenue, duree);
+
+        logger.debug("Retenue {} - Vol: {}, Places: {}", retenue.id, volId, nombrePlaces);
+        return new RetenueResponse(retenue.id, volId, nombrePlaces, Instant.now().plus(duree));
+    }
+
+    /**
+     * Transforme la retenue en réservation. Si l'insertion échoue, les places sont rendues
+     * et la retenue n'existe plus.
+     *
+     * @throws RetenueNotFoundException si la retenue est inconnue, expirée, libérée ou déjà confirmée
+     */
+    public ReservationResponse confirmer(UUID retenueId, Passager passager) {
+        Retenue retenue = retirer(retenueId);
+        ReservationResponse reservation;
+        try {
+            reservation = reservationService.confirmerRetenue(
+                    new ReservationRequest(retenue.volId, passager, retenue.places), retenue.placesDisponiblesAvant,
+                    retenue.generation);
+        } catch (RuntimeException e) {
+            confirmationsEchouees.increment();
+            throw e;
+        }
+        // Comptée une fois la réservation insérée
+        confirmees.increment();
+        return reservation;
+    }
+
+    /**
+     * Rend les places d'une retenue abandonnée.
+     *
+     * @throws RetenueNotFoundException si la retenue est inconnue, expirée ou déjà confirmée
+     */
+    public void liberer(UUID retenueId) {
+        Retenue retenue = retirer(retenueId);
+        rendre(retenue);
+        liberees.increment();
+        logger.debug("Retenue {} libérée", retenueId);
+    }
+
+    /**
+     * Rend les places des retenues arrivées à échéance.
+     */
+    @Scheduled(fixedDelayString = "${reservation.hold.tick-ms:100}")
+    public void expirer() {
+        int echues = roue.avancer(retenue -> {
+            if (retenues.remove(retenue.id, retenue)) {
+                actives.decrementAndGet();
+                rendre(retenue);
+                expirees.increment();
+            }
+        });
+        if (echues > 0) {
+            logger.debug("{} retenues expirées", echues);
+        }
+    }
+
+    public int getRetenuesActives() {
+        return actives.get();
+    }
+
+    private Retenue retirer(UUID retenueId) {
+        Retenue retenue = retenues.remove(retenueId);
+        if (retenue == null) {
+            throw new RetenueNotFoundException(retenueId);
+        }
+        actives.decrementAndGet();
+        HashedTimerWheel.Echeance<Retenue> echeance = retenue.echeance;
+        if (echeance != null) {
+            echeance.annuler();
+        }
+        return retenue;
+    }
+
+    private void rendre(Retenue retenue) {
+        if (mode == ModeReservation.LEDGER) {
+            reservationLedger.rendre(retenue.volId, retenue.places);
+        } else {
+            seatInventoryService.release(retenue.volId, retenue.places);
+        }
+        volSearchCache.rendrePlaces(retenue.volId);
+    }
+
+    private static final class Retenue {
+        private final UUID id;
+        private final UUID volId;
+        private final int places;
+        private final int placesDisponiblesAvant;
+        private final long generation;
+        private volatile HashedTimerWheel.Echeance<Retenue> echeance;
+
+        private Retenue(UUID id, UUID volId, int places, int placesDisponiblesAvant, long generation) {
+            this.id = id;
+            this.volId = volId;
+            this.places = places;
+            this.placesDisponiblesAvant = placesDisponiblesAvant;
+            this.generation = generation;
+        }
+    }
+}
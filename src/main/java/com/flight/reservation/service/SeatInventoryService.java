@@ -0,0 +1,190 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inventaire des places en mémoire, un compteur atomique par vol.
+ * <p>
+ * L'admission d'une réservation se fait par compare-and-set sur le compteur du vol :
+ * aucune réservation ne peut faire passer le compteur sous zéro, ce qui garantit
+ * l'absence de surréservation sans verrou en base. Les places admises sont ensuite
+ * reportées sur {@code vols.places_reservees} de manière différée et agrégée par vol.
+ * <p>
+ * Ce mode suppose une seule instance de l'application par base de données.
+ */
+@Service
+public class SeatInventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventoryService.class);
+
+    private final VolRepository volRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Places restantes par vol, chargées depuis la base au premier accès
+    private final ConcurrentMap<UUID, AtomicInteger> placesDisponibles = new ConcurrentHashMap<>();
+
+    // Places confirmées en mémoire mais pas encore reportées en base
+    private final ConcurrentMap<UUID, AtomicInteger> deltasEnAttente = new ConcurrentHashMap<>();
+
+    public SeatInventoryService(VolRepository volRepository,
+                                ReservationRepository reservationRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.volRepository = volRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Retire atomiquement des places de l'inventaire du vol.
+     *
+     * @return le nombre de places disponibles avant la réservation
+     * @throws VolNotFoundException si le vol n'existe pas
+     * @throws PlacesInsuffisantesException s'il ne reste pas assez de places
+     */
+    public int reserve(UUID volId, int nombrePlaces) {
+        AtomicInteger compteur = getCompteur(volId);
+        while (true) {
+            int avant = compteur.get();
+            if (avant < nombrePlaces) {
+                throw new PlacesInsuffisantesException(avant, nombrePlaces);
+            }
+            if (compteur.compareAndSet(avant, avant - nombrePlaces)) {
+                return avant;
+            }
+        }
+    }
+
+    /**
+     * Rend des places à l'inventaire (réservation annulée ou transaction en échec).
+     */
+    public void release(UUID volId, int nombrePlaces) {
+        AtomicInteger compteur = placesDisponibles.get(volId);
+        if (compteur != null) {
+            compteur.addAndGet(nombrePlaces);
+        }
+    }
+
+    /**
+     * Rattache des places déjà retirées par {@link #reserve} à la transaction courante :
+     * elles sont confirmées au commit et rendues à l'inventaire en cas de rollback.
+     * Hors transaction, la confirmation est immédiate.
+     */
+    public void bindToTransaction(UUID volId, int nombrePlaces) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            confirm(volId, nombrePlaces);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    confirm(volId, nombrePlaces);
+                } else {
+                    release(volId, nombrePlaces);
+                }
+            }
+        });
+    }
+
+    /**
+     * Places rendues par une annulation commitée : remises dans l'inventaire et retirées
+     * de {@code vols.places_reservees} au prochain report.
+     */
+    public void cancel(UUID volId, int nombrePlaces) {
+        release(volId, nombrePlaces);
+        confirm(volId, -nombrePlaces);
+    }
+
+    /**
+     * Places restantes connues en mémoire, vide si le vol n'a pas encore été chargé.
+     */
+    public Optional<Integer> getPlacesDisponibles(UUID volId) {
+        AtomicInteger compteur = placesDisponibles.get(volId);
+        return compteur != null ? Optional.of(compteur.get()) : Optional.empty();
+    }
+
+    /**
+     * Oublie l'état mémoire d'un vol ; il sera rechargé depuis la base au prochain accès.
+     */
+    public void evict(UUID volId) {
+        placesDisponibles.remove(volId);
+    }
+
+    /**
+     * Reporte en base les places confirmées depuis le dernier passage, une requête par vol.
+     */
+    @Scheduled(fixedDelayString = "${reservation.inventory.flush-interval-ms:50}")
+    public void flush() {
+        deltasEnAttente.forEach((volId, delta) -> {
+            int places = delta.getAndSet(0);
+            if (places == 0) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        volRepository.incrementPlacesReservees(volId, places));
+            } catch (RuntimeException e) {
+                // Le delta est conservé pour le prochain passage
+                delta.addAndGet(places);
+                logger.error("Échec du report de {} places pour le vol: {}", places, volId, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void confirm(UUID volId, int nombrePlaces) {
+        deltasEnAttente.computeIfAbsent(volId, id -> new AtomicInteger()).addAndGet(nombrePlaces);
+    }
+
+    private AtomicInteger getCompteur(UUID volId) {
+        AtomicInteger compteur = placesDisponibles.get(volId);
+        if (compteur != null) {
+            return compteur;
+        }
+        return placesDisponibles.computeIfAbsent(volId, this::load);
+    }
+
+    private AtomicInteger load(UUID volId) {
+        Vol vol = volRepository.findById(volId)
+                .orElseThrow(() -> new VolNotFoundException(volId));
+
+        // Après un arrêt brutal, des réservations peuvent exister sans que leur delta
+        // ait été reporté sur le vol : les lignes de réservation font foi.
+        AtomicInteger enAttente = deltasEnAttente.get(volId);
+        int reserveesEnBase = vol.getPlacesReservees() + (enAttente != null ? enAttente.get() : 0);
+        Long sommeReservations = reservationRepository.sumNombrePlacesByVolId(volId);
+        int reservees = reserveesEnBase;
+        if (sommeReservations != null && sommeReservations > reserveesEnBase) {
+            int manquantes = (int) (sommeReservations - reserveesEnBase);
+            logger.warn("Vol {}: {} places réservées non reportées, rattrapage", volId, manquantes);
+            confirm(volId, manquantes);
+            reservees += manquantes;
+        }
+
+        return new AtomicInteger(vol.getCapaciteMaximale() - reservees);
+    }
+}
@@ -0,0 +1,65 @@
+package com.flight.reservation.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Vols complets ou presque : places restantes des vols passés sous le seuil
+ * {@code reservation.sold-out.near-capacity-seats}.
+ * <p>
+ * Contrairement au cache {@code vol-places}, une entrée n'expire pas et n'est pas évincée
+ * par la taille : un vol complet reste connu comme tel et les demandes impossibles sont
+ * refusées sans lecture en base. Seuls les vols proches de leur capacité sont retenus,
+ * ce qui borne la taille du registre. Les places ne faisant que diminuer, la plus petite
+ * valeur observée est conservée ; toute opération qui rend des places doit appeler
+ * {@link #oublier(UUID)}, et les places lues avant ce rendu ne doivent plus être enregistrées
+ * (génération de places de {@link VolSearchCache}).
+ */
+@Service
+public class SoldOutRegistry {
+
+    private final ConcurrentMap<UUID, Integer> placesRestantes = new ConcurrentHashMap<>();
+    private final int seuil;
+
+    public SoldOutRegistry(MeterRegistry meterRegistry,
+                           @Value("${reservation.sold-out.near-capacity-seats:10}") int seuil) {
+        this.seuil = seuil;
+        Gauge.builder("reservation.sold.out.flights", placesRestantes,
+                      m -> m.values().stream().filter(places -> places == 0).count())
+                .description("Vols connus complets")
+                .register(meterRegistry);
+        Gauge.builder("reservation.near.capacity.flights", placesRestantes, ConcurrentMap::size)
+                .description("Vols suivis par le registre des vols complets ou presque")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Places restantes d'un vol, lues en base ou commitées : retenues si elles passent sous le seuil.
+     */
+    public void enregistrer(UUID volId, int places) {
+        if (places <= seuil) {
+            placesRestantes.merge(volId, Math.max(0, places), Math::min);
+        }
+    }
+
+    /**
+     * Places restantes connues, vide si le vol n'est pas proche de sa capacité.
+     */
+    public Optional<Integer> getPlacesRestantes(UUID volId) {
+        return Optional.ofNullable(placesRestantes.get(volId));
+    }
+
+    /**
+     * Retire un vol dont la capacité augmente ou dont des places sont rendues.
+     */
+    public void oublier(UUID volId) {
+        placesRestantes.remove(volId);
+    }
+}
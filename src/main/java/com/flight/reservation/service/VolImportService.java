@@ -0,0 +1,388 @@
+package com.flight.reservation.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flight.reservation.dto.ErreurImport;
+import com.flight.reservation.dto.RapportImport;
+import com.flight.reservation.dto.VolRequest;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.FormatImport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de vols depuis un flux JSON (tableau), NDJSON ou CSV.
+ * <p>
+ * Le flux est lu au fil de l'eau, chaque ligne est validée isolément et les vols valides sont
+ * insérés par lots de taille fixe, un lot par transaction : les INSERT partent en batch JDBC
+ * ({@code hibernate.jdbc.batch_size}) et le contexte de persistance est vidé à la fin de chaque
+ * lot, la session pouvant survivre à la transaction (appel depuis une transaction englobante ou
+ * une session ouverte par l'appelant) : sans cela, chaque vol inséré resterait géré et chaque
+ * commit revérifierait tous les vols des lots précédents.
+ * Une ligne invalide est rapportée sans interrompre l'import.
+ */
+@Service
+public class VolImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VolImportService.class);
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final VolSearchCache volSearchCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public VolImportService(ObjectMapper objectMapper,
+                            Validator validator,
+                            VolSearchCache volSearchCache,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${import.batch-size:500}") int batchSize,
+                            @Value("${import.max-errors:1000}") int maxErrors) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.volSearchCache = volSearchCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public RapportImport importer(InputStream entree, FormatImport format) {
+        return importer(entree, format, 0, null, null);
+    }
+
+    /**
+     * Import reprenant après la ligne {@code reprise} avec les compteurs déjà {@code acquis} ;
+     * {@code suivi} reçoit le point de reprise dans la transaction de chaque lot.
+     */
+    public RapportImport importer(InputStream entree, FormatImport format, long reprise,
+                                  RapportImport acquis, SuiviImport suivi) {
+        Importation importation = new Importation(reprise, acquis, suivi);
+        try {
+            switch (format) {
+                case JSON -> lireJson(entree, importation);
+                case NDJSON -> lireNdjson(entree, importation);
+                case CSV -> lireCsv(entree, importation);
+            }
+        } catch (IOException e) {
+            // Flux illisible : ce qui précède est conservé
+            logger.warn("Import de vols interrompu après {} lignes", importation.lignesLues, e);
+            importation.interrompre(e.getMessage());
+        }
+        importation.terminer();
+
+        logger.info("Import de vols terminé - lignes: {}, importés: {}, rejetés: {}",
+                   importation.lignesLues, importation.volsImportes, importation.lignesRejetees);
+        return importation.rapport();
+    }
+
+    private void lireJson(InputStream entree, Importation importation) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(entree)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Tableau JSON attendu");
+            }
+            long rang = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("Tableau JSON incomplet");
+                }
+                rang++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    importation.rejeter(rang, "Objet JSON attendu");
+                    continue;
+                }
+                // Arbre d'un seul vol : une valeur invalide n'empêche pas de lire le suivant
+                JsonNode noeud = parser.readValueAsTree();
+                importation.ajouter(rang, noeud);
+            }
+        }
+    }
+
+    private void lireNdjson(InputStream entree, Importation importation) throws IOException {
+        try (BufferedReader lecteur = reader(entree)) {
+            long numero = 0;
+            String ligne;
+            while ((ligne = lecteur.readLine()) != null) {
+                numero++;
+                if (ligne.isBlank()) {
+                    continue;
+                }
+                try {
+                    importation.ajouter(numero, objectMapper.readTree(ligne));
+                } catch (JsonProcessingException e) {
+                    importation.rejeter(numero, "JSON invalide: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    // En-tête obligatoire, colonnes nommées comme VolRequest ; champs entre guillemets acceptés
+    private void lireCsv(InputStream entree, Importation importation) throws IOException {
+        try (BufferedReader lecteur = reader(entree)) {
+            String entete = lecteur.readLine();
+            if (entete == null) {
+                return;
+            }
+            List<String> colonnes = splitCsv(entete.startsWith("\uFEFF") ? entete.substring(1) : entete);
+
+            long numero = 1;
+            String ligne;
+            while ((ligne = lecteur.readLine()) != null) {
+                numero++;
+                if (ligne.isBlank()) {
+                    continue;
+                }
+                List<String> valeurs = splitCsv(ligne);
+                if (valeurs.size() != colonnes.size()) {
+                    importation.rejeter(numero, "Nombre de colonnes: " + valeurs.size()
+                                                + ", attendu: " + colonnes.size());
+                    continue;
+                }
+                ObjectNode noeud = objectMapper.createObjectNode();
+                for (int i = 0; i < colonnes.size(); i++) {
+                    String valeur = valeurs.get(i);
+                    if (!valeur.isEmpty()) {
+                        noeud.put(colonnes.get(i).trim(), valeur);
+                    }
+                }
+                importation.ajouter(numero, noeud);
+            }
+        }
+    }
+
+    private static List<String> splitCsv(String ligne) {
+        List<String> valeurs = new ArrayList<>();
+        StringBuilder valeur = new StringBuilder();
+        boolean entreGuillemets = false;
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (entreGuillemets) {
+                if (c == '"' && i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                    valeur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreGuillemets = false;
+                } else {
+                    valeur.append(c);
+                }
+            } else if (c == '"') {
+                entreGuillemets = true;
+            } else if (c == ',') {
+                valeurs.add(valeur.toString());
+                valeur.setLength(0);
+            } else {
+                valeur.append(c);
+            }
+        }
+        valeurs.add(valeur.toString());
+        return valeurs;
+    }
+
+    private static BufferedReader reader(InputStream entree) {
+        return new BufferedReader(new InputStreamReader(entree, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Avancement d'un import suivi (job asynchrone).
+     */
+    public interface SuiviImport {
+
+        /**
+         * Appelé dans la transaction du lot : le point de reprise est validé avec les vols insérés.
+         * {@code avancement} porte les compteurs cumulés et les seules erreurs apparues depuis l'appel précédent.
+         */
+        void enregistrer(long derniereLigne, RapportImport avancement);
+
+        // Après le commit du lot, hors transaction
+        default void lotTermine() {}
+    }
+
+    /**
+     * État d'un import : lot en cours, compteurs et erreurs.
+     */
+    private final class Importation {
+
+        private final List<Vol> lot = new ArrayList<>(batchSize);
+        private final List<Long> numeros = new ArrayList<>(batchSize);
+        private final List<ErreurImport> erreurs = new ArrayList<>();
+        private final long reprise;
+        private final SuiviImport suivi;
+        private final long erreursAcquises;
+        private int erreursTransmises;
+        private long derniereLigne;
+        private long lignePointee;
+        private long lignesLues;
+        private long volsImportes;
+        private long lignesRejetees;
+        private boolean complet = true;
+
+        private Importation(long reprise, RapportImport acquis, SuiviImport suivi) {
+            this.reprise = reprise;
+            this.suivi = suivi;
+            this.derniereLigne = reprise;
+            this.lignePointee = reprise;
+            if (acquis != null) {
+                lignesLues = acquis.getLignesLues();
+                volsImportes = acquis.getVolsImportes();
+                lignesRejetees = acquis.getLignesRejetees();
+            }
+            this.erreursAcquises = Math.min(lignesRejetees, maxErrors);
+        }
+
+        private void ajouter(long numero, JsonNode noeud) {
+            // Ligne déjà traitée avant le point de reprise
+            if (numero <= reprise) {
+                return;
+            }
+            lignesLues++;
+            derniereLigne = numero;
+            VolRequest request;
+            try {
+                request = objectMapper.treeToValue(noeud, VolRequest.class);
+            } catch (JsonProcessingException e) {
+                erreur(numero, "Valeur invalide: " + e.getOriginalMessage());
+                return;
+            }
+
+            Set<ConstraintViolation<VolRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                erreur(numero, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+
+            lot.add(VolService.convertToEntity(request));
+            numeros.add(numero);
+            if (lot.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void rejeter(long numero, String message) {
+            if (numero <= reprise) {
+                return;
+            }
+            lignesLues++;
+            derniereLigne = numero;
+            erreur(numero, message);
+        }
+
+        private void erreur(long numero, String message) {
+            lignesRejetees++;
+            if (erreursAcquises + erreurs.size() < maxErrors) {
+                erreurs.add(new ErreurImport(numero, message));
+            }
+        }
+
+        private void interrompre(String message) {
+            complet = false;
+            erreurs.add(new ErreurImport(derniereLigne + 1, "Lecture interrompue: " + message));
+        }
+
+        private void flush() {
+            if (lot.isEmpty()) {
+                return;
+            }
+            try {
+                long importes = volsImportes + lot.size();
+                transactionTemplate.executeWithoutResult(status -> {
+                    lot.forEach(entityManager::persist);
+                    enregistrerReprise(importes);
+                    vider();
+                });
+                volsImportes = importes;
+            } catch (RuntimeException e) {
+                logger.warn("Échec de l'insertion d'un lot de {} vols, reprise ligne à ligne", lot.size(), e);
+                insertOneByOne();
+                // Un arrêt avant ce point rejoue les lignes du lot déjà insérées une à une
+                transactionTemplate.executeWithoutResult(status -> enregistrerReprise(volsImportes));
+            }
+            lot.clear();
+            numeros.clear();
+            lotValide();
+        }
+
+        // Isole la ligne fautive pour ne pas perdre le reste du lot
+        private void insertOneByOne() {
+            for (int i = 0; i < lot.size(); i++) {
+                Vol vol = lot.get(i);
+                vol.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        entityManager.persist(vol);
+                        vider();
+                    });
+                    volsImportes++;
+                } catch (RuntimeException e) {
+                    erreur(numeros.get(i), "Insertion refusée: " + e.getMessage());
+                }
+            }
+        }
+
+        // Écritures envoyées avant le commit, puis entités détachées
+        private void vider() {
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        private void terminer() {
+            flush();
+            // Lignes rejetées depuis le dernier lot
+            if (suivi != null && (derniereLigne > lignePointee || erreursTransmises < erreurs.size())) {
+                transactionTemplate.executeWithoutResult(status -> enregistrerReprise(volsImportes));
+                erreursTransmises = erreurs.size();
+                lignePointee = derniereLigne;
+            }
+        }
+
+        private void enregistrerReprise(long importes) {
+            if (suivi != null) {
+                List<ErreurImport> nouvelles = List.copyOf(erreurs.subList(erreursTransmises, erreurs.size()));
+                suivi.enregistrer(derniereLigne,
+                                  new RapportImport(lignesLues, importes, lignesRejetees, nouvelles, complet));
+            }
+        }
+
+        private void lotValide() {
+            erreursTransmises = erreurs.size();
+            lignePointee = derniereLigne;
+            volSearchCache.invalidateAll();
+            if (suivi != null) {
+                suivi.lotTermine();
+            }
+        }
+
+        private RapportImport rapport() {
+            return new RapportImport(lignesLues, volsImportes, lignesRejetees, List.copyOf(erreurs), complet);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.VolResume;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.CorrespondanceVille;
+import com.flight.reservation.repository.VolRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache des résultats de recherche de vols ({@code vol-recherche}).
+ * <p>
+ * La clé est le tuple de filtres normalisé (jours, villes normalisées, correspondance, tri).
+ * L'ajout de vols n'évince que les recherches dont les filtres retiennent l'un de ces vols,
+ * après commit. Les places disponibles ne sont jamais servies depuis la liste en cache :
+ * elles sont recouvertes à chaque lecture par l'admission en mémoire ou le cache {@code vol-places},
+ * les manquantes étant relues en une requête. Ce dernier est mis à jour en place à chaque
+ * réservation commitée plutôt qu'évincé.
+ * <p>
+ * Chaque vol a une génération de places, incrémentée quand une annulation rend des places
+ * ({@link #rendrePlaces}). Une valeur lue avant ce rendu est plus basse que les places réelles :
+ * l'appelant capture la génération avant sa lecture, et toute écriture dans {@code vol-places}
+ * ou le {@link SoldOutRegistry} portant une génération dépassée est ignorée.
+ */
+@Service
+public class VolSearchCache {
+
+    public static final String CACHE_RECHERCHE = "vol-recherche";
+    public static final String CACHE_PLACES = "vol-places";
+
+    private static final int TAILLE_LOT_IN = 500;
+    // Générations de places réparties par hachage de l'identifiant du vol : une collision ne fait
+    // qu'ignorer une écriture de plus, sans table qui grossit avec le nombre de vols
+    private static final int SEGMENTS_GENERATION = 1024;
+
+    private final VolRepository volRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final ReservationLedger reservationLedger;
+    private final SoldOutRegistry soldOutRegistry;
+    private final Cache<Object, Object> recherches;
+    private final Cache<Object, Object> places;
+
+    // Incrémentée à chaque invalidation : un résultat chargé pendant une invalidation n'est pas mis en cache
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLongArray generationsPlaces = new AtomicLongArray(SEGMENTS_GENERATION);
+    // Incrémentée à chaque rendu, tous vols confondus : une recherche chargée pendant un rendu ne remplit pas vol-places
+    private final AtomicLong rendus = new AtomicLong();
+
+    public VolSearchCache(VolRepository volRepository, SeatInventoryService seatInventoryService,
+                          ReservationLedger reservationLedger, SoldOutRegistry soldOutRegistry,
+                          CacheManager cacheManager) {
+        this.volRepository = volRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.reservationLedger = reservationLedger;
+        this.soldOutRegistry = soldOutRegistry;
+        this.recherches = nativeCache(cacheManager, CACHE_RECHERCHE);
+        this.places = nativeCache(cacheManager, CACHE_PLACES);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<VolResume> get(CleRecherche cle, Supplier<List<VolResume>> chargement) {
+        List<VolResume> vols = (List<VolResume>) recherches.getIfPresent(cle);
+        if (vols == null) {
+            long avant = generation.get();
+            long rendusAvant = rendus.get();
+            vols = List.copyOf(chargement.get());
+            if (generation.get() == avant) {
+                recherches.put(cle, vols);
+            }
+            // Tout juste lues : les places sont à jour, sauf si des places ont été rendues entre-temps
+            if (rendus.get() == rendusAvant) {
+                vols.forEach(vol -> places.asMap().putIfAbsent(vol.getId(), vol.getPlacesDisponibles()));
+                if (rendus.get() != rendusAvant) {
+                    vols.forEach(vol -> places.invalidate(vol.getId()));
+                }
+            }
+            return vols;
+        }
+        return withPlacesCourantes(vols);
+    }
+
+    /**
+     * Évince, après commit, les recherches qui retiendraient l'un de ces vols.
+     */
+    public void invalidate(Collection<Vol> vols) {
+        List<Vol> ajoutes = List.copyOf(vols);
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            recherches.asMap().keySet().removeIf(cle -> ajoutes.stream().anyMatch(((CleRecherche) cle)::retient));
+        });
+    }
+
+    /**
+     * Génération de places du vol, à capturer avant de lire ses places en base ou en mémoire.
+     */
+    public long generationPlaces(UUID volId) {
+        return generationsPlaces.get(segment(volId));
+    }
+
+    /**
+     * Places restantes d'un vol après une réservation, écrites après commit : un rollback ne laisse rien.
+     * Une réservation ne fait que diminuer les places, la plus petite valeur est donc la plus récente
+     * quel que soit l'ordre des commits concurrents. Un vol proche de sa capacité est aussi
+     * retenu par le {@link SoldOutRegistry}. Ignorées si des places ont été rendues depuis
+     * {@code generation}.
+     */
+    public void updatePlaces(UUID volId, int placesDisponibles, long generation) {
+        afterCommit(() -> ecrirePlaces(volId, generation, () -> {
+            places.asMap().merge(volId, placesDisponibles,
+                    (actuelles, nouvelles) -> Math.min((Integer) actuelles, (Integer) nouvelles));
+            soldOutRegistry.enregistrer(volId, placesDisponibles);
+        }));
+    }
+
+    /**
+     * Places rendues par une annulation : après commit, la génération du vol est incrémentée, puis
+     * le vol quitte {@code vol-places} et le registre des vols complets, dont les valeurs ne font que
+     * diminuer, et sera relu au prochain accès.
+     */
+    public void rendrePlaces(UUID volId) {
+        afterCommit(() -> {
+            generationsPlaces.incrementAndGet(segment(volId));
+            rendus.incrementAndGet();
+            places.invalidate(volId);
+            soldOutRegistry.oublier(volId);
+        });
+    }
+
+    /**
+     * Places lues en base lors d'un refus : un vol presque complet est retenu par le registre,
+     * sauf si des places ont été rendues depuis {@code generation}.
+     */
+    public void enregistrerPlacesLues(UUID volId, int placesDisponibles, long generation) {
+        ecrirePlaces(volId, generation, () -> soldOutRegistry.enregistrer(volId, placesDisponibles));
+    }
+
+    // Génération relue après l'écriture : un rendu passé entre la vérification et l'écriture
+    // n'a pas vu la valeur périmée, qui est retirée ici
+    private void ecrirePlaces(UUID volId, long generation, Runnable ecriture) {
+        if (generationPlaces(volId) != generation) {
+            return;
+        }
+        ecriture.run();
+        if (generationPlaces(volId) != generation) {
+            places.invalidate(volId);
+            soldOutRegistry.oublier(volId);
+        }
+    }
+
+    /**
+     * Places tenues par l'admission en mémoire (inventaire, ou registre en mode LEDGER), en avance
+     * sur {@code places_reservees} ; vide pour un vol qu'elle n'a pas chargé ou dans les autres modes.
+     */
+    public Optional<Integer> getPlacesAdmission(UUID volId) {
+        return seatInventoryService.getPlacesDisponibles(volId)
+                .or(() -> reservationLedger.getPlacesDisponibles(volId));
+    }
+
+    /**
+     * Places restantes connues sans accès base : admission en mémoire, sinon la plus petite valeur
+     * du registre des vols complets et de {@code vol-places}. Les places ne faisant que diminuer
+     * entre deux évictions, la valeur n'est jamais inférieure aux places réelles.
+     */
+    public Optional<Integer> getPlacesEnMemoire(UUID volId) {
+        Optional<Integer> admission = getPlacesAdmission(volId);
+        if (admission.isPresent()) {
+            return admission;
+        }
+        Integer enCache = (Integer) places.getIfPresent(volId);
+        Optional<Integer> registre = soldOutRegistry.getPlacesRestantes(volId);
+        if (enCache == null) {
+            return registre;
+        }
+        return Optional.of(registre.filter(restantes -> restantes < enCache).orElse(enCache));
+    }
+
+    /**
+     * Places d'un vol tout juste lu en base, corrigées par ce que sait la mémoire : l'admission en
+     * mémoire est en avance sur la base, {@code vol-places} et le registre des vols complets sur
+     * une réplique en retard. N'étant jamais inférieurs aux places réelles, ces derniers ne sont
+     * retenus que s'ils sont plus petits que la valeur lue.
+     */
+    public VolResume withPlacesEnMemoire(VolResume vol) {
+        Integer lues = vol.getPlacesDisponibles();
+        Integer placesDisponibles = getPlacesAdmission(vol.getId())
+                .or(() -> getPlacesEnMemoire(vol.getId()).filter(enMemoire -> enMemoire < lues))
+                .orElse(lues);
+        return placesDisponibles.equals(lues) ? vol : vol.withPlacesDisponibles(placesDisponibles);
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            recherches.invalidateAll();
+        });
+    }
+
+    private List<VolResume> withPlacesCourantes(List<VolResume> vols) {
+        Map<UUID, Integer> courantes = new HashMap<>(vols.size() * 2);
+        List<UUID> manquants = new ArrayList<>();
+        for (VolResume vol : vols) {
+            Integer placesDisponibles = getPlacesAdmission(vol.getId())
+                    .orElseGet(() -> (Integer) places.getIfPresent(vol.getId()));
+            if (placesDisponibles != null) {
+                courantes.put(vol.getId(), placesDisponibles);
+            } else {
+                manquants.add(vol.getId());
+            }
+        }
+
+        for (int debut = 0; debut < manquants.size(); debut += TAILLE_LOT_IN) {
+            List<UUID> lot = manquants.subList(debut, Math.min(debut + TAILLE_LOT_IN, manquants.size()));
+            Map<UUID, Long> generations = new HashMap<>(lot.size() * 2);
+            lot.forEach(volId -> generations.put(volId, generationPlaces(volId)));
+            for (Object[] ligne : volRepository.findPlacesDisponiblesByVolIds(lot)) {
+                UUID volId = (UUID) ligne[0];
+                Integer placesDisponibles = ((Number) ligne[1]).intValue();
+                courantes.put(volId, placesDisponibles);
+                ecrirePlaces(volId, generations.get(volId), () -> places.asMap().putIfAbsent(volId, placesDisponibles));
+            }
+        }
+
+        List<VolResume> resultat = new ArrayList<>(vols.size());
+        for (VolResume vol : vols) {
+            Integer placesDisponibles = courantes.get(vol.getId());
+            resultat.add(placesDisponibles == null || placesDisponibles.equals(vol.getPlacesDisponibles())
+                    ? vol : vol.withPlacesDisponibles(placesDisponibles));
+        }
+        return resultat;
+    }
+
+    private static int segment(UUID volId) {
+        return (volId.hashCode() & Integer.MAX_VALUE) % SEGMENTS_GENERATION;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String nom) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(nom);
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            throw new IllegalStateException("Cache Caffeine attendu: " + nom);
+        }
+        return caffeineCache.getNativeCache();
+    }
+
+    /**
+     * Filtres d'une recherche, normalisés comme les colonnes interrogées.
+     */
+    public record CleRecherche(LocalDate jourDepart, LocalDate jourArrivee, String villeDepart,
+                               String villeArrivee, CorrespondanceVille correspondance, String tri) {
+
+        public static CleRecherche of(LocalDateTime dateDepart, LocalDateTime dateArrivee,
+                                      String villeDepart, String villeArrivee,
+                                      CorrespondanceVille correspondance, String tri) {
+            return new CleRecherche(
+                    dateDepart != null ? dateDepart.toLocalDate() : null,
+                    dateArrivee != null ? dateArrivee.toLocalDate() : null,
+                    Vol.normaliserVille(villeDepart),
+                    Vol.normaliserVille(villeArrivee),
+                    correspondance,
+                    tri != null ? tri.toLowerCase() : null);
+        }
+
+        // Mêmes règles que VolSpecification, évaluées sur un vol en mémoire
+        boolean retient(Vol vol) {
+            return (jourDepart == null || jourDepart.equals(vol.getDateDepart().toLocalDate()))
+                    && (jourArrivee == null || jourArrivee.equals(vol.getDateArrivee().toLocalDate()))
+                    && matches(villeDepart, vol.getVilleDepart())
+                    && matches(villeArrivee, vol.getVilleArrivee());
+        }
+
+        private boolean matches(String filtre, String ville) {
+            if (filtre == null || (filtre.isEmpty() && correspondance != CorrespondanceVille.EXACT)) {
+                return true;
+            }
+            String valeur = Vol.normaliserVille(ville);
+            return switch (correspondance) {
+                case EXACT -> valeur.equals(filtre);
+                case PREFIX -> valeur.startsWith(filtre);
+                case CONTAINS -> valeur.contains(filtre);
+            };
+        }
+    }
+}
@@ -1,70 +1,178 @@
 package com.flight.reservation.service;
 
+import com.flight.reservation.dto.PageVols;
 import com.flight.reservation.dto.VolRequest;
+import com.flight.reservation.dto.VolResume;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.CorrespondanceVille;
+import com.flight.reservation.exception.CurseurInvalideException;
 import com.flight.reservation.repository.VolRepository;
 import com.flight.reservation.specification.VolSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Sort;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class VolService {
 
+    private static final Logger logger = LoggerFactory.getLogger(VolService.class);
+
     private final VolRepository volRepository;
+    private final VolSearchCache volSearchCache;
+    private final CorrespondanceVille correspondanceParDefaut;
+    private final int taillePageParDefaut;
+    private final int taillePageMax;
 
-    public VolService(VolRepository volRepository) {
+    public VolService(VolRepository volRepository, VolSearchCache volSearchCache,
+                      @Value("${search.ville-match:PREFIX}") CorrespondanceVille correspondanceParDefaut,
+                      @Value("${search.page.default-size:50}") int taillePageParDefaut,
+                      @Value("${search.page.max-size:500}") int taillePageMax) {
         this.volRepository = volRepository;
+        this.volSearchCache = volSearchCache;
+        this.correspondanceParDefaut = correspondanceParDefaut != null ? correspondanceParDefaut : CorrespondanceVille.PREFIX;
+        this.taillePageParDefaut = taillePageParDefaut;
+        this.taillePageMax = taillePageMax;
     }
 
     @Transactional(readOnly = true)
-    public List<Vol> findAll(LocalDateTime dateDepart, LocalDateTime dateArrivee,
+    public List<VolResume> findAll(LocalDateTime dateDepart, LocalDateTime dateArrivee,
                              String villeDepart, String villeArrivee, String tri) {
+        return findAll(dateDepart, dateArrivee, villeDepart, villeArrivee, tri, correspondanceParDefaut);
+    }
 
-        Specification<Vol> spec = Specification.where(VolSpecification.hasDateDepart(dateDepart))
-                .and(VolSpecification.hasDateArrivee(dateArrivee))
-                .and(VolSpecification.hasVilleDepart(villeDepart))
-                .and(VolSpecification.hasVilleArrivee(villeArrivee));
+    @Transactional(readOnly = true)
+    public List<VolResume> findAll(LocalDateTime dateDepart, LocalDateTime dateArrivee,
+                             String villeDepart, String villeArrivee, String tri,
+                             CorrespondanceVille correspondance) {
+        CorrespondanceVille mode = correspondance != null ? correspondance : correspondanceParDefaut;
+        VolSearchCache.CleRecherche cle = VolSearchCache.CleRecherche.of(dateDepart, dateArrivee,
+                                                                         villeDepart, villeArrivee, mode, tri);
+
+        return volSearchCache.get(cle, () -> volRepository.findResumes(
+                createSpecification(dateDepart, dateArrivee, villeDepart, villeArrivee, mode), createSort(tri), 0));
+    }
+
+    /**
+     * Page suivant le curseur, triée par le critère {@code tri} (départ par défaut) puis par id.
+     * Le curseur rendu reprend après le dernier vol de la page : ni OFFSET ni comptage.
+     */
+    @Transactional(readOnly = true)
+    public PageVols findPage(LocalDateTime dateDepart, LocalDateTime dateArrivee,
+                             String villeDepart, String villeArrivee, String tri,
+                             CorrespondanceVille correspondance, String curseur, Integer limit) {
+        CleTri cle = CleTri.of(tri);
+        int taille = Math.min(limit != null && limit > 0 ? limit : taillePageParDefaut, taillePageMax);
+
+        Specification<Vol> spec = createSpecification(dateDepart, dateArrivee, villeDepart, villeArrivee, correspondance);
+        if (curseur != null) {
+            spec = spec.and(decodeCurseur(cle, curseur));
+        }
 
-        Sort sort = createSort(tri);
+        // Un vol de plus que la page : indique s'il existe une suite
+        List<VolResume> vols = volRepository.findResumes(spec, cle.sort(), taille + 1);
+        String suivant = null;
+        if (vols.size() > taille) {
+            vols = vols.subList(0, taille);
+            suivant = encodeCurseur(cle, vols.get(taille - 1));
+        }
+        return new PageVols(vols.stream().map(volSearchCache::withPlacesEnMemoire).toList(), suivant);
+    }
 
-        if (sort != null) {
-            return volRepository.findAll(spec, sort);
-        } else {
-            return volRepository.findAll(spec);
+    /**
+     * Parcourt les vols depuis un curseur base de données, un par un : aucune entité n'est chargée,
+     * la mémoire reste constante quelle que soit la taille du résultat. Les places de chaque vol
+     * sont corrigées comme celles de la recherche ({@link VolSearchCache#withPlacesEnMemoire}).
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(LocalDateTime dateDepart, LocalDateTime dateArrivee,
+                          String villeDepart, String villeArrivee, String tri,
+                          CorrespondanceVille correspondance, Consumer<VolResume> consumer) {
+        Specification<Vol> spec = createSpecification(dateDepart, dateArrivee, villeDepart, villeArrivee, correspondance);
+
+        try (Stream<VolResume> vols = volRepository.streamResumes(spec, createSort(tri))) {
+            vols.map(volSearchCache::withPlacesEnMemoire).forEach(consumer);
         }
     }
 
+    // sync : un chargement en cours bloque les mises à jour après commit de la même clé
     @Transactional(readOnly = true)
-    @Cacheable(value = "vol-places", key = "#volId")
+    @Cacheable(value = "vol-places", key = "#volId", sync = true)
     public Integer getPlacesDisponibles(UUID volId) {
-        return volRepository.findById(volId)
-                .map(Vol::getPlacesDisponibles)
-                .orElse(0);
+        // L'admission en mémoire est en avance sur la base tant que ses places ne sont pas reportées
+        return volSearchCache.getPlacesAdmission(volId)
+                .orElseGet(() -> volRepository.findPlacesDisponiblesByVolId(volId).orElse(0));
+    }
+
+    /**
+     * Génération de places du vol, à capturer avant de lire ses places ({@link VolSearchCache#generationPlaces}).
+     */
+    public long generationPlaces(UUID volId) {
+        return volSearchCache.generationPlaces(volId);
+    }
+
+    /**
+     * Écrit dans {@code vol-places} les places restantes après une réservation, une fois la transaction commitée,
+     * si aucune place n'a été rendue depuis {@code generation} ({@link VolSearchCache#generationPlaces}).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void updatePlacesCache(UUID volId, int placesDisponibles, long generation) {
+        volSearchCache.updatePlaces(volId, placesDisponibles, generation);
     }
 
     public List<Vol> saveAll(List<VolRequest> volRequests) {
         List<Vol> vols = volRequests.stream()
-                .map(this::convertToEntity)
+                .map(VolService::convertToEntity)
                 .toList();
 
-        return volRepository.saveAll(vols);
+        List<Vol> saved = volRepository.saveAll(vols);
+        volSearchCache.invalidate(saved);
+        return saved;
     }
 
+    // Renseigne les clés de recherche des vols antérieurs aux colonnes normalisées
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexerVolsExistants() {
+        List<Vol> vols = volRepository.findSansCleDeRecherche();
+        if (vols.isEmpty()) {
+            return;
+        }
+        vols.forEach(vol -> {
+            vol.setVilleDepart(vol.getVilleDepart());
+            vol.setVilleArrivee(vol.getVilleArrivee());
+        });
+        volRepository.saveAll(vols);
+        volSearchCache.invalidateAll();
+        logger.info("Clés de recherche calculées pour {} vols existants", vols.size());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
     @CacheEvict(value = "vol-places", key = "#volId")
     public void evictCache(UUID volId) {
         // Cache éviction automatique
     }
 
-    private Vol convertToEntity(VolRequest request) {
+    static Vol convertToEntity(VolRequest request) {
         return new Vol(
                 request.getDateTimeDepart(),
                 request.getDateTimeArrivee(),
@@ -76,6 +184,35 @@ public class VolService {
         );
     }
 
+    private Specification<Vol> createSpecification(LocalDateTime dateDepart, LocalDateTime dateArrivee,
+                                                   String villeDepart, String villeArrivee,
+                                                   CorrespondanceVille correspondance) {
+        CorrespondanceVille mode = correspondance != null ? correspondance : correspondanceParDefaut;
+
+        return Specification.where(VolSpecification.hasDateDepart(dateDepart))
+                .and(VolSpecification.hasDateArrivee(dateArrivee))
+                .and(VolSpecification.hasVilleDepart(villeDepart, mode))
+                .and(VolSpecification.hasVilleArrivee(villeArrivee, mode));
+    }
+
+    // Curseur opaque : "critère|valeur|id" en Base64 URL
+    private String encodeCurseur(CleTri cle, VolResume dernier) {
+        String brut = cle.name() + "|" + cle.valeur.apply(dernier) + "|" + dernier.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Specification<Vol> decodeCurseur(CleTri cle, String curseur) {
+        try {
+            String[] parties = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8).split("\\|");
+            if (parties.length != 3 || !cle.name().equals(parties[0])) {
+                throw new CurseurInvalideException("Curseur non valide pour ce tri");
+            }
+            return VolSpecification.isAfter(cle.attribut, cle.parse.apply(parties[1]), UUID.fromString(parties[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CurseurInvalideException("Curseur illisible", e);
+        }
+    }
+
     private Sort createSort(String tri) {
         if (tri == null) {
             return null;
@@ -84,7 +221,40 @@ public class VolService {
         return switch (tri.toLowerCase()) {
             case "prix" -> Sort.by("prix").ascending();
             case "temps_trajet" -> Sort.by("tempsTrajet").ascending();
+            case "date_depart" -> Sort.by("dateDepart").ascending();
             default -> null;
         };
     }
+
+    // Critères de tri paginables, départ par défaut ; l'id départage les égalités
+    private enum CleTri {
+        PRIX("prix", VolResume::getPrix, BigDecimal::new),
+        TEMPS_TRAJET("tempsTrajet", VolResume::getTempsTrajet, Integer::valueOf),
+        DATE_DEPART("dateDepart", VolResume::getDateDepart, LocalDateTime::parse);
+
+        private final String attribut;
+        private final Function<VolResume, Object> valeur;
+        private final Function<String, Comparable<?>> parse;
+
+        CleTri(String attribut, Function<VolResume, Object> valeur, Function<String, Comparable<?>> parse) {
+            this.attribut = attribut;
+            this.valeur = valeur;
+            this.parse = parse;
+        }
+
+        private Sort sort() {
+            return Sort.by(attribut).ascending().and(Sort.by("id").ascending());
+        }
+
+        private static CleTri of(String tri) {
+            if (tri == null) {
+                return DATE_DEPART;
+            }
+            return switch (tri.toLowerCase()) {
+                case "prix" -> PRIX;
+                case "temps_trajet" -> TEMPS_TRAJET;
+                default -> DATE_DEPART;
+            };
+        }
+    }
 }
@@ -1,41 +1,88 @@
 package com.flight.reservation.specification;
 
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.CorrespondanceVille;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class VolSpecification {
     
     public static Specification<Vol> hasDateDepart(LocalDateTime dateDepart) {
         return (root, query, criteriaBuilder) -> 
-            dateDepart == null ? null : criteriaBuilder.equal(
-                criteriaBuilder.function("date", String.class, root.get("dateDepart")),
-                criteriaBuilder.function("date", String.class, criteriaBuilder.literal(dateDepart))
-            );
+            dateDepart == null ? null : sameDay(criteriaBuilder, root.get("dateDepart"), dateDepart);
     }
     
     public static Specification<Vol> hasDateArrivee(LocalDateTime dateArrivee) {
         return (root, query, criteriaBuilder) -> 
-            dateArrivee == null ? null : criteriaBuilder.equal(
-                criteriaBuilder.function("date", String.class, root.get("dateArrivee")),
-                criteriaBuilder.function("date", String.class, criteriaBuilder.literal(dateArrivee))
-            );
+            dateArrivee == null ? null : sameDay(criteriaBuilder, root.get("dateArrivee"), dateArrivee);
     }
     
-    public static Specification<Vol> hasVilleDepart(String villeDepart) {
+    public static Specification<Vol> hasVilleDepart(String villeDepart, CorrespondanceVille correspondance) {
         return (root, query, criteriaBuilder) -> 
-            villeDepart == null ? null : criteriaBuilder.like(
-                criteriaBuilder.lower(root.get("villeDepart")),
-                "%" + villeDepart.toLowerCase() + "%"
-            );
+            villeDepart == null ? null : matchVille(criteriaBuilder, root.get("villeDepartNormalisee"),
+                                                    villeDepart, correspondance);
     }
     
-    public static Specification<Vol> hasVilleArrivee(String villeArrivee) {
+    public static Specification<Vol> hasVilleArrivee(String villeArrivee, CorrespondanceVille correspondance) {
         return (root, query, criteriaBuilder) -> 
-            villeArrivee == null ? null : criteriaBuilder.like(
-                criteriaBuilder.lower(root.get("villeArrivee")),
-                "%" + villeArrivee.toLowerCase() + "%"
+            villeArrivee == null ? null : matchVille(criteriaBuilder, root.get("villeArriveeNormalisee"),
+                                                     villeArrivee, correspondance);
+    }
+    
+    // Keyset : lignes strictement après (valeur, id) dans l'ordre attribut ASC, id ASC
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Vol> isAfter(String attribut, Comparable valeur, UUID id) {
+        return (root, query, criteriaBuilder) -> {
+            Path colonne = root.get(attribut);
+            return criteriaBuilder.or(
+                criteriaBuilder.greaterThan(colonne, valeur),
+                criteriaBuilder.and(
+                    criteriaBuilder.equal(colonne, valeur),
+                    criteriaBuilder.greaterThan(root.get("id"), id)
+                )
+            );
+        };
+    }
+    
+    // Comparaison sur la colonne normalisée : EXACT et PREFIX parcourent l'index, CONTAINS garde l'ancien LIKE '%x%'
+    private static Predicate matchVille(CriteriaBuilder criteriaBuilder, Path<String> colonne,
+                                        String ville, CorrespondanceVille correspondance) {
+        String cle = Vol.normaliserVille(ville);
+        if (cle.isEmpty() && correspondance != CorrespondanceVille.EXACT) {
+            return null;
+        }
+        return switch (correspondance) {
+            case EXACT -> criteriaBuilder.equal(colonne, cle);
+            // Intervalle [cle, successeur[ plutôt que LIKE 'x%', que SQLite n'optimise pas sans NOCASE
+            case PREFIX -> criteriaBuilder.and(
+                criteriaBuilder.greaterThanOrEqualTo(colonne, cle),
+                criteriaBuilder.lessThan(colonne, successeur(cle))
             );
+            case CONTAINS -> criteriaBuilder.like(colonne, "%" + echapperLike(cle) + "%", '\\');
+        };
+    }
+    
+    private static String successeur(String prefixe) {
+        int fin = prefixe.length() - 1;
+        return prefixe.substring(0, fin) + (char) (prefixe.charAt(fin) + 1);
+    }
+    
+    private static String echapperLike(String valeur) {
+        return valeur.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    // Intervalle [jour, jour + 1[ plutôt que date(colonne), portable et utilisable par un index
+    private static Predicate sameDay(CriteriaBuilder criteriaBuilder, Path<LocalDateTime> colonne,
+                                     LocalDateTime jour) {
+        LocalDateTime debut = jour.toLocalDate().atStartOfDay();
+        return criteriaBuilder.and(
+            criteriaBuilder.greaterThanOrEqualTo(colonne, debut),
+            criteriaBuilder.lessThan(colonne, debut.plusDays(1))
+        );
     }
 }
\ No newline at end of file
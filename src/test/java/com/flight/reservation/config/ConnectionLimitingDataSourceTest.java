@@ -0,0 +1,50 @@
+package com.flight.reservation.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    @Test
+    void should_wait_for_a_permit_and_release_it_once_on_close() throws Exception {
+        // Given - une seule connexion autorisée
+        DataSource cible = mock(DataSource.class);
+        Connection connexion = mock(Connection.class);
+        when(cible.getConnection()).thenReturn(connexion);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(cible, 1, 50);
+
+        // When
+        Connection premiere = dataSource.getConnection();
+
+        // Then - la suivante attend puis échoue faute de permis
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        premiere.close();
+        premiere.close();
+        verify(connexion, times(2)).close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+
+        Connection seconde = dataSource.getConnection();
+        seconde.setAutoCommit(false);
+        verify(connexion).setAutoCommit(false);
+        assertThat(dataSource.getAvailablePermits()).isZero();
+    }
+
+    @Test
+    void should_release_permit_when_target_fails() throws Exception {
+        // Given
+        DataSource cible = mock(DataSource.class);
+        when(cible.getConnection()).thenThrow(new SQLTransientConnectionException("base verrouillée"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(cible, 1, 50);
+
+        // When & Then
+        assertThatThrownBy(dataSource::getConnection).hasMessage("base verrouillée");
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.flight.reservation.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqliteSchemaUpgradeTest {
+
+    @TempDir
+    Path repertoire;
+
+    @Test
+    void should_rebuild_audit_logs_with_widened_status_check() throws Exception {
+        // Given - table créée avant l'ajout de CANCELLED, avec un index et des lignes
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + repertoire.resolve("f.db"));
+        try (Connection connexion = dataSource.getConnection(); Statement statement = connexion.createStatement()) {
+            statement.execute("create table audit_logs (id integer, email_passager varchar(100) not null, "
+                    + "statut varchar(255) not null check (statut in ('SUCCESS','FAILED')), primary key (id))");
+            statement.execute("create index idx_audit_email on audit_logs (email_passager)");
+            statement.execute("insert into audit_logs values (1, 'first@email.com', 'SUCCESS'), (2, 'second@email.com', 'FAILED')");
+        }
+
+        // When - deux démarrages successifs
+        new SqliteSchemaUpgrade(dataSource).upgrade();
+        new SqliteSchemaUpgrade(dataSource).upgrade();
+
+        // Then - lignes et index conservés, CANCELLED admis, toute autre valeur toujours refusée
+        try (Connection connexion = dataSource.getConnection(); Statement statement = connexion.createStatement()) {
+            statement.execute("insert into audit_logs values (3, 'third@email.com', 'CANCELLED')");
+            assertThatThrownBy(() -> statement.execute("insert into audit_logs values (4, 'x@email.com', 'PENDING')"))
+                    .isInstanceOf(SQLException.class);
+            try (ResultSet lignes = statement.executeQuery("select count(*) from audit_logs")) {
+                lignes.next();
+                assertThat(lignes.getInt(1)).isEqualTo(3);
+            }
+            try (ResultSet index = statement.executeQuery(
+                    "select count(*) from sqlite_master where type = 'index' and name = 'idx_audit_email'")) {
+                index.next();
+                assertThat(index.getInt(1)).isEqualTo(1);
+            }
+            try (ResultSet tables = statement.executeQuery(
+                    "select name from sqlite_master where type = 'table' and name like 'audit_logs%'")) {
+                tables.next();
+                assertThat(tables.getString(1)).isEqualTo("audit_logs");
+                assertThat(tables.next()).isFalse();
+            }
+        }
+    }
+}
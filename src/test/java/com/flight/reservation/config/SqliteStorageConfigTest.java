@@ -0,0 +1,19 @@
+package com.flight.reservation.config;
+
+import com.flight.reservation.enums.DebordementAudit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqliteStorageConfigTest {
+
+    @Test
+    void should_refuse_caller_runs_audit_with_single_writer() {
+        // When & Then - l'audit sur le thread appelant attendrait la connexion d'écriture de la réservation
+        assertThatThrownBy(() -> new SqliteStorageConfig().readWritePools(
+                new SimpleMeterRegistry(), 1_000, 1, 1_000, DebordementAudit.CALLER_RUNS))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("CALLER_RUNS");
+    }
+}
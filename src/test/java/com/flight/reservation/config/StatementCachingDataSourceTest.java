@@ -0,0 +1,75 @@
+package com.flight.reservation.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StatementCachingDataSourceTest {
+
+    private static final String SELECT = "select places_reservees from vols where id = ?";
+    private static final String UPDATE = "update vols set places_reservees = ? where id = ?";
+
+    @Test
+    void should_reuse_closed_statement_for_same_sql() throws Exception {
+        // Given
+        Connection connexion = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connexion.prepareStatement(SELECT)).thenReturn(statement);
+        Connection cachee = new StatementCachingDataSource(cible(connexion), 8).getConnection();
+
+        // When
+        PreparedStatement premiere = cachee.prepareStatement(SELECT);
+        premiere.setInt(1, 42);
+        premiere.close();
+        PreparedStatement seconde = cachee.prepareStatement(SELECT);
+
+        // Then - une seule préparation, paramètres remis à zéro, jamais réellement fermée
+        assertThat(premiere.isClosed()).isTrue();
+        assertThat(seconde.isClosed()).isFalse();
+        verify(connexion, times(1)).prepareStatement(SELECT);
+        verify(statement).setInt(1, 42);
+        verify(statement).clearParameters();
+        verify(statement, never()).close();
+
+        // Fermeture de la connexion : les requêtes en cache sont fermées avec elle
+        seconde.close();
+        cachee.close();
+        verify(statement).close();
+        verify(connexion).close();
+    }
+
+    @Test
+    void should_close_least_recently_used_and_modified_statements() throws Exception {
+        // Given - une seule requête gardée par connexion
+        Connection connexion = mock(Connection.class);
+        PreparedStatement select = mock(PreparedStatement.class);
+        PreparedStatement update = mock(PreparedStatement.class);
+        PreparedStatement selectLimite = mock(PreparedStatement.class);
+        when(connexion.prepareStatement(SELECT)).thenReturn(select, selectLimite);
+        when(connexion.prepareStatement(UPDATE)).thenReturn(update);
+        Connection cachee = new StatementCachingDataSource(cible(connexion), 1).getConnection();
+
+        // When
+        cachee.prepareStatement(SELECT).close();
+        cachee.prepareStatement(UPDATE).close();
+        PreparedStatement limitee = cachee.prepareStatement(SELECT);
+        limitee.setMaxRows(10);
+        limitee.close();
+
+        // Then - SELECT évincée par UPDATE, puis la version limitée n'est pas gardée
+        verify(select).close();
+        verify(selectLimite).close();
+        verify(update, never()).close();
+    }
+
+    private static DataSource cible(Connection connexion) throws Exception {
+        DataSource cible = mock(DataSource.class);
+        when(cible.getConnection()).thenReturn(connexion);
+        return cible;
+    }
+}
@@ -0,0 +1,117 @@
+package com.flight.reservation.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AnnulationIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Vol vol;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        vol = volRepository.save(new Vol(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2),
+                "Paris", "Lyon", new BigDecimal("150.00"), 120, 10));
+    }
+
+    @Test
+    void should_release_seats_once_when_cancelling_a_reservation() throws Exception {
+        // Given - places mises en cache après la réservation
+        UUID reservationId = reserver(3);
+        mockMvc.perform(get("/api/vols/{id}/places", vol.getId())).andExpect(content().string("7"));
+
+        // When
+        mockMvc.perform(delete("/api/reservations/{id}", reservationId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservationsAnnulees").value(1))
+                .andExpect(jsonPath("$.placesLiberees").value(3));
+
+        // Then - une seconde annulation ne rend rien
+        mockMvc.perform(get("/api/vols/{id}/places", vol.getId())).andExpect(content().string("10"));
+        mockMvc.perform(delete("/api/reservations/{id}", reservationId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("RESERVATION_ALREADY_CANCELLED"));
+        mockMvc.perform(delete("/api/reservations/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("RESERVATION_NOT_FOUND"));
+        assertThat(volRepository.findPlacesReserveesByVolId(vol.getId())).contains(0);
+    }
+
+    @Test
+    void should_cancel_every_reservation_of_a_cancelled_flight() throws Exception {
+        // Given - vol complet
+        reserver(4);
+        reserver(6);
+        mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON)
+                        .content(requete(1)))
+                .andExpect(status().isBadRequest());
+
+        // When
+        mockMvc.perform(delete("/api/vols/{id}/reservations", vol.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservationsAnnulees").value(2))
+                .andExpect(jsonPath("$.placesLiberees").value(10));
+
+        // Then - les places sont de nouveau réservables
+        reserver(1);
+        assertThat(volRepository.findPlacesReserveesByVolId(vol.getId())).contains(1);
+        assertThat(reservationRepository.sumNombrePlacesByVolId(vol.getId())).isEqualTo(1L);
+    }
+
+    private UUID reserver(int places) throws Exception {
+        String reponse = mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON)
+                        .content(requete(places)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode reservation = objectMapper.readTree(reponse);
+        return UUID.fromString(reservation.get("numeroReservation").asText());
+    }
+
+    private String requete(int places) throws Exception {
+        Passager passager = new Passager("Test", "User", "test@email.com");
+        return objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, places));
+    }
+}
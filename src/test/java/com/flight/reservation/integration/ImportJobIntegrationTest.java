@@ -0,0 +1,141 @@
+package com.flight.reservation.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.entity.ImportJob;
+import com.flight.reservation.enums.FormatImport;
+import com.flight.reservation.enums.StatutImport;
+import com.flight.reservation.repository.ImportJobRepository;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.ImportJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "import.batch-size=2",
+        "import.jobs.directory=target/import-jobs-test",
+        "import.jobs.pause-ms=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ImportJobIntegrationTest {
+
+    private static final String CSV = """
+            dateDepart,dateArrivee,villeDepart,villeArrivee,prix,tempsTrajet
+            2030-06-01,2030-06-01,Paris,Nice,120.00,70
+            2030-06-01,2030-06-01,Paris,Nice,-5,70
+            2030-06-02,2030-06-02,Nice,Paris,110.00,70
+            2030-06-03,2030-06-03,Lyon,Nantes,80,75
+            2030-06-04,2030-06-04,Nantes,Lyon,85,75
+            """;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void should_run_import_in_background_and_report_progress() throws Exception {
+        // When
+        MvcResult soumission = mockMvc.perform(post("/api/vols/imports").contentType("text/csv").content(CSV))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.statut").value("EN_ATTENTE"))
+                .andReturn();
+        String id = objectMapper.readTree(soumission.getResponse().getContentAsString()).get("id").asText();
+
+        // Then
+        JsonNode job = attendreFin(id);
+        assertThat(job.get("statut").asText()).isEqualTo("TERMINE");
+        assertThat(job.get("lignesLues").asLong()).isEqualTo(5);
+        assertThat(job.get("volsImportes").asLong()).isEqualTo(4);
+        assertThat(job.get("lignesRejetees").asLong()).isEqualTo(1);
+        assertThat(job.get("erreurs").get(0).get("ligne").asLong()).isEqualTo(3);
+        assertThat(volRepository.count()).isEqualTo(4);
+        assertThat(Path.of("target/import-jobs-test")).isEmptyDirectory();
+    }
+
+    @Test
+    void should_resume_interrupted_job_after_last_committed_batch() throws Exception {
+        // Given - job arrêté après un lot validé couvrant les lignes 2 et 3
+        Path fichier = Files.createDirectories(Path.of("target/import-jobs-test")).resolve("reprise.csv");
+        Files.writeString(fichier, CSV, StandardCharsets.UTF_8);
+        ImportJob job = new ImportJob(FormatImport.CSV, fichier.toString());
+        job.setStatut(StatutImport.EN_COURS);
+        job.setDerniereLigne(3);
+        job.setLignesLues(2);
+        job.setVolsImportes(1);
+        job.setLignesRejetees(1);
+        job = importJobRepository.save(job);
+
+        // When
+        importJobService.reprendreJobs();
+
+        // Then - seules les lignes suivantes sont importées, les compteurs sont cumulés
+        JsonNode resultat = attendreFin(job.getId().toString());
+        assertThat(resultat.get("statut").asText()).isEqualTo("TERMINE");
+        assertThat(resultat.get("lignesLues").asLong()).isEqualTo(5);
+        assertThat(resultat.get("volsImportes").asLong()).isEqualTo(4);
+        assertThat(volRepository.count()).isEqualTo(3);
+        assertThat(fichier).doesNotExist();
+    }
+
+    @Test
+    void should_return_404_for_unknown_job() throws Exception {
+        mockMvc.perform(get("/api/vols/imports/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("IMPORT_JOB_NOT_FOUND"));
+    }
+
+    private JsonNode attendreFin(String id) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            MvcResult result = mockMvc.perform(get("/api/vols/imports/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode job = objectMapper.readTree(result.getResponse().getContentAsString());
+            String statut = job.get("statut").asText();
+            if (statut.equals("TERMINE") || statut.equals("ECHEC")) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Import " + id + " non terminé");
+    }
+}
@@ -0,0 +1,210 @@
+package com.flight.reservation.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.entity.EcritureLedger;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.TypeEcriture;
+import com.flight.reservation.repository.EcritureLedgerRepository;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.AnnulationService;
+import com.flight.reservation.service.ReservationLedger;
+import com.flight.reservation.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Instantané périodique désactivé : les tests le déclenchent eux-mêmes
+@SpringBootTest(properties = {
+        "reservation.mode=LEDGER",
+        "reservation.ledger.snapshot-interval-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class LedgerIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EcritureLedgerRepository ecritureLedgerRepository;
+
+    @Autowired
+    private ReservationLedger reservationLedger;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private AnnulationService annulationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Vol vol;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        vol = volRepository.save(new Vol(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2),
+                "Paris", "Lyon", new BigDecimal("150.00"), 120, 10));
+    }
+
+    @Test
+    void should_sell_exactly_the_capacity_and_snapshot_the_ledger() throws Exception {
+        // Given - 40 demandes d'une place, lancées ensemble, pour 10 places
+        int demandes = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch depart = new CountDownLatch(1);
+
+        try {
+            // When
+            List<CompletableFuture<Integer>> futures = IntStream.range(0, demandes)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            depart.await();
+                            Passager passager = new Passager("User" + i, "Test", "user" + i + "@email.com");
+                            return mockMvc.perform(post("/api/reservations")
+                                            .contentType(MediaType.APPLICATION_JSON)
+                                            .content(objectMapper.writeValueAsString(
+                                                    new ReservationRequest(vol.getId(), passager, 1))))
+                                    .andReturn().getResponse().getStatus();
+                        } catch (Exception e) {
+                            return -1;
+                        }
+                    }, executor))
+                    .toList();
+            depart.countDown();
+
+            Map<Integer, Long> statuts = futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+            // Then - une écriture par réservation, la ligne du vol intacte jusqu'à l'instantané
+            assertThat(statuts).containsOnlyKeys(201, 400);
+            assertThat(statuts.get(201)).isEqualTo(10L);
+            List<EcritureLedger> ecritures = ecritureLedgerRepository.findAll();
+            assertThat(ecritures).hasSize(10).allMatch(e -> e.getType() == TypeEcriture.RESERVATION && e.getPlaces() == 1);
+            assertThat(volRepository.findPlacesReserveesByVolId(vol.getId())).contains(0);
+            assertThat(mockMvc.perform(get("/api/vols/{id}/places", vol.getId()))
+                    .andReturn().getResponse().getContentAsString()).isEqualTo("0");
+
+            reservationLedger.instantane();
+            assertThat(volRepository.findPlacesReserveesByVolId(vol.getId())).contains(10);
+            assertThat(volRepository.findSequenceLedger(vol.getId())).contains(ecritureLedgerRepository.findDerniereSequence());
+            assertThat(reservationRepository.sumNombrePlacesByVolId(vol.getId())).isEqualTo(10L);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void should_rebuild_availability_from_snapshot_and_later_entries() {
+        // Given - 3 places reportées par l'instantané, 2 réservées après
+        Passager passager = new Passager("Test", "User", "test@email.com");
+        reservationService.creerReservation(new ReservationRequest(vol.getId(), passager, 3));
+        reservationLedger.instantane();
+        reservationService.creerReservation(new ReservationRequest(vol.getId(), passager, 2));
+
+        // When - état reconstitué par une instance sans mémoire, comme après un redémarrage
+        ReservationLedger redemarre = new ReservationLedger(ecritureLedgerRepository, volRepository, transactionManager);
+
+        // Then
+        assertThat(volRepository.findPlacesDisponiblesByVolId(vol.getId())).contains(7);
+        assertThat(redemarre.reserver(vol.getId(), 0)).isEqualTo(5);
+        redemarre.instantane();
+        assertThat(volRepository.findPlacesDisponiblesByVolId(vol.getId())).contains(5);
+    }
+
+    @Test
+    void should_append_cancellation_entries_and_return_seats() {
+        // Given - vol complet
+        Passager passager = new Passager("Test", "User", "test@email.com");
+        ReservationResponse reservation = reservationService.creerReservation(new ReservationRequest(vol.getId(), passager, 4));
+        reservationService.creerReservation(new ReservationRequest(vol.getId(), passager, 6));
+        assertThat(reservationLedger.getPlacesDisponibles(vol.getId())).contains(0);
+
+        // When
+        annulationService.annulerReservation(reservation.getNumeroReservation());
+
+        // Then - écriture négative dans le registre, places rendues en mémoire puis reportées par l'instantané
+        assertThat(ecritureLedgerRepository.findAll())
+                .filteredOn(e -> e.getType() == TypeEcriture.ANNULATION)
+                .singleElement()
+                .satisfies(e -> assertThat(e.getPlaces()).isEqualTo(-4));
+        assertThat(reservationLedger.getPlacesDisponibles(vol.getId())).contains(4);
+        reservationLedger.instantane();
+        assertThat(volRepository.findPlacesReserveesByVolId(vol.getId())).contains(6);
+        assertThat(new ReservationLedger(ecritureLedgerRepository, volRepository, transactionManager)
+                .reserver(vol.getId(), 0)).isEqualTo(4);
+    }
+
+    @Test
+    void should_not_reuse_rolled_back_entry_ids_below_the_snapshot() {
+        // Given - une écriture commitée sur le vol, puis la dernière écriture (autre vol) annulée
+        Vol autre = volRepository.save(new Vol(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(2).plusHours(2),
+                "Paris", "Nice", new BigDecimal("90.00"), 120, 10));
+        Passager passager = new Passager("Test", "User", "test@email.com");
+        reservationService.creerReservation(new ReservationRequest(vol.getId(), passager, 2));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reservationLedger.ajouter(List.of(EcritureLedger.reservation(autre.getId(), UUID.randomUUID(), 3)));
+            status.setRollbackOnly();
+        });
+        long premiere = ecritureLedgerRepository.findDerniereSequence();
+        reservationLedger.instantane();
+
+        // When - nouvelle écriture après l'instantané
+        reservationService.creerReservation(new ReservationRequest(autre.getId(), passager, 4));
+        reservationLedger.instantane();
+
+        // Then - id jamais réattribué, chaque vol marqué de sa propre dernière écriture, aucune place perdue
+        long suivante = ecritureLedgerRepository.findDerniereSequence();
+        assertThat(suivante).isGreaterThan(premiere + 1);
+        assertThat(volRepository.findSequenceLedger(vol.getId())).contains(premiere);
+        assertThat(volRepository.findSequenceLedger(autre.getId())).contains(suivante);
+        assertThat(volRepository.findPlacesReserveesByVolId(autre.getId())).contains(4);
+        assertThat(new ReservationLedger(ecritureLedgerRepository, volRepository, transactionManager)
+                .reserver(autre.getId(), 0)).isEqualTo(6);
+    }
+}
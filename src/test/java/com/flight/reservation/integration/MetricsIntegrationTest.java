@@ -0,0 +1,79 @@
+package com.flight.reservation.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.VolRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Registre Prometheus actif : désactivé par défaut dans les tests Spring Boot
+@SpringBootTest
+@AutoConfigureObservability
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class MetricsIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void should_expose_reservation_latency_by_outcome_for_scraping() throws Exception {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        Vol vol = volRepository.save(new Vol(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2),
+                "Paris", "Lyon", new BigDecimal("150.00"), 120, 10));
+        Passager passager = new Passager("Test", "User", "test@email.com");
+
+        // When - une réservation acceptée, une refusée, une lecture des places
+        mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 2))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 20))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/vols/{id}/places", vol.getId())).andExpect(status().isOk());
+
+        // Then
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("reservation_duration_seconds_bucket{mode=\"OPTIMISTIC_LOCK\",outcome=\"success\"")
+                .containsPattern("reservation_duration_seconds_count\\{mode=\"OPTIMISTIC_LOCK\",outcome=\"insufficient_seats\",?} 1.0")
+                .contains("reservation_retries_total 0.0")
+                .contains("reservation_hot_flights 0.0")
+                .contains("cache_hit_ratio{cache=\"vol-places\"")
+                .contains("audit_queue_depth")
+                .contains("audit_events_dropped_total");
+        mockMvc.perform(get("/actuator/hotflights"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.flight.reservation.integration;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Deux partitions pour trois vols : au moins deux vols partagent un même thread
+@SpringBootTest(properties = {
+        "reservation.mode=PARTITIONED_QUEUE",
+        "reservation.partitions.count=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PartitionedQueueIntegrationTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void should_serialize_each_flight_without_conflicts() throws Exception {
+        // Given - 3 vols de 10 places, 30 demandes d'une place par vol lancées ensemble
+        List<Vol> vols = IntStream.range(0, 3)
+                .mapToObj(i -> volRepository.save(new Vol(
+                        LocalDateTime.now().plusDays(1 + i),
+                        LocalDateTime.now().plusDays(1 + i).plusHours(2),
+                        "Paris",
+                        "Lyon",
+                        new BigDecimal("150.00"),
+                        120,
+                        10
+                )))
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch depart = new CountDownLatch(1);
+
+        try {
+            // When
+            List<CompletableFuture<String>> futures = IntStream.range(0, 90)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        Vol vol = vols.get(i % vols.size());
+                        Passager passager = new Passager("User" + i, "Test", "user" + i + "@email.com");
+                        try {
+                            depart.await();
+                            reservationService.creerReservation(new ReservationRequest(vol.getId(), passager, 1));
+                            return "OK";
+                        } catch (PlacesInsuffisantesException e) {
+                            return "COMPLET";
+                        } catch (Exception e) {
+                            return e.getClass().getSimpleName();
+                        }
+                    }, executor))
+                    .toList();
+            depart.countDown();
+
+            Map<String, Long> resultats = futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+            // Then - chaque vol complet, aucun conflit de concurrence
+            assertThat(resultats).containsOnlyKeys("OK", "COMPLET");
+            assertThat(resultats.get("OK")).isEqualTo(30L);
+            for (Vol vol : vols) {
+                assertThat(volRepository.findPlacesReserveesByVolId(vol.getId())).contains(10);
+                assertThat(reservationRepository.sumNombrePlacesByVolId(vol.getId())).isEqualTo(10L);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
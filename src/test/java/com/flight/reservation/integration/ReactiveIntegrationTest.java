@@ -0,0 +1,132 @@
+package com.flight.reservation.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Pages de 2 : un flux enchaîne plusieurs pages de la recherche
+@SpringBootTest(properties = "search.page.default-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReactiveIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Vol vol;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        vol = volRepository.save(new Vol(
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(1).plusHours(2),
+                "Paris",
+                "Lyon",
+                new BigDecimal("150.00"),
+                120,
+                10
+        ));
+    }
+
+    @Test
+    void should_reserve_and_apply_same_rules_as_blocking_api() throws Exception {
+        // Given
+        Passager passager = new Passager("Test", "User", "test@email.com");
+
+        // When - réservation acceptée puis dépassement de capacité
+        MvcResult creee = mockMvc.perform(post("/api/reactive/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 8))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(creee))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.nombrePlaces").value(8));
+
+        MvcResult places = mockMvc.perform(get("/api/reactive/vols/{id}/places", vol.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(places))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+
+        // Then - refusé avec le même code d'erreur que /api/reservations
+        MvcResult refusee = mockMvc.perform(post("/api/reactive/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 3))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(refusee))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INSUFFICIENT_SEATS"));
+
+        assertThat(reservationRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_stream_search_as_ndjson_and_server_sent_events() throws Exception {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            volRepository.save(new Vol(LocalDateTime.now().plusDays(2 + i), LocalDateTime.now().plusDays(2 + i).plusHours(1),
+                    "Paris", "Nice", new BigDecimal(100 + i), 70, 50));
+        }
+
+        // When
+        MvcResult ndjson = mockMvc.perform(get("/api/reactive/vols").param("villeArrivee", "Nice").param("tri", "prix")
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult sse = mockMvc.perform(get("/api/reactive/vols").param("villeDepart", "Paris")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String lignes = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(lignes.lines().toList()).hasSize(3)
+                .allSatisfy(ligne -> assertThat(objectMapper.readTree(ligne).get("villeArrivee").asText()).isEqualTo("Nice"));
+
+        String evenements = mockMvc.perform(asyncDispatch(sse))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(evenements.lines().filter(ligne -> ligne.startsWith("data:")).count()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,120 @@
+package com.flight.reservation.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.VolRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pool de lecture d'une seule connexion, vite épuisé
+@SpringBootTest(properties = {
+        "datasource.read.enabled=true",
+        "datasource.read.pool-size=1",
+        "datasource.read.connection-timeout-ms=250"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReadWriteRoutingIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void should_serve_searches_from_read_pool_and_keep_reservations_on_primary() throws Exception {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        Vol vol = volRepository.save(new Vol(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2),
+                "Paris", "Lyon", new BigDecimal("150.00"), 120, 10));
+        double lecturesAvant = connexions("replica");
+
+        // When
+        mockMvc.perform(get("/api/vols").param("villeDepart", "Paris")).andExpect(status().isOk());
+
+        // Then
+        assertThat(connexions("replica")).isEqualTo(lecturesAvant + 1);
+        double ecrituresAvant = connexions("primary");
+        reserver(mockMvc, vol);
+        assertThat(connexions("primary")).isGreaterThan(ecrituresAvant);
+    }
+
+    @Test
+    void should_reject_searches_when_read_pool_exhausted_without_blocking_reservations() throws Exception {
+        // Given - la seule connexion de lecture est retenue par une transaction readOnly
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        Vol vol = volRepository.save(new Vol(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2),
+                "Paris", "Lyon", new BigDecimal("150.00"), 120, 10));
+        TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        CountDownLatch connexionPrise = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        CompletableFuture<Void> recherche = CompletableFuture.runAsync(() -> lecture.executeWithoutResult(status -> {
+            volRepository.count();
+            connexionPrise.countDown();
+            try {
+                liberer.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        try {
+            assertThat(connexionPrise.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When / Then
+            mockMvc.perform(get("/api/vols").param("villeDepart", "Lyon"))
+                    .andExpect(status().isServiceUnavailable());
+            reserver(mockMvc, vol);
+        } finally {
+            liberer.countDown();
+            recherche.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void reserver(MockMvc mockMvc, Vol vol) throws Exception {
+        Passager passager = new Passager("Test", "User", "test@email.com");
+        mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 1))))
+                .andExpect(status().isCreated());
+    }
+
+    private double connexions(String cible) {
+        return meterRegistry.get("datasource.routing.connections").tag("target", cible).counter().count();
+    }
+}
@@ -1,10 +1,12 @@
 package com.flight.reservation.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ReservationLotRequest;
 import com.flight.reservation.dto.ReservationRequest;
 import com.flight.reservation.dto.VolRequest;
 import com.flight.reservation.entity.Passager;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.AtomiciteLot;
 import com.flight.reservation.repository.VolRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.RepeatedTest;
@@ -16,6 +18,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
@@ -25,11 +28,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -127,7 +133,129 @@ class ReservationIntegrationTest {
                         .param("dateDepart", LocalDate.now().plusDays(1).toString())
                         .param("tri", "prix"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].placesDisponibles").value(10))
+                .andExpect(jsonPath("$[0].placesReservees").value(0))
+                .andExpect(jsonPath("$[0].reservations").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist());
+    }
+
+    @Test
+    void should_match_cities_by_normalized_prefix_or_substring() throws Exception {
+        // Given
+        volRepository.save(new Vol(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(3).plusHours(1),
+                "Orléans", "Saint-Étienne", new BigDecimal("90.00"), 60, 50));
+
+        // When & Then - préfixe par défaut, insensible à la casse et aux accents
+        mockMvc.perform(get("/api/vols").param("villeDepart", "PAR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].villeDepart").value("Paris"));
+        mockMvc.perform(get("/api/vols").param("villeDepart", "orleans").param("villeArrivee", "saint-e"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].villeDepartNormalisee").doesNotExist());
+        mockMvc.perform(get("/api/vols").param("villeDepart", "aris"))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        // L'ancienne recherche par sous-chaîne reste disponible
+        mockMvc.perform(get("/api/vols").param("villeDepart", "aris").param("correspondance", "CONTAINS"))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void should_page_vols_with_cursor_and_stream_as_ndjson() throws Exception {
+        // Given - 5 vols au départ de Paris, dont deux au même prix
+        for (String prix : List.of("80.00", "120.00", "150.00", "200.00")) {
+            volRepository.save(new Vol(LocalDateTime.now().plusDays(4), LocalDateTime.now().plusDays(4).plusHours(2),
+                    "Paris", "Nice", new BigDecimal(prix), 120, 50));
+        }
+
+        // When & Then - pages de 2 triées par prix puis id
+        MvcResult premiere = mockMvc.perform(get("/api/vols").param("villeDepart", "Paris")
+                        .param("tri", "prix").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].prix").value(80.00))
+                .andExpect(header().exists("X-Curseur-Suivant"))
+                .andReturn();
+        MvcResult deuxieme = mockMvc.perform(get("/api/vols").param("villeDepart", "Paris").param("tri", "prix")
+                        .param("limit", "2").param("curseur", premiere.getResponse().getHeader("X-Curseur-Suivant")))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].prix").value(150.00))
+                .andExpect(jsonPath("$[1].prix").value(150.00))
+                .andReturn();
+        mockMvc.perform(get("/api/vols").param("villeDepart", "Paris").param("tri", "prix")
+                        .param("limit", "2").param("curseur", deuxieme.getResponse().getHeader("X-Curseur-Suivant")))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].prix").value(200.00))
+                .andExpect(header().doesNotExist("X-Curseur-Suivant"));
+
+        // Curseur d'un autre tri refusé
+        mockMvc.perform(get("/api/vols").param("tri", "temps_trajet")
+                        .param("curseur", premiere.getResponse().getHeader("X-Curseur-Suivant")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+
+        // Flux NDJSON : un vol par ligne
+        MvcResult flux = mockMvc.perform(get("/api/vols").param("villeDepart", "Paris").param("tri", "prix")
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(flux))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson.lines().toList()).hasSize(5)
+                .allSatisfy(ligne -> assertThat(objectMapper.readTree(ligne).get("villeDepart").asText()).isEqualTo("Paris"));
+    }
+
+    @Test
+    void should_reserve_in_bulk_with_per_item_results() throws Exception {
+        // Given - 10 places : 4 + 5 admises, 3 refusées, vol inconnu
+        Vol autreVol = volRepository.save(new Vol(LocalDateTime.now().plusDays(2),
+                LocalDateTime.now().plusDays(2).plusHours(2), "Lyon", "Paris", new BigDecimal("90.00"), 120, 20));
+        ReservationLotRequest lot = new ReservationLotRequest(AtomiciteLot.BEST_EFFORT, List.of(
+                new ReservationRequest(vol.getId(), new Passager("A", "Agence", "a@agence.com"), 4),
+                new ReservationRequest(autreVol.getId(), new Passager("B", "Agence", "b@agence.com"), 2),
+                new ReservationRequest(vol.getId(), new Passager("C", "Agence", "c@agence.com"), 5),
+                new ReservationRequest(vol.getId(), new Passager("D", "Agence", "d@agence.com"), 3),
+                new ReservationRequest(UUID.randomUUID(), new Passager("E", "Agence", "e@agence.com"), 1)));
+
+        // When & Then
+        mockMvc.perform(post("/api/reservations/lot")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lot)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.reussies").value(3))
+                .andExpect(jsonPath("$.echouees").value(2))
+                .andExpect(jsonPath("$.resultats[0].reservation.numeroReservation").exists())
+                .andExpect(jsonPath("$.resultats[1].statut").value("SUCCESS"))
+                .andExpect(jsonPath("$.resultats[2].statut").value("SUCCESS"))
+                .andExpect(jsonPath("$.resultats[3].code").value("INSUFFICIENT_SEATS"))
+                .andExpect(jsonPath("$.resultats[4].code").value("VOL_NOT_FOUND"));
+
+        assertThat(volRepository.findPlacesDisponiblesByVolId(vol.getId())).contains(1);
+        assertThat(volRepository.findPlacesDisponiblesByVolId(autreVol.getId())).contains(18);
+        mockMvc.perform(get("/api/vols/{id}/places", vol.getId()))
+                .andExpect(content().string("1"));
+    }
+
+    @Test
+    void should_reject_whole_bulk_when_all_or_nothing_item_fails() throws Exception {
+        // Given
+        ReservationLotRequest lot = new ReservationLotRequest(AtomiciteLot.ALL_OR_NOTHING, List.of(
+                new ReservationRequest(vol.getId(), new Passager("A", "Agence", "a@agence.com"), 4),
+                new ReservationRequest(vol.getId(), new Passager("B", "Agence", "b@agence.com"), 7)));
+
+        // When & Then
+        mockMvc.perform(post("/api/reservations/lot")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lot)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.reussies").value(0))
+                .andExpect(jsonPath("$.resultats[0].code").value("BATCH_ABORTED"))
+                .andExpect(jsonPath("$.resultats[1].code").value("INSUFFICIENT_SEATS"));
+
+        assertThat(volRepository.findPlacesDisponiblesByVolId(vol.getId())).contains(10);
     }
 
     @RepeatedTest(3)
@@ -0,0 +1,165 @@
+package com.flight.reservation.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.RetenueRequest;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.SeatInventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "reservation.mode=IN_MEMORY_INVENTORY")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SeatInventoryIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Vol vol;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        vol = volRepository.save(new Vol(
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(1).plusHours(2),
+                "Paris",
+                "Lyon",
+                new BigDecimal("150.00"),
+                120,
+                10
+        ));
+    }
+
+    @RepeatedTest(3)
+    void should_sell_exactly_the_capacity_under_concurrent_reservations() throws Exception {
+        // Given - 40 demandes d'une place, lancées ensemble, pour 10 places
+        int demandes = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch depart = new CountDownLatch(1);
+
+        try {
+            // When
+            List<CompletableFuture<Integer>> futures = IntStream.range(0, demandes)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            depart.await();
+                            Passager passager = new Passager("User" + i, "Test", "user" + i + "@email.com");
+                            ReservationRequest request = new ReservationRequest(vol.getId(), passager, 1);
+
+                            return mockMvc.perform(post("/api/reservations")
+                                            .contentType(MediaType.APPLICATION_JSON)
+                                            .content(objectMapper.writeValueAsString(request)))
+                                    .andReturn().getResponse().getStatus();
+                        } catch (Exception e) {
+                            return -1;
+                        }
+                    }, executor))
+                    .toList();
+            depart.countDown();
+
+            Map<Integer, Long> statuts = futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+            // Then - exactement la capacité vendue, aucun conflit ni erreur
+            assertThat(statuts).containsOnlyKeys(201, 400);
+            assertThat(statuts.get(201)).isEqualTo(10L);
+            assertThat(statuts.get(400)).isEqualTo(demandes - 10L);
+
+            String places = mockMvc.perform(get("/api/vols/{id}/places", vol.getId()))
+                    .andReturn().getResponse().getContentAsString();
+            assertThat(places).isEqualTo("0");
+
+            // La base rejoint l'inventaire après le report différé
+            seatInventoryService.flush();
+            assertThat(reservationRepository.sumNombrePlacesByVolId(vol.getId())).isEqualTo(10L);
+            assertThat(volRepository.findPlacesReserveesByVolId(vol.getId())).contains(10);
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void should_hold_seats_in_memory_until_confirmed_or_released() throws Exception {
+        // Given - 4 places retenues pour le paiement, 3 autres abandonnées
+        String retenue = retenir(4);
+        String abandonnee = retenir(3);
+        mockMvc.perform(get("/api/vols/{id}/places", vol.getId())).andExpect(content().string("3"));
+        Passager passager = new Passager("Test", "User", "test@email.com");
+        mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 4))))
+                .andExpect(status().isBadRequest());
+
+        // When
+        mockMvc.perform(post("/api/reservations/retenues/{id}/confirmation", retenue)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(passager)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.nombrePlaces").value(4));
+        mockMvc.perform(delete("/api/reservations/retenues/{id}", abandonnee)).andExpect(status().isNoContent());
+
+        // Then - seules les places confirmées restent prises, en mémoire comme en base
+        mockMvc.perform(delete("/api/reservations/retenues/{id}", retenue)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/vols/{id}/places", vol.getId())).andExpect(content().string("6"));
+        seatInventoryService.flush();
+        assertThat(volRepository.findPlacesReserveesByVolId(vol.getId())).contains(4);
+        assertThat(reservationRepository.sumNombrePlacesByVolId(vol.getId())).isEqualTo(4L);
+    }
+
+    private String retenir(int places) throws Exception {
+        String reponse = mockMvc.perform(post("/api/reservations/retenues").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RetenueRequest(vol.getId(), places))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(reponse).get("retenueId").asText();
+    }
+}
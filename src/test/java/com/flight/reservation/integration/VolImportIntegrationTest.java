@@ -0,0 +1,156 @@
+package com.flight.reservation.integration;
+
+import com.flight.reservation.dto.RapportImport;
+import com.flight.reservation.enums.FormatImport;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.VolImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Lots de 2 : plusieurs transactions dans un même import
+@SpringBootTest(properties = "import.batch-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class VolImportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private VolImportService volImportService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void should_import_csv_and_report_invalid_rows() throws Exception {
+        // Given
+        String csv = """
+                dateDepart,heureDepart,dateArrivee,heureArrivee,villeDepart,villeArrivee,prix,tempsTrajet,capaciteMaximale
+                2030-06-01,08:00,2030-06-01,09:10,Paris,Nice,120.00,70,150
+                2030-06-01,10:00,2030-06-01,11:10,Paris,Nice,-5,70,150
+                2030-06-02,08:00,2030-06-02,09:10,"Saint-Denis, La Réunion",Paris,640.50,660,300
+                2030-06-02,08:00,2030-06-02
+                2030-06-03,,2030-06-03,,Lyon,Nantes,80,75,
+                """;
+
+        // When & Then
+        mockMvc.perform(post("/api/vols/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lignesLues").value(5))
+                .andExpect(jsonPath("$.volsImportes").value(3))
+                .andExpect(jsonPath("$.lignesRejetees").value(2))
+                .andExpect(jsonPath("$.complet").value(true))
+                .andExpect(jsonPath("$.erreurs[0].ligne").value(3))
+                .andExpect(jsonPath("$.erreurs[0].message").value("prix: must be greater than 0"))
+                .andExpect(jsonPath("$.erreurs[1].ligne").value(5));
+
+        assertThat(volRepository.count()).isEqualTo(3);
+        mockMvc.perform(get("/api/vols").param("villeDepart", "saint-denis"))
+                .andExpect(jsonPath("$[0].villeDepart").value("Saint-Denis, La Réunion"))
+                .andExpect(jsonPath("$[0].placesDisponibles").value(300));
+    }
+
+    @Test
+    void should_import_json_array_and_ndjson_row_by_row() throws Exception {
+        // Given
+        String json = """
+                [
+                  {"dateDepart":"2030-06-01","dateArrivee":"2030-06-01","villeDepart":"Paris","villeArrivee":"Nice","prix":120,"tempsTrajet":70},
+                  {"dateDepart":"pas-une-date","dateArrivee":"2030-06-01","villeDepart":"Paris","villeArrivee":"Nice","prix":120,"tempsTrajet":70},
+                  42,
+                  {"dateDepart":"2030-06-02","dateArrivee":"2030-06-02","villeDepart":"Nice","villeArrivee":"Paris","prix":110,"tempsTrajet":70}
+                ]
+                """;
+        String ndjson = """
+                {"dateDepart":"2030-06-03","dateArrivee":"2030-06-03","villeDepart":"Lyon","villeArrivee":"Nice","prix":90,"tempsTrajet":65}
+                {"dateDepart":"2030-06-03",
+                {"dateDepart":"2030-06-04","dateArrivee":"2030-06-04","villeDepart":"Nice","villeArrivee":"Lyon","prix":95,"tempsTrajet":65}
+                """;
+
+        // When & Then
+        mockMvc.perform(post("/api/vols/import").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(jsonPath("$.volsImportes").value(2))
+                .andExpect(jsonPath("$.erreurs[0].ligne").value(2))
+                .andExpect(jsonPath("$.erreurs[1].ligne").value(3));
+        mockMvc.perform(post("/api/vols/import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(jsonPath("$.volsImportes").value(2))
+                .andExpect(jsonPath("$.erreurs[0].ligne").value(2));
+
+        assertThat(volRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void should_keep_persistence_context_bounded_across_batches() {
+        // Given - session ouverte pour tout l'import, comme une session liée à la requête
+        String ndjson = """
+                {"dateDepart":"2030-06-01","dateArrivee":"2030-06-01","villeDepart":"Paris","villeArrivee":"Nice","prix":120,"tempsTrajet":70}
+                {"dateDepart":"2030-06-02","dateArrivee":"2030-06-02","villeDepart":"Nice","villeArrivee":"Paris","prix":110,"tempsTrajet":70}
+                {"dateDepart":"2030-06-03","dateArrivee":"2030-06-03","villeDepart":"Lyon","villeArrivee":"Nice","prix":90,"tempsTrajet":65}
+                {"dateDepart":"2030-06-04","dateArrivee":"2030-06-04","villeDepart":"Nice","villeArrivee":"Lyon","prix":95,"tempsTrajet":65}
+                {"dateDepart":"2030-06-05","dateArrivee":"2030-06-05","villeDepart":"Lyon","villeArrivee":"Paris","prix":85,"tempsTrajet":60}
+                """;
+        EntityManager session = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(session));
+        List<Integer> entitesGerees = new ArrayList<>();
+
+        try {
+            // When - trois lots de 2
+            RapportImport rapport = volImportService.importer(
+                    new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), FormatImport.NDJSON, 0, null,
+                    new VolImportService.SuiviImport() {
+                        @Override
+                        public void enregistrer(long derniereLigne, RapportImport avancement) {
+                        }
+
+                        @Override
+                        public void lotTermine() {
+                            entitesGerees.add(session.unwrap(SessionImplementor.class)
+                                    .getPersistenceContextInternal().getNumberOfManagedEntities());
+                        }
+                    });
+
+            // Then - aucun vol des lots commités ne reste géré
+            assertThat(rapport.getVolsImportes()).isEqualTo(5);
+            assertThat(entitesGerees).hasSize(3).containsOnly(0);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            session.close();
+        }
+    }
+}
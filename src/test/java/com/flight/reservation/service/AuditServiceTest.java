@@ -0,0 +1,220 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.AuditLog;
+import com.flight.reservation.enums.DebordementAudit;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditServiceTest {
+    
+    @Mock
+    private AuditLogRepository auditLogRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_write_events_in_batches_from_single_writer() throws Exception {
+        // Given - lot de 5, délai long : seule la taille déclenche l'écriture
+        AuditService auditService = auditService(100, 5, 1_000, DebordementAudit.BLOCK);
+        auditService.start();
+        
+        // When
+        for (int i = 0; i < 10; i++) {
+            auditService.handleReservationEvent(event("user" + i + "@email.com"));
+        }
+        
+        // Then
+        ArgumentCaptor<List<AuditLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(auditLogRepository, timeout(2_000).times(2)).saveAll(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(lot -> assertThat(lot).hasSize(5));
+        
+        auditService.shutdown();
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(10);
+        assertThat(meterRegistry.timer("audit.flush").count()).isEqualTo(2);
+    }
+    
+    @Test
+    void should_count_dropped_events_when_buffer_is_full() {
+        // Given - écrivain non démarré, tampon de 2
+        AuditService auditService = auditService(2, 10, 100, DebordementAudit.DROP);
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            auditService.handleReservationEvent(event("user" + i + "@email.com"));
+        }
+        
+        // Then
+        assertThat(auditService.getQueueDepth()).isEqualTo(2);
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isEqualTo(3);
+        assertThat(meterRegistry.get("audit.queue.depth").gauge().value()).isEqualTo(2);
+        verifyNoInteractions(auditLogRepository);
+    }
+    
+    @Test
+    void should_write_on_caller_thread_when_buffer_is_full() {
+        // Given
+        AuditService auditService = auditService(1, 10, 100, DebordementAudit.CALLER_RUNS);
+        
+        // When
+        auditService.handleReservationEvent(event("first@email.com"));
+        auditService.handleReservationEvent(event("second@email.com"));
+        
+        // Then
+        verify(auditLogRepository).saveAll(argThat(lot ->
+                ((List<AuditLog>) lot).get(0).getEmailPassager().equals("second@email.com")));
+        assertThat(meterRegistry.counter("audit.events.dropped").count()).isZero();
+    }
+    
+    @Test
+    void should_fall_back_to_row_by_row_when_batch_fails() {
+        // Given
+        AuditService auditService = auditService(1, 10, 100, DebordementAudit.CALLER_RUNS);
+        when(auditLogRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("contrainte"));
+        
+        // When
+        auditService.handleReservationEvent(event("first@email.com"));
+        auditService.handleReservationEvent(event("second@email.com"));
+        
+        // Then
+        verify(auditLogRepository).save(any(AuditLog.class));
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(1);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_retry_batch_while_database_is_unavailable() throws Exception {
+        // Given - première écriture refusée par une base indisponible
+        AuditService auditService = auditService(100, 5, 20, DebordementAudit.BLOCK);
+        when(auditLogRepository.saveAll(any()))
+                .thenThrow(new DataAccessResourceFailureException("base verrouillée"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        auditService.start();
+        
+        // When
+        auditService.handleReservationEvent(event("first@email.com"));
+        
+        // Then - le même lot est réessayé, sans reprise ligne à ligne
+        ArgumentCaptor<List<AuditLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(auditLogRepository, timeout(2_000).times(2)).saveAll(captor.capture());
+        assertThat(captor.getAllValues().get(1)).extracting(AuditLog::getEmailPassager)
+                .containsExactly("first@email.com");
+        verify(auditLogRepository, never()).save(any(AuditLog.class));
+        
+        auditService.shutdown();
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(1);
+        assertThat(auditService.getQueueDepth()).isZero();
+    }
+    
+    @Test
+    void should_keep_writing_after_buffer_errors() throws Exception {
+        // Given - tampon dont la première lecture et le premier acquittement échouent
+        AtomicInteger lectures = new AtomicInteger();
+        AtomicInteger acquittements = new AtomicInteger();
+        MemoryAuditBuffer tampon = new MemoryAuditBuffer(100) {
+            @Override
+            public List<AuditLog> nextBatch(int max, long waitMs) throws InterruptedException {
+                if (lectures.incrementAndGet() == 1) {
+                    throw new UncheckedIOException(new IOException("segment illisible"));
+                }
+                return super.nextBatch(max, waitMs);
+            }
+            
+            @Override
+            public void acknowledge() {
+                if (acquittements.incrementAndGet() == 1) {
+                    throw new UncheckedIOException(new IOException("checkpoint non écrit"));
+                }
+                super.acknowledge();
+            }
+        };
+        AuditService auditService = new AuditService(auditLogRepository, transactionManager, meterRegistry,
+                tampon, 5, 20, DebordementAudit.BLOCK, 10, 60_000);
+        auditService.handleReservationEvent(event("first@email.com"));
+        
+        // When
+        auditService.start();
+        
+        // Then - lot écrit une seule fois, acquitté au second essai, écrivain toujours actif
+        verify(auditLogRepository, timeout(2_000)).saveAll(any());
+        await(() -> auditService.getQueueDepth() == 0);
+        assertThat(auditService.isWriterAlive()).isTrue();
+        assertThat(auditService.getErreursConsecutives()).isZero();
+        assertThat(meterRegistry.counter("audit.writer.errors").count()).isEqualTo(2);
+        
+        auditService.handleReservationEvent(event("second@email.com"));
+        verify(auditLogRepository, timeout(2_000).times(2)).saveAll(any());
+        auditService.shutdown();
+        assertThat(meterRegistry.counter("audit.events.written").count()).isEqualTo(2);
+    }
+    
+    @Test
+    void should_sample_repeated_failures_of_same_flight() {
+        // Given - écrivain non démarré, une ligne par minute au plus pour un vol et un motif
+        AuditService auditService = auditService(100, 10, 100, DebordementAudit.DROP);
+        UUID volId = UUID.randomUUID();
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            auditService.handleReservationEvent(new ReservationEvent(this, volId, "user" + i + "@email.com", 2, 0,
+                    StatutReservation.FAILED, "Places insuffisantes", null));
+        }
+        auditService.handleReservationEvent(new ReservationEvent(this, volId, "conflit@email.com", 2, null,
+                StatutReservation.FAILED, "Conflit de concurrence", null));
+        
+        // Then - premier échec de chaque motif journalisé, les autres seulement comptés
+        assertThat(auditService.getQueueDepth()).isEqualTo(2);
+        assertThat(meterRegistry.counter("audit.failures").count()).isEqualTo(6);
+        assertThat(meterRegistry.counter("audit.failures.sampled").count()).isEqualTo(4);
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+    
+    private AuditService auditService(int capacite, int batchSize, long flushIntervalMs, DebordementAudit debordement) {
+        return new AuditService(auditLogRepository, transactionManager, meterRegistry,
+                new MemoryAuditBuffer(capacite), batchSize, flushIntervalMs, debordement, 10, 60_000);
+    }
+    
+    private ReservationEvent event(String email) {
+        return new ReservationEvent(this, UUID.randomUUID(), email, 2, null,
+                StatutReservation.FAILED, "Vol non trouvé", null);
+    }
+}
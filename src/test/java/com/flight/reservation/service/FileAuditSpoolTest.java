@@ -0,0 +1,266 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.AuditLog;
+import com.flight.reservation.enums.StatutReservation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FileAuditSpoolTest {
+
+    @TempDir
+    Path repertoire;
+
+    @Test
+    void should_replay_unacknowledged_events_after_restart() throws Exception {
+        // Given - un lot lu mais jamais acquitté avant l'arrêt
+        FileAuditSpool spool = spool(1 << 20);
+        AuditLog original = auditLog("first@email.com");
+        spool.offer(original, 0);
+        spool.offer(auditLog("second@email.com"), 0);
+        assertThat(spool.nextBatch(10, 0)).hasSize(2);
+        spool.close();
+
+        // When
+        FileAuditSpool rouvert = spool(1 << 20);
+        List<AuditLog> lot = rouvert.nextBatch(10, 0);
+
+        // Then
+        assertThat(rouvert.size()).isEqualTo(2);
+        assertThat(lot).extracting(AuditLog::getEmailPassager)
+                .containsExactly("first@email.com", "second@email.com");
+        AuditLog rejoue = lot.get(0);
+        assertThat(rejoue.getVolId()).isEqualTo(original.getVolId());
+        assertThat(rejoue.getStatut()).isEqualTo(StatutReservation.SUCCESS);
+        assertThat(rejoue.getPlacesDisponiblesAvant()).isNull();
+        assertThat(rejoue.getTimestamp()).isEqualTo(original.getTimestamp());
+        rouvert.close();
+    }
+
+    @Test
+    void should_not_replay_acknowledged_events() throws Exception {
+        // Given
+        FileAuditSpool spool = spool(1 << 20);
+        spool.offer(auditLog("first@email.com"), 0);
+        spool.nextBatch(10, 0);
+        spool.acknowledge();
+        spool.offer(auditLog("second@email.com"), 0);
+        spool.close();
+
+        // When
+        FileAuditSpool rouvert = spool(1 << 20);
+
+        // Then
+        assertThat(rouvert.nextBatch(10, 0)).extracting(AuditLog::getEmailPassager)
+                .containsExactly("second@email.com");
+        rouvert.close();
+    }
+
+    @Test
+    void should_truncate_torn_record_at_end_of_segment() throws Exception {
+        // Given - écriture interrompue au milieu du dernier enregistrement
+        FileAuditSpool spool = spool(1 << 20);
+        spool.offer(auditLog("first@email.com"), 0);
+        spool.offer(auditLog("second@email.com"), 0);
+        spool.close();
+        Path segment = segments().get(0);
+        try (FileChannel canal = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 5);
+        }
+
+        // When
+        FileAuditSpool rouvert = spool(1 << 20);
+        rouvert.offer(auditLog("third@email.com"), 0);
+
+        // Then - l'enregistrement incomplet est écarté, les suivants restent lisibles
+        assertThat(rouvert.nextBatch(10, 0)).extracting(AuditLog::getEmailPassager)
+                .containsExactly("first@email.com", "third@email.com");
+        rouvert.close();
+    }
+
+    @Test
+    void should_delete_segments_once_acknowledged() throws Exception {
+        // Given - segments minuscules : un enregistrement par segment
+        FileAuditSpool spool = spool(1);
+        for (int i = 0; i < 3; i++) {
+            spool.offer(auditLog("user" + i + "@email.com"), 0);
+        }
+        assertThat(segments()).hasSize(3);
+
+        // When
+        assertThat(spool.nextBatch(10, 0)).hasSize(3);
+        spool.acknowledge();
+
+        // Then - seul le segment actif subsiste
+        assertThat(segments()).hasSize(1);
+        assertThat(spool.size()).isZero();
+        spool.close();
+    }
+
+    @Test
+    void should_truncate_oversized_error_message_and_refuse_unencodable_events() throws Exception {
+        // Given - message au-delà de la limite de writeUTF, email impossible à encoder
+        FileAuditSpool spool = spool(1 << 20);
+        AuditLog longMessage = new AuditLog(UUID.randomUUID(), "first@email.com", 2, 0,
+                StatutReservation.FAILED, "x".repeat(100_000), null);
+        AuditLog longEmail = auditLog("y".repeat(70_000));
+
+        // When
+        boolean accepte = spool.offer(longMessage, 0);
+        boolean refuse = spool.offer(longEmail, 0);
+
+        // Then
+        assertThat(accepte).isTrue();
+        assertThat(refuse).isFalse();
+        List<AuditLog> lot = spool.nextBatch(10, 0);
+        assertThat(lot).hasSize(1);
+        assertThat(lot.get(0).getMessageErreur()).hasSize(4096);
+        spool.close();
+    }
+
+    @Test
+    void should_drop_partially_written_record_before_next_append() throws Exception {
+        // Given - une écriture qui n'atteint le disque qu'en partie
+        AtomicBoolean panne = new AtomicBoolean();
+        FileAuditSpool spool = new FileAuditSpool(repertoire, 1 << 20, Long.MAX_VALUE, false,
+                fichier -> new CanalDefaillant(FileChannel.open(fichier,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND), panne));
+        spool.offer(auditLog("first@email.com"), 0);
+
+        // When
+        panne.set(true);
+        boolean accepte = spool.offer(auditLog("lost@email.com"), 0);
+        panne.set(false);
+        spool.offer(auditLog("third@email.com"), 0);
+        spool.close();
+
+        // Then - aucun octet du refus ne reste entre les deux enregistrements acceptés
+        assertThat(accepte).isFalse();
+        FileAuditSpool rouvert = spool(1 << 20);
+        assertThat(rouvert.nextBatch(10, 0)).extracting(AuditLog::getEmailPassager)
+                .containsExactly("first@email.com", "third@email.com");
+        rouvert.close();
+    }
+
+    private FileAuditSpool spool(long segmentSize) {
+        return new FileAuditSpool(repertoire, segmentSize, Long.MAX_VALUE, false);
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            return fichiers.filter(f -> f.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+
+    private AuditLog auditLog(String email) {
+        AuditLog auditLog = new AuditLog(UUID.randomUUID(), email, 2, null,
+                StatutReservation.SUCCESS, null, UUID.randomUUID());
+        auditLog.setTimestamp(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_789));
+        return auditLog;
+    }
+
+    // Canal qui, en panne, écrit la moitié du tampon puis échoue
+    private static final class CanalDefaillant extends FileChannel {
+
+        private final FileChannel canal;
+        private final AtomicBoolean panne;
+
+        private CanalDefaillant(FileChannel canal, AtomicBoolean panne) {
+            this.canal = canal;
+            this.panne = panne;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!panne.get()) {
+                return canal.write(src);
+            }
+            ByteBuffer moitie = src.slice(src.position(), src.remaining() / 2);
+            src.position(src.position() + canal.write(moitie));
+            throw new IOException("Plus de place sur le disque");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException { return canal.read(dst); }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException { return canal.read(dsts, offset, length); }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException { return canal.write(srcs, offset, length); }
+
+        @Override
+        public long position() throws IOException { return canal.position(); }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            canal.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException { return canal.size(); }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            canal.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException { canal.force(metaData); }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return canal.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return canal.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException { return canal.read(dst, position); }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException { return canal.write(src, position); }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return canal.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return canal.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return canal.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            canal.close();
+        }
+    }
+}
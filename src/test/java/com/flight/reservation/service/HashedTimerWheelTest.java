@@ -0,0 +1,58 @@
+package com.flight.reservation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimerWheelTest {
+
+    private final AtomicLong horloge = new AtomicLong();
+    private final List<String> expirees = new ArrayList<>();
+
+    // 4 seaux de 100 ms : un tour de roue toutes les 400 ms
+    private final HashedTimerWheel<String> roue = new HashedTimerWheel<>(Duration.ofMillis(100), 4, horloge::get);
+
+    @Test
+    void should_expire_each_deadline_on_its_own_round() {
+        // Given - deux échéances dans le même seau, à un tour d'écart
+        roue.planifier("proche", Duration.ofMillis(250));
+        roue.planifier("lointaine", Duration.ofMillis(650));
+
+        // When / Then
+        avancerA(200);
+        assertThat(expirees).isEmpty();
+        avancerA(300);
+        assertThat(expirees).containsExactly("proche");
+        avancerA(600);
+        assertThat(expirees).containsExactly("proche");
+        avancerA(700);
+        assertThat(expirees).containsExactly("proche", "lointaine");
+    }
+
+    @Test
+    void should_skip_cancelled_deadlines_and_catch_up_after_a_pause() {
+        // Given
+        HashedTimerWheel.Echeance<String> annulee = roue.planifier("annulee", Duration.ofMillis(100));
+        roue.planifier("conservee", Duration.ofMillis(100));
+        annulee.annuler();
+
+        // When - la roue n'a pas avancé pendant plusieurs tours
+        avancerA(2_000);
+
+        // Then
+        assertThat(expirees).containsExactly("conservee");
+        roue.planifier("immediate", Duration.ZERO);
+        avancerA(2_100);
+        assertThat(expirees).containsExactly("conservee", "immediate");
+    }
+
+    private void avancerA(long millis) {
+        horloge.set(Duration.ofMillis(millis).toNanos());
+        roue.avancer(expirees::add);
+    }
+}
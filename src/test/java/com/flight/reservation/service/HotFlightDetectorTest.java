@@ -0,0 +1,107 @@
+package com.flight.reservation.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HotFlightDetectorTest {
+
+    private final AtomicLong horloge = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HotFlightDetector detector;
+    private UUID volId;
+
+    @BeforeEach
+    void setUp() {
+        // Fenêtre de 10 s, 3 conflits et 20 % des appels au minimum, maintien de 30 s
+        detector = new HotFlightDetector(meterRegistry, true, 10_000, 3, 0.2, 30_000, 100, horloge::get);
+        volId = UUID.randomUUID();
+    }
+
+    @Test
+    void should_mark_flight_hot_once_conflicts_reach_threshold() {
+        // Given
+        appels(volId, 5);
+        conflits(volId, 2);
+        assertThat(detector.isChaud(volId)).isFalse();
+
+        // When
+        conflits(volId, 1);
+
+        // Then
+        assertThat(detector.isChaud(volId)).isTrue();
+        assertThat(detector.getVolsChauds()).singleElement()
+                .satisfies(chaud -> {
+                    assertThat(chaud.getVolId()).isEqualTo(volId);
+                    assertThat(chaud.getConflits()).isEqualTo(3);
+                    assertThat(chaud.getAppels()).isEqualTo(5);
+                });
+        assertThat(meterRegistry.get("reservation.hot.flights").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void should_ignore_conflicts_below_ratio_of_calls() {
+        // Given - 3 conflits pour 100 appels
+        appels(volId, 100);
+
+        // When
+        conflits(volId, 3);
+
+        // Then
+        assertThat(detector.isChaud(volId)).isFalse();
+    }
+
+    @Test
+    void should_forget_conflicts_outside_window() {
+        // Given
+        conflits(volId, 2);
+
+        // When - les deux premiers conflits sortent de la fenêtre
+        avancer(Duration.ofSeconds(11));
+        conflits(volId, 2);
+
+        // Then
+        assertThat(detector.isChaud(volId)).isFalse();
+    }
+
+    @Test
+    void should_cool_down_after_hold_without_conflict() {
+        // Given
+        conflits(volId, 3);
+        UUID autreVol = UUID.randomUUID();
+        conflits(autreVol, 1);
+
+        // When
+        avancer(Duration.ofSeconds(29));
+        boolean chaudAvantEcheance = detector.isChaud(volId);
+        avancer(Duration.ofSeconds(2));
+
+        // Then
+        assertThat(chaudAvantEcheance).isTrue();
+        assertThat(detector.isChaud(volId)).isFalse();
+        assertThat(detector.isChaud(autreVol)).isFalse();
+        assertThat(detector.getVolsChauds()).isEmpty();
+    }
+
+    private void appels(UUID id, int nombre) {
+        for (int i = 0; i < nombre; i++) {
+            detector.enregistrerAppel(id);
+        }
+    }
+
+    private void conflits(UUID id, int nombre) {
+        for (int i = 0; i < nombre; i++) {
+            detector.enregistrerConflit(id);
+        }
+    }
+
+    private void avancer(Duration duree) {
+        horloge.addAndGet(duree.toNanos());
+    }
+}
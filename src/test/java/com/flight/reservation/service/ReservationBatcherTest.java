@@ -0,0 +1,210 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Reservation;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationBatcherTest {
+    
+    @Mock
+    private VolRepository volRepository;
+    
+    @Mock
+    private ReservationRepository reservationRepository;
+    
+    @Mock
+    private VolService volService;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private ReservationBatcher reservationBatcher;
+    private Vol vol;
+    
+    @BeforeEach
+    void setUp() {
+        // Fenêtre large pour que toutes les demandes tombent dans le même lot
+        reservationBatcher = new ReservationBatcher(volRepository, reservationRepository, volService,
+                eventPublisher, transactionManager, 300, 64, 1, 5_000);
+        
+        vol = new Vol(
+            LocalDateTime.now().plusDays(1),
+            LocalDateTime.now().plusDays(1).plusHours(2),
+            "Paris",
+            "Lyon",
+            new BigDecimal("150.00"),
+            120,
+            180
+        );
+        vol.setId(UUID.randomUUID());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        reservationBatcher.shutdown();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_commit_concurrent_requests_for_same_flight_in_one_batch() throws Exception {
+        // Given - 7 places restantes, 5 demandes de 2 places
+        when(volRepository.findPlacesDisponiblesByVolId(vol.getId())).thenReturn(Optional.of(7));
+        when(volRepository.reservePlacesIfAvailable(vol.getId(), 6)).thenReturn(1);
+        when(volRepository.getReferenceById(vol.getId())).thenReturn(vol);
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            reservations.forEach(reservation -> reservation.setId(UUID.randomUUID()));
+            return reservations;
+        });
+        
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        CountDownLatch depart = new CountDownLatch(1);
+        
+        try {
+            // When
+            List<CompletableFuture<Boolean>> futures = IntStream.range(0, 5)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            depart.await();
+                            Passager passager = new Passager("User" + i, "Test", "user" + i + "@email.com");
+                            return reservationBatcher.submit(new ReservationRequest(vol.getId(), passager, 2)) != null;
+                        } catch (PlacesInsuffisantesException e) {
+                            return false;
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, executor))
+                    .toList();
+            depart.countDown();
+            
+            long admises = futures.stream().filter(CompletableFuture::join).count();
+            
+            // Then - un seul incrément et une seule insertion groupée pour 3 réservations
+            assertThat(admises).isEqualTo(3);
+            verify(volRepository, times(1)).reservePlacesIfAvailable(vol.getId(), 6);
+            
+            ArgumentCaptor<List<Reservation>> captor = ArgumentCaptor.forClass(List.class);
+            verify(reservationRepository, times(1)).saveAll(captor.capture());
+            assertThat(captor.getValue()).hasSize(3);
+            
+            verify(transactionManager, times(1)).commit(any());
+            verify(volService, times(1)).updatePlacesCache(vol.getId(), 1, 0L);
+            verify(eventPublisher, times(5)).publishEvent(any());
+            attendreFilesVides(reservationBatcher);
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void should_reject_request_not_decided_in_time_and_drop_idle_queue() throws Exception {
+        // Given - délai de décision plus court que la fenêtre du lot
+        ReservationBatcher batcher = new ReservationBatcher(volRepository, reservationRepository, volService,
+                eventPublisher, transactionManager, 300, 64, 1, 50);
+        Passager passager = new Passager("User", "Test", "user@email.com");
+        
+        try {
+            // When & Then - demande retirée de la file avant son lot, jamais traitée
+            assertThatThrownBy(() -> batcher.submit(new ReservationRequest(vol.getId(), passager, 2)))
+                    .isInstanceOf(RejectedExecutionException.class);
+            attendreFilesVides(batcher);
+            verifyNoInteractions(volRepository, reservationRepository, eventPublisher);
+        } finally {
+            batcher.shutdown();
+        }
+    }
+    
+    @Test
+    void should_wait_for_decision_of_request_already_in_batch() throws Exception {
+        // Given - lot plus long que le délai de décision
+        ReservationBatcher batcher = new ReservationBatcher(volRepository, reservationRepository, volService,
+                eventPublisher, transactionManager, 0, 64, 1, 50);
+        when(volRepository.findPlacesDisponiblesByVolId(vol.getId())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return Optional.of(7);
+        });
+        when(volRepository.reservePlacesIfAvailable(vol.getId(), 2)).thenReturn(1);
+        when(volRepository.getReferenceById(vol.getId())).thenReturn(vol);
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            reservations.forEach(reservation -> reservation.setId(UUID.randomUUID()));
+            return reservations;
+        });
+        Passager passager = new Passager("User", "Test", "user@email.com");
+        
+        try {
+            // When & Then - réservation commitée par le lot : l'appelant reçoit sa réponse, pas un 503
+            assertThat(batcher.submit(new ReservationRequest(vol.getId(), passager, 2)).getNombrePlaces()).isEqualTo(2);
+            attendreFilesVides(batcher);
+        } finally {
+            batcher.shutdown();
+        }
+    }
+    
+    @Test
+    void should_give_each_caller_its_own_exception_when_batch_fails() throws Exception {
+        // Given - incrément gardé refusé : tout le lot est annulé
+        when(volRepository.findPlacesDisponiblesByVolId(vol.getId())).thenReturn(Optional.of(7));
+        when(volRepository.reservePlacesIfAvailable(vol.getId(), 4)).thenReturn(0);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // When
+            List<CompletableFuture<Throwable>> futures = IntStream.range(0, 2)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> catchThrowable(() -> reservationBatcher.submit(
+                            new ReservationRequest(vol.getId(), new Passager("User" + i, "Test", "user" + i + "@email.com"), 2))),
+                            executor))
+                    .toList();
+            List<Throwable> echecs = futures.stream().map(CompletableFuture::join).toList();
+            
+            // Then
+            assertThat(echecs).allSatisfy(echec -> assertThat(echec).isInstanceOf(ReservationConflictException.class));
+            assertThat(echecs.get(0)).isNotSameAs(echecs.get(1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    private static void attendreFilesVides(ReservationBatcher batcher) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (batcher.getFilesActives() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(batcher.getFilesActives()).isZero();
+    }
+}
@@ -0,0 +1,58 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.enums.ModeReservation;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReservationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RetryTemplate retryTemplate = RetryTemplate.builder()
+            .maxAttempts(3)
+            .fixedBackoff(1)
+            .retryOn(OptimisticLockingFailureException.class)
+            .withListener(new ReservationMetrics(registry, ModeReservation.OPTIMISTIC_LOCK))
+            .build();
+
+    @Test
+    void should_count_retries_and_time_whole_call_as_success() {
+        // Given - deux conflits de version puis succès
+        AtomicInteger tentatives = new AtomicInteger();
+
+        // When
+        retryTemplate.execute(context -> {
+            if (tentatives.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("version");
+            }
+            return "ok";
+        });
+
+        // Then
+        assertThat(registry.get("reservation.retries").counter().count()).isEqualTo(2);
+        assertThat(registry.get("reservation.optimistic.failures").counter().count()).isEqualTo(2);
+        assertThat(registry.get("reservation.duration")
+                .tags("mode", "OPTIMISTIC_LOCK", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_tag_business_failure_without_retry() {
+        // When
+        assertThatThrownBy(() -> retryTemplate.execute(context -> {
+            throw new PlacesInsuffisantesException(1, 2);
+        })).isInstanceOf(PlacesInsuffisantesException.class);
+
+        // Then
+        assertThat(registry.get("reservation.retries").counter().count()).isZero();
+        assertThat(registry.get("reservation.attempts.failed")
+                .tag("exception", "PlacesInsuffisantesException").counter().count()).isEqualTo(1);
+        assertThat(registry.get("reservation.duration")
+                .tag("outcome", "insufficient_seats").timer().count()).isEqualTo(1);
+    }
+}
@@ -5,6 +5,7 @@ import com.flight.reservation.dto.ReservationResponse;
 import com.flight.reservation.entity.Passager;
 import com.flight.reservation.entity.Reservation;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.ModeReservation;
 import com.flight.reservation.exception.PlacesInsuffisantesException;
 import com.flight.reservation.exception.VolNotFoundException;
 import com.flight.reservation.repository.ReservationRepository;
@@ -16,6 +17,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -41,6 +43,27 @@ class ReservationServiceTest {
     @Mock
     private ApplicationEventPublisher eventPublisher;
     
+    @Mock
+    private SeatInventoryService seatInventoryService;
+    
+    @Mock
+    private ReservationBatcher reservationBatcher;
+    
+    @Mock
+    private ReservationPartitions reservationPartitions;
+    
+    @Mock
+    private HotFlightDetector hotFlightDetector;
+    
+    @Mock
+    private VolSearchCache volSearchCache;
+    
+    @Mock
+    private ReservationLedger reservationLedger;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     @InjectMocks
     private ReservationService reservationService;
     
@@ -85,7 +108,7 @@ class ReservationServiceTest {
         
         verify(volRepository).save(vol);
         verify(reservationRepository).save(any(Reservation.class));
-        verify(volService).evictCache(vol.getId());
+        verify(volService).updatePlacesCache(vol.getId(), 178, 0L);
         verify(eventPublisher).publishEvent(any());
     }
     
@@ -114,5 +137,86 @@ class ReservationServiceTest {
         
         verify(eventPublisher).publishEvent(any());
         verify(reservationRepository, never()).save(any());
+        verify(volSearchCache).enregistrerPlacesLues(vol.getId(), 1, 0L);
+    }
+    
+    @Test
+    void should_reserve_with_single_guarded_update_in_atomic_mode() {
+        // Given
+        ReservationService atomicService = new ReservationService(reservationRepository, volRepository,
+                volService, eventPublisher, seatInventoryService, reservationBatcher, reservationPartitions,
+                hotFlightDetector, volSearchCache, reservationLedger, transactionManager, ModeReservation.ATOMIC_UPDATE);
+        when(volRepository.reservePlacesIfAvailable(vol.getId(), 2)).thenReturn(1);
+        when(volRepository.findPlacesDisponiblesByVolId(vol.getId())).thenReturn(Optional.of(178));
+        
+        Reservation savedReservation = new Reservation(vol, reservationRequest.getPassager(), 2);
+        savedReservation.setId(UUID.randomUUID());
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(savedReservation);
+        
+        // When
+        ReservationResponse response = atomicService.creerReservation(reservationRequest);
+        
+        // Then
+        assertThat(response.getNumeroReservation()).isEqualTo(savedReservation.getId());
+        verify(volRepository, never()).findByIdWithOptimisticLock(any());
+        verify(volRepository, never()).save(any());
+        verify(volService).updatePlacesCache(vol.getId(), 178, 0L);
+        verify(eventPublisher).publishEvent(any());
+    }
+    
+    @Test
+    void should_throw_exception_when_guarded_update_matches_no_row() {
+        // Given
+        ReservationService atomicService = new ReservationService(reservationRepository, volRepository,
+                volService, eventPublisher, seatInventoryService, reservationBatcher, reservationPartitions,
+                hotFlightDetector, volSearchCache, reservationLedger, transactionManager, ModeReservation.ATOMIC_UPDATE);
+        when(volRepository.reservePlacesIfAvailable(vol.getId(), 2)).thenReturn(0);
+        when(volRepository.findPlacesDisponiblesByVolId(vol.getId())).thenReturn(Optional.of(1));
+        
+        // When & Then
+        assertThatThrownBy(() -> atomicService.creerReservation(reservationRequest))
+                .isInstanceOf(PlacesInsuffisantesException.class)
+                .hasMessageContaining("Disponibles: 1");
+        
+        verify(eventPublisher).publishEvent(any());
+        verify(reservationRepository, never()).save(any());
+    }
+    
+    @Test
+    void should_take_write_lock_before_reading_vol_in_pessimistic_mode() {
+        // Given
+        ReservationService pessimisticService = new ReservationService(reservationRepository, volRepository,
+                volService, eventPublisher, seatInventoryService, reservationBatcher, reservationPartitions,
+                hotFlightDetector, volSearchCache, reservationLedger, transactionManager, ModeReservation.PESSIMISTIC_LOCK);
+        when(volRepository.findByIdForUpdate(vol.getId())).thenReturn(Optional.of(vol));
+        
+        Reservation savedReservation = new Reservation(vol, reservationRequest.getPassager(), 2);
+        savedReservation.setId(UUID.randomUUID());
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(savedReservation);
+        
+        // When
+        pessimisticService.creerReservation(reservationRequest);
+        
+        // Then
+        var ordre = inOrder(volRepository);
+        ordre.verify(volRepository).verrouillerEnEcriture(vol.getId());
+        ordre.verify(volRepository).findByIdForUpdate(vol.getId());
+        ordre.verify(volRepository).save(vol);
+        verify(volRepository, never()).findByIdWithOptimisticLock(any());
+        verify(volService).updatePlacesCache(vol.getId(), 178, 0L);
+    }
+    
+    @Test
+    void should_reject_flight_known_sold_out_without_database_access() {
+        // Given
+        when(volSearchCache.getPlacesEnMemoire(vol.getId())).thenReturn(Optional.of(1));
+        
+        // When & Then
+        assertThatThrownBy(() -> reservationService.creerReservation(reservationRequest))
+                .isInstanceOf(PlacesInsuffisantesException.class)
+                .hasMessageContaining("Disponibles: 1");
+        
+        verify(eventPublisher).publishEvent(any());
+        verifyNoInteractions(volRepository, reservationRepository, reservationPartitions, hotFlightDetector);
     }
-}
\ No newline at end of file
+}
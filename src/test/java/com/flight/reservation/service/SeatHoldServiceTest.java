@@ -0,0 +1,164 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.RetenueRequest;
+import com.flight.reservation.dto.RetenueResponse;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.ModeReservation;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.exception.RetenueNotFoundException;
+import com.flight.reservation.exception.RetenuesNonSupporteesException;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldServiceTest {
+
+    private static final long DUREE_MS = 300_000;
+
+    @Mock
+    private VolRepository volRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReservationLedger reservationLedger;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private VolSearchCache volSearchCache;
+
+    private final AtomicLong horloge = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SeatInventoryService seatInventoryService;
+    private SeatHoldService seatHoldService;
+    private Vol vol;
+
+    @BeforeEach
+    void setUp() {
+        seatInventoryService = new SeatInventoryService(volRepository, reservationRepository, transactionManager);
+        seatHoldService = service(ModeReservation.IN_MEMORY_INVENTORY);
+
+        vol = new Vol(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2),
+                "Paris", "Lyon", new BigDecimal("150.00"), 120, 10);
+        vol.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void should_return_held_seats_when_the_hold_expires() {
+        // Given
+        charger();
+        RetenueResponse retenue = seatHoldService.retenir(new RetenueRequest(vol.getId(), 4));
+        assertThat(seatInventoryService.getPlacesDisponibles(vol.getId())).contains(6);
+
+        // When - juste avant puis juste après l'échéance
+        avancer(Duration.ofMillis(DUREE_MS - 1_000));
+        seatHoldService.expirer();
+        assertThat(seatHoldService.getRetenuesActives()).isEqualTo(1);
+        avancer(Duration.ofMillis(1_200));
+        seatHoldService.expirer();
+
+        // Then
+        assertThat(seatInventoryService.getPlacesDisponibles(vol.getId())).contains(10);
+        assertThat(seatHoldService.getRetenuesActives()).isZero();
+        verify(volSearchCache).rendrePlaces(vol.getId());
+        assertThatThrownBy(() -> seatHoldService.confirmer(retenue.getRetenueId(), passager()))
+                .isInstanceOf(RetenueNotFoundException.class);
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void should_confirm_a_hold_once_without_expiring_it_later() {
+        // Given
+        charger();
+        RetenueResponse retenue = seatHoldService.retenir(new RetenueRequest(vol.getId(), 3));
+
+        // When
+        seatHoldService.confirmer(retenue.getRetenueId(), passager());
+
+        // Then - places de la retenue confirmées telles quelles, ni libérables ni expirables
+        ArgumentCaptor<ReservationRequest> request = ArgumentCaptor.forClass(ReservationRequest.class);
+        verify(reservationService).confirmerRetenue(request.capture(), eq(10), eq(0L));
+        assertThat(request.getValue().getNombrePlaces()).isEqualTo(3);
+        assertThatThrownBy(() -> seatHoldService.liberer(retenue.getRetenueId()))
+                .isInstanceOf(RetenueNotFoundException.class);
+        avancer(Duration.ofMillis(DUREE_MS * 2));
+        seatHoldService.expirer();
+        assertThat(seatInventoryService.getPlacesDisponibles(vol.getId())).contains(7);
+    }
+
+    @Test
+    void should_count_confirmations_only_once_the_reservation_is_inserted() {
+        // Given - première insertion refusée, seconde acceptée
+        charger();
+        RetenueResponse refusee = seatHoldService.retenir(new RetenueRequest(vol.getId(), 2));
+        RetenueResponse acceptee = seatHoldService.retenir(new RetenueRequest(vol.getId(), 2));
+        when(reservationService.confirmerRetenue(any(), anyInt(), anyLong()))
+                .thenThrow(new ReservationConflictException("Insertion refusée"))
+                .thenReturn(null);
+
+        // When
+        assertThatThrownBy(() -> seatHoldService.confirmer(refusee.getRetenueId(), passager()))
+                .isInstanceOf(ReservationConflictException.class);
+        seatHoldService.confirmer(acceptee.getRetenueId(), passager());
+
+        // Then
+        assertThat(meterRegistry.counter("reservation.holds.confirmed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("reservation.holds.confirm.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_reject_holds_when_seats_are_admitted_in_database() {
+        SeatHoldService service = service(ModeReservation.OPTIMISTIC_LOCK);
+
+        assertThatThrownBy(() -> service.retenir(new RetenueRequest(vol.getId(), 1)))
+                .isInstanceOf(RetenuesNonSupporteesException.class);
+    }
+
+    private SeatHoldService service(ModeReservation mode) {
+        return new SeatHoldService(seatInventoryService, reservationLedger, reservationService, volSearchCache,
+                meterRegistry, mode, DUREE_MS, 100, 512, 1000, horloge::get);
+    }
+
+    private void charger() {
+        when(volRepository.findById(vol.getId())).thenReturn(Optional.of(vol));
+        when(reservationRepository.sumNombrePlacesByVolId(vol.getId())).thenReturn(0L);
+    }
+
+    private void avancer(Duration duree) {
+        horloge.addAndGet(duree.toNanos());
+    }
+
+    private static Passager passager() {
+        return new Passager("Test", "User", "test@email.com");
+    }
+}
@@ -0,0 +1,156 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatInventoryServiceTest {
+    
+    @Mock
+    private VolRepository volRepository;
+    
+    @Mock
+    private ReservationRepository reservationRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SeatInventoryService seatInventoryService;
+    private Vol vol;
+    
+    @BeforeEach
+    void setUp() {
+        seatInventoryService = new SeatInventoryService(volRepository, reservationRepository, transactionManager);
+        
+        vol = new Vol(
+            LocalDateTime.now().plusDays(1),
+            LocalDateTime.now().plusDays(1).plusHours(2),
+            "Paris",
+            "Lyon",
+            new BigDecimal("150.00"),
+            120,
+            100
+        );
+        vol.setId(UUID.randomUUID());
+    }
+    
+    @Test
+    void should_never_oversell_under_heavy_contention() throws Exception {
+        // Given
+        when(volRepository.findById(vol.getId())).thenReturn(Optional.of(vol));
+        when(reservationRepository.sumNombrePlacesByVolId(vol.getId())).thenReturn(0L);
+        
+        int threads = 32;
+        int tentativesParThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicInteger admises = new AtomicInteger();
+        AtomicInteger refusees = new AtomicInteger();
+        
+        try {
+            // When - 16 000 tentatives d'une place pour 100 places
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    depart.await();
+                    for (int i = 0; i < tentativesParThread; i++) {
+                        try {
+                            seatInventoryService.reserve(vol.getId(), 1);
+                            admises.incrementAndGet();
+                        } catch (PlacesInsuffisantesException e) {
+                            refusees.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            depart.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        // Then - exactement la capacité, jamais plus
+        assertThat(admises.get()).isEqualTo(100);
+        assertThat(refusees.get()).isEqualTo(threads * tentativesParThread - 100);
+        assertThat(seatInventoryService.getPlacesDisponibles(vol.getId())).contains(0);
+        verify(volRepository, times(1)).findById(vol.getId());
+    }
+    
+    @Test
+    void should_reject_request_larger_than_remaining_seats() {
+        // Given
+        vol.setPlacesReservees(98);
+        when(volRepository.findById(vol.getId())).thenReturn(Optional.of(vol));
+        when(reservationRepository.sumNombrePlacesByVolId(vol.getId())).thenReturn(98L);
+        
+        // When & Then
+        assertThatThrownBy(() -> seatInventoryService.reserve(vol.getId(), 3))
+                .isInstanceOf(PlacesInsuffisantesException.class)
+                .hasMessageContaining("Disponibles: 2");
+        assertThat(seatInventoryService.reserve(vol.getId(), 2)).isEqualTo(2);
+        assertThat(seatInventoryService.getPlacesDisponibles(vol.getId())).contains(0);
+    }
+    
+    @Test
+    void should_throw_exception_when_vol_not_found() {
+        // Given
+        when(volRepository.findById(vol.getId())).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThatThrownBy(() -> seatInventoryService.reserve(vol.getId(), 1))
+                .isInstanceOf(VolNotFoundException.class);
+        assertThat(seatInventoryService.getPlacesDisponibles(vol.getId())).isEmpty();
+    }
+    
+    @Test
+    void should_count_unflushed_reservations_when_loading() {
+        // Given - 10 places réservées en lignes mais seulement 4 reportées sur le vol
+        vol.setPlacesReservees(4);
+        when(volRepository.findById(vol.getId())).thenReturn(Optional.of(vol));
+        when(reservationRepository.sumNombrePlacesByVolId(vol.getId())).thenReturn(10L);
+        
+        // When
+        int avant = seatInventoryService.reserve(vol.getId(), 1);
+        
+        // Then
+        assertThat(avant).isEqualTo(90);
+        
+        // Le rattrapage et la place confirmée sont reportés en une seule requête
+        seatInventoryService.bindToTransaction(vol.getId(), 1);
+        seatInventoryService.flush();
+        verify(volRepository).incrementPlacesReservees(eq(vol.getId()), eq(7));
+        
+        seatInventoryService.flush();
+        verify(volRepository, times(1)).incrementPlacesReservees(any(), anyInt());
+    }
+}
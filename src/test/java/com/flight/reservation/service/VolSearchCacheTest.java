@@ -0,0 +1,173 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.config.CacheConfig;
+import com.flight.reservation.dto.VolResume;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.CorrespondanceVille;
+import com.flight.reservation.repository.VolRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VolSearchCacheTest {
+    
+    private static final LocalDateTime JOUR = LocalDateTime.of(2030, 5, 10, 0, 0);
+    
+    @Mock
+    private VolRepository volRepository;
+    
+    @Mock
+    private SeatInventoryService seatInventoryService;
+    
+    @Mock
+    private ReservationLedger reservationLedger;
+    
+    private CacheManager cacheManager;
+    private VolSearchCache volSearchCache;
+    
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager(100, 60);
+        volSearchCache = new VolSearchCache(volRepository, seatInventoryService, reservationLedger,
+                new SoldOutRegistry(new SimpleMeterRegistry(), 10), cacheManager);
+    }
+    
+    @Test
+    void should_serve_cached_results_with_current_seats() {
+        // Given
+        VolResume vol = volResume(UUID.randomUUID(), 10);
+        VolSearchCache.CleRecherche cle = cle("Paris", "Lyon");
+        AtomicInteger chargements = new AtomicInteger();
+        when(seatInventoryService.getPlacesDisponibles(any())).thenReturn(Optional.empty());
+        
+        // When - places modifiées puis évincées de vol-places après la mise en cache
+        volSearchCache.get(cle, () -> { chargements.incrementAndGet(); return List.of(vol); });
+        cacheManager.getCache(VolSearchCache.CACHE_PLACES).put(vol.getId(), 4);
+        List<VolResume> recouverts = volSearchCache.get(cle, () -> { chargements.incrementAndGet(); return List.of(vol); });
+        cacheManager.getCache(VolSearchCache.CACHE_PLACES).evict(vol.getId());
+        when(volRepository.findPlacesDisponiblesByVolIds(List.of(vol.getId())))
+                .thenReturn(List.<Object[]>of(new Object[] {vol.getId(), 1}));
+        List<VolResume> relus = volSearchCache.get(cle, () -> { chargements.incrementAndGet(); return List.of(vol); });
+        
+        // Then
+        assertThat(chargements).hasValue(1);
+        assertThat(recouverts.get(0).getPlacesDisponibles()).isEqualTo(4);
+        assertThat(relus.get(0).getPlacesDisponibles()).isEqualTo(1);
+    }
+    
+    @Test
+    void should_overlay_seats_known_in_memory_on_rows_read_from_database() {
+        // Given - un vol admis en mémoire, un autre plus bas dans vol-places que la ligne lue
+        VolResume admis = volResume(UUID.randomUUID(), 10);
+        VolResume enCache = volResume(UUID.randomUUID(), 10);
+        VolResume aJour = volResume(UUID.randomUUID(), 10);
+        when(seatInventoryService.getPlacesDisponibles(any())).thenReturn(Optional.empty());
+        when(seatInventoryService.getPlacesDisponibles(admis.getId())).thenReturn(Optional.of(12));
+        when(reservationLedger.getPlacesDisponibles(any())).thenReturn(Optional.empty());
+        cacheManager.getCache(VolSearchCache.CACHE_PLACES).put(enCache.getId(), 3);
+        cacheManager.getCache(VolSearchCache.CACHE_PLACES).put(aJour.getId(), 20);
+        
+        // When & Then - admission prioritaire, vol-places retenu seulement s'il est plus bas
+        assertThat(volSearchCache.withPlacesEnMemoire(admis).getPlacesDisponibles()).isEqualTo(12);
+        assertThat(volSearchCache.withPlacesEnMemoire(enCache).getPlacesDisponibles()).isEqualTo(3);
+        assertThat(volSearchCache.withPlacesEnMemoire(aJour)).isSameAs(aJour);
+    }
+    
+    @Test
+    void should_evict_only_searches_retaining_added_flight() {
+        // Given
+        VolSearchCache.CleRecherche parisLyon = cle("paris", "LY");
+        VolSearchCache.CleRecherche niceLyon = cle("Nice", "Lyon");
+        AtomicInteger chargements = new AtomicInteger();
+        volSearchCache.get(parisLyon, () -> { chargements.incrementAndGet(); return List.of(); });
+        volSearchCache.get(niceLyon, () -> { chargements.incrementAndGet(); return List.of(); });
+        
+        // When - nouveau vol Paris -> Lyon le même jour, hors transaction : éviction immédiate
+        volSearchCache.invalidate(List.of(new Vol(JOUR.plusHours(8), JOUR.plusHours(9), "Paris", "Lyon",
+                new BigDecimal("100.00"), 60, 100)));
+        volSearchCache.get(parisLyon, () -> { chargements.incrementAndGet(); return List.of(); });
+        volSearchCache.get(niceLyon, () -> { chargements.incrementAndGet(); return List.of(); });
+        
+        // Then - seule la recherche Paris -> Ly* est rechargée
+        assertThat(chargements).hasValue(3);
+    }
+    
+    @Test
+    void should_keep_lowest_seat_count_when_commits_arrive_out_of_order() {
+        // Given
+        UUID volId = UUID.randomUUID();
+        
+        // When - le commit de la seconde réservation est signalé avant celui de la première
+        volSearchCache.updatePlaces(volId, 6, volSearchCache.generationPlaces(volId));
+        volSearchCache.updatePlaces(volId, 8, volSearchCache.generationPlaces(volId));
+        
+        // Then
+        assertThat(cacheManager.getCache(VolSearchCache.CACHE_PLACES).get(volId, Integer.class)).isEqualTo(6);
+    }
+    
+    @Test
+    void should_ignore_seats_read_before_a_cancellation() {
+        // Given - un refus et une réservation lisent le vol complet
+        UUID volId = UUID.randomUUID();
+        long generationRefus = volSearchCache.generationPlaces(volId);
+        long generationReservation = volSearchCache.generationPlaces(volId);
+        
+        // When - l'annulation commite avant que le refus et la réservation n'écrivent leurs places
+        volSearchCache.rendrePlaces(volId);
+        volSearchCache.enregistrerPlacesLues(volId, 0, generationRefus);
+        volSearchCache.updatePlaces(volId, 0, generationReservation);
+        
+        // Then - le vol n'est pas tenu pour complet, une lecture postérieure est retenue
+        assertThat(volSearchCache.getPlacesEnMemoire(volId)).isEmpty();
+        volSearchCache.enregistrerPlacesLues(volId, 2, volSearchCache.generationPlaces(volId));
+        assertThat(volSearchCache.getPlacesEnMemoire(volId)).contains(2);
+    }
+    
+    @Test
+    void should_withdraw_a_refusal_written_while_seats_are_released() {
+        // Given - l'annulation commite pendant l'écriture du refus, après sa vérification de génération
+        UUID volId = UUID.randomUUID();
+        AtomicReference<VolSearchCache> cache = new AtomicReference<>();
+        SoldOutRegistry registre = new SoldOutRegistry(new SimpleMeterRegistry(), 10) {
+            @Override
+            public void enregistrer(UUID id, int places) {
+                cache.get().rendrePlaces(id);
+                super.enregistrer(id, places);
+            }
+        };
+        cache.set(new VolSearchCache(volRepository, seatInventoryService, reservationLedger, registre, cacheManager));
+        
+        // When
+        cache.get().enregistrerPlacesLues(volId, 0, cache.get().generationPlaces(volId));
+        
+        // Then
+        assertThat(registre.getPlacesRestantes(volId)).isEmpty();
+        assertThat(cache.get().getPlacesEnMemoire(volId)).isEmpty();
+    }
+    
+    private VolSearchCache.CleRecherche cle(String villeDepart, String villeArrivee) {
+        return VolSearchCache.CleRecherche.of(JOUR, null, villeDepart, villeArrivee, CorrespondanceVille.PREFIX, "prix");
+    }
+    
+    private VolResume volResume(UUID id, int placesDisponibles) {
+        return new VolResume(id, JOUR.plusHours(8), JOUR.plusHours(9), "Paris", "Lyon",
+                new BigDecimal("100.00"), 60, 100, placesDisponibles);
+    }
+}